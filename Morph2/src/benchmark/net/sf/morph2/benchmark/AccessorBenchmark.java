@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.morph2.reflect.BeanReflector;
+import net.sf.morph2.reflect.reflectors.ObjectReflector;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares bean property access through {@link ObjectReflector}, whose
+ * accessors skip the access check on each call, to access-checked
+ * <code>Method.invoke</code> and to hand-written accessor calls.
+ * 
+ * @since Morph 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessorBenchmark {
+	private BeanReflector reflector;
+	private Method getter;
+	private Method setter;
+	private BenchmarkBean bean;
+	private String name;
+
+	@Setup
+	public void setUp() throws Exception {
+		reflector = new ObjectReflector();
+		getter = BenchmarkBean.class.getMethod("getName", new Class[0]);
+		setter = BenchmarkBean.class.getMethod("setName", new Class[] { String.class });
+		bean = BenchmarkBean.createFullBean();
+		name = "renamed";
+	}
+
+	@Benchmark
+	public Object reflectorGet() {
+		return reflector.get(bean, "name");
+	}
+
+	@Benchmark
+	public Object methodInvokeGet() throws Exception {
+		return getter.invoke(bean, new Object[0]);
+	}
+
+	@Benchmark
+	public Object manualGet() {
+		return bean.getName();
+	}
+
+	@Benchmark
+	public void reflectorSet() {
+		reflector.set(bean, "name", name);
+	}
+
+	@Benchmark
+	public void methodInvokeSet() throws Exception {
+		setter.invoke(bean, new Object[] { name });
+	}
+
+	@Benchmark
+	public void manualSet() {
+		bean.setName(name);
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.morph2.transform.copiers.PropertyNameMatchingCopier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares bean-to-bean copies by {@link PropertyNameMatchingCopier}, with
+ * and without compiled copy plans and generated copiers, to hand-written
+ * property assignment.
+ * 
+ * @since Morph 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BeanCopyBenchmark {
+	private final Locale locale = Locale.US;
+	private PropertyNameMatchingCopier copier;
+	private PropertyNameMatchingCopier planCopier;
+	private PropertyNameMatchingCopier generatingCopier;
+	private BenchmarkBean source;
+
+	@Setup
+	public void setUp() {
+		copier = new PropertyNameMatchingCopier();
+		planCopier = new PropertyNameMatchingCopier();
+		planCopier.setCompilingPlans(true);
+		generatingCopier = new PropertyNameMatchingCopier();
+		generatingCopier.setGeneratingCopiers(true);
+		source = BenchmarkBean.createFullBean();
+	}
+
+	@Benchmark
+	public Object morphCopy() {
+		BenchmarkBean destination = new BenchmarkBean();
+		copier.copy(destination, source, locale);
+		return destination;
+	}
+
+	@Benchmark
+	public Object morphCopyWithPlan() {
+		BenchmarkBean destination = new BenchmarkBean();
+		planCopier.copy(destination, source, locale);
+		return destination;
+	}
+
+	@Benchmark
+	public Object morphCopyWithGeneratedCopier() {
+		BenchmarkBean destination = new BenchmarkBean();
+		generatingCopier.copy(destination, source, locale);
+		return destination;
+	}
+
+	@Benchmark
+	public Object manualCopy() {
+		return copy(source);
+	}
+
+	private static BenchmarkBean copy(BenchmarkBean source) {
+		if (source == null) {
+			return null;
+		}
+		BenchmarkBean destination = new BenchmarkBean();
+		destination.setId(source.getId());
+		destination.setName(source.getName());
+		destination.setAge(source.getAge());
+		destination.setBalance(source.getBalance());
+		destination.setCreated(source.getCreated());
+		destination.setChild(copy(source.getChild()));
+		return destination;
+	}
+
+}
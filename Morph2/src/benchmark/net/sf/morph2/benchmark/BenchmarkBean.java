@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A typical DTO used as the subject of the benchmarks.
+ * 
+ * @since Morph 2.0
+ */
+public class BenchmarkBean {
+	private Long id;
+	private String name;
+	private int age;
+	private BigDecimal balance;
+	private Date created;
+	private BenchmarkBean child;
+
+	/**
+	 * Create a populated BenchmarkBean with a populated child.
+	 * @return BenchmarkBean
+	 */
+	public static BenchmarkBean createFullBean() {
+		BenchmarkBean child = new BenchmarkBean();
+		child.setId(Long.valueOf(2));
+		child.setName("child");
+		child.setAge(7);
+		child.setBalance(new BigDecimal("12.50"));
+		child.setCreated(new Date(0));
+
+		BenchmarkBean bean = new BenchmarkBean();
+		bean.setId(Long.valueOf(1));
+		bean.setName("parent");
+		bean.setAge(42);
+		bean.setBalance(new BigDecimal("12345.67"));
+		bean.setCreated(new Date(0));
+		bean.setChild(child);
+		return bean;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getAge() {
+		return age;
+	}
+
+	public void setAge(int age) {
+		this.age = age;
+	}
+
+	public BigDecimal getBalance() {
+		return balance;
+	}
+
+	public void setBalance(BigDecimal balance) {
+		this.balance = balance;
+	}
+
+	public Date getCreated() {
+		return created;
+	}
+
+	public void setCreated(Date created) {
+		this.created = created;
+	}
+
+	public BenchmarkBean getChild() {
+		return child;
+	}
+
+	public void setChild(BenchmarkBean child) {
+		this.child = child;
+	}
+
+}
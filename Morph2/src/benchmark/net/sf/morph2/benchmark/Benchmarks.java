@@ -0,0 +1,42 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the Morph benchmarks with the GC profiler attached, so that each
+ * result is reported along with its allocation rate.  Command line arguments
+ * are passed to JMH; e.g. <code>BeanCopy</code> runs only the bean copy
+ * suite.
+ * 
+ * @since Morph 2.0
+ */
+public class Benchmarks {
+
+	public static void main(String[] args) throws Exception {
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(new CommandLineOptions(args));
+		if (args.length == 0) {
+			builder.include(Benchmarks.class.getPackage().getName() + ".*Benchmark");
+		}
+		Options options = builder.addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.morph2.transform.copiers.ContainerCopier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares container copies by {@link ContainerCopier} to hand-written loops.
+ * 
+ * @since Morph 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContainerCopyBenchmark {
+	private final Locale locale = Locale.US;
+
+	@Param({ "10", "1000" })
+	private int size;
+
+	private ContainerCopier copier;
+	private List source;
+
+	@Setup
+	public void setUp() {
+		copier = new ContainerCopier();
+		source = new ArrayList(size);
+		for (int i = 0; i < size; i++) {
+			source.add(Integer.valueOf(i));
+		}
+	}
+
+	@Benchmark
+	public Object morphListToArray() {
+		Integer[] destination = new Integer[size];
+		copier.copy(destination, source, locale);
+		return destination;
+	}
+
+	@Benchmark
+	public Object manualListToArray() {
+		Integer[] destination = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			destination[i] = (Integer) source.get(i);
+		}
+		return destination;
+	}
+
+	@Benchmark
+	public Object morphListToPrimitiveArray() {
+		return copier.convert(int[].class, source, locale);
+	}
+
+	@Benchmark
+	public Object manualListToPrimitiveArray() {
+		int[] destination = new int[size];
+		for (int i = 0; i < size; i++) {
+			destination[i] = ((Integer) source.get(i)).intValue();
+		}
+		return destination;
+	}
+
+	@Benchmark
+	public Object morphListToList() {
+		List destination = new ArrayList(size);
+		copier.copy(destination, source, locale);
+		return destination;
+	}
+
+	@Benchmark
+	public Object manualListToList() {
+		return new ArrayList(source);
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.morph2.context.Context;
+import net.sf.morph2.context.contexts.MapContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Context} lookups, local and inherited from a parent
+ * context, to hand-written Map lookups.
+ * 
+ * @since Morph 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContextBenchmark {
+	private Map parentMap;
+	private Map childMap;
+	private Context context;
+
+	@Setup
+	public void setUp() {
+		parentMap = new HashMap();
+		parentMap.put("inherited", "parent value");
+		childMap = new HashMap();
+		childMap.put("local", "child value");
+		context = new MapContext(new MapContext(parentMap), childMap);
+	}
+
+	@Benchmark
+	public Object contextGetLocal() {
+		return context.get("local");
+	}
+
+	@Benchmark
+	public Object manualGetLocal() {
+		return childMap.get("local");
+	}
+
+	@Benchmark
+	public Object contextGetInherited() {
+		return context.get("inherited");
+	}
+
+	@Benchmark
+	public Object manualGetInherited() {
+		Object value = childMap.get("inherited");
+		return value == null ? parentMap.get("inherited") : value;
+	}
+
+}
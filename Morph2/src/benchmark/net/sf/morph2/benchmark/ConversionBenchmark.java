@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.morph2.Morph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link Morph} conversions of primitives, text, numbers and times
+ * to the equivalent hand-written code.
+ * 
+ * @since Morph 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConversionBenchmark {
+	private final Locale locale = Locale.US;
+	private final NumberFormat numberFormat = NumberFormat.getNumberInstance(locale);
+	private final Integer integer = Integer.valueOf(12345);
+	private final String text = "12345";
+	private final Double doubleValue = Double.valueOf(123456.789d);
+	private final Long longValue = Long.valueOf(1234567890123L);
+	private final Date date = new Date(1234567890123L);
+
+	@Benchmark
+	public Object morphIntegerToLongPrimitive() {
+		return Morph.convert(long.class, integer);
+	}
+
+	@Benchmark
+	public Object manualIntegerToLongPrimitive() {
+		return Long.valueOf(integer.longValue());
+	}
+
+	@Benchmark
+	public Object morphTextToInteger() {
+		return Morph.convertToInteger(text);
+	}
+
+	@Benchmark
+	public Object manualTextToInteger() {
+		return Integer.valueOf(text);
+	}
+
+	@Benchmark
+	public Object morphDoubleToText() {
+		return Morph.convertToString(doubleValue, locale);
+	}
+
+	@Benchmark
+	public Object manualDoubleToText() {
+		return numberFormat.format(doubleValue);
+	}
+
+	@Benchmark
+	public Object morphLongToBigDecimal() {
+		return Morph.convertToBigDecimal(longValue);
+	}
+
+	@Benchmark
+	public Object manualLongToBigDecimal() {
+		return BigDecimal.valueOf(longValue.longValue());
+	}
+
+	@Benchmark
+	public Object morphDateToLong() {
+		return Morph.convertToLong(date);
+	}
+
+	@Benchmark
+	public Object manualDateToLong() {
+		return Long.valueOf(date.getTime());
+	}
+
+	@Benchmark
+	public Object morphLongToDate() {
+		return Morph.convertToDate(longValue);
+	}
+
+	@Benchmark
+	public Object manualLongToDate() {
+		return new Date(longValue.longValue());
+	}
+
+}
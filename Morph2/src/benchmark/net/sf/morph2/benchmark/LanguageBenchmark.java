@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sf.morph2.lang.Language;
+import net.sf.morph2.lang.languages.SimpleLanguage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link SimpleLanguage} expression evaluation to hand-written
+ * accessor calls.
+ * 
+ * @since Morph 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LanguageBenchmark {
+	private Language language;
+	private BenchmarkBean bean;
+	private String name;
+
+	@Setup
+	public void setUp() {
+		language = new SimpleLanguage();
+		bean = BenchmarkBean.createFullBean();
+		name = "renamed";
+	}
+
+	@Benchmark
+	public Object languageGetProperty() {
+		return language.get(bean, "name");
+	}
+
+	@Benchmark
+	public Object manualGetProperty() {
+		return bean.getName();
+	}
+
+	@Benchmark
+	public Object languageGetNestedProperty() {
+		return language.get(bean, "child.name");
+	}
+
+	@Benchmark
+	public Object manualGetNestedProperty() {
+		return bean.getChild().getName();
+	}
+
+	@Benchmark
+	public void languageSetNestedProperty() {
+		language.set(bean, "child.name", name);
+	}
+
+	@Benchmark
+	public void manualSetNestedProperty() {
+		bean.getChild().setName(name);
+	}
+
+}
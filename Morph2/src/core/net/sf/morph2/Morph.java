@@ -13,6 +13,9 @@
  */
 package net.sf.morph2;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Calendar;
@@ -22,20 +25,12 @@ import java.util.Locale;
 
 import net.sf.morph2.lang.InvalidExpressionException;
 import net.sf.morph2.lang.LanguageException;
-import net.sf.morph2.lang.languages.SimpleLanguage;
-import net.sf.morph2.reflect.BeanReflector;
-import net.sf.morph2.reflect.ContainerReflector;
-import net.sf.morph2.reflect.DecoratedReflector;
-import net.sf.morph2.reflect.GrowableContainerReflector;
-import net.sf.morph2.reflect.IndexedContainerReflector;
-import net.sf.morph2.reflect.InstantiatingReflector;
-import net.sf.morph2.reflect.MutableIndexedContainerReflector;
 import net.sf.morph2.reflect.ReflectionException;
 import net.sf.morph2.reflect.Reflector;
-import net.sf.morph2.reflect.SizableReflector;
-import net.sf.morph2.transform.DecoratedConverter;
-import net.sf.morph2.transform.DecoratedCopier;
+import net.sf.morph2.transform.TentativeConverter;
 import net.sf.morph2.transform.TransformationException;
+import net.sf.morph2.transform.converters.BaseToPrettyTextConverter;
+import net.sf.morph2.util.Assert;
 import net.sf.morph2.wrap.Bean;
 import net.sf.morph2.wrap.Container;
 import net.sf.morph2.wrap.GrowableContainer;
@@ -64,23 +59,65 @@ import net.sf.morph2.wrap.WrapperException;
  */
 public abstract class Morph {
 	
-	private static final SizableReflector DEFAULT_SIZABLE_REFLECTOR = Defaults.createSizableReflector();
-	private static final MutableIndexedContainerReflector DEFAULT_MUTABLE_INDEXED_CONTAINER_REFLECTOR = Defaults.createMutableIndexedContainerReflector();
-	private static final InstantiatingReflector DEFAULT_INSTANTIATING_REFLECTOR = Defaults.createInstantiatingReflector();
-	private static final IndexedContainerReflector DEFAULT_INDEXED_CONTAINER_REFLECTOR = Defaults.createIndexedContainerReflector();
-	private static final GrowableContainerReflector DEFAULT_GROWABLE_CONTAINER_REFLECTOR = Defaults.createGrowableContainerReflector();
-	private static final ContainerReflector DEFAULT_CONTAINER_REFLECTOR = Defaults.createContainerReflector();
-	private static final BeanReflector DEFAULT_BEAN_REFLECTOR = Defaults.createBeanReflector();
-	private static final DecoratedReflector DEFAULT_REFLECTOR = Defaults.createReflector();
-	private static final DecoratedCopier DEFAULT_COPIER = Defaults.createCopier();
-	private static final SimpleLanguage DEFAULT_LANGUAGE = Defaults.createLanguage();
-	private static final DecoratedConverter DEFAULT_PRETTY_TEXT_CONVERTER = Defaults.createPrettyTextConverter();
-	private static final DecoratedConverter DEFAULT_CONVERTER = Defaults.createConverter();
-	
 	/**
 	 * This class cannot be instantiated.
 	 */
 	private Morph() { }
+
+	/**
+	 * Prepare the components behind this facade for the specified types, so
+	 * that the first calls involving them are not slowed down by component
+	 * selection.  The reflectors for each type are resolved, as are the
+	 * transformers and copiers between each ordered pair of the types,
+	 * including each type and itself.  Calling this method is never necessary.
+	 * 
+	 * @param types
+	 *            the types that will be reflected, converted and copied
+	 * @since Morph 2.0
+	 */
+	public static void warmUp(Class... types) {
+		Assert.notNull(types, "types");
+		MorphEngine.warmUp(types);
+	}
+
+	/**
+	 * Write the transformers and reflectors this facade has selected so far,
+	 * so that another JVM can skip selecting them again by calling
+	 * {@link #readDispatchSnapshot(InputStream)} at startup. The output
+	 * stream is not closed.
+	 * 
+	 * @param outputStream
+	 *            the stream to write to
+	 * @throws IOException
+	 *             if the snapshot could not be written
+	 * @since Morph 2.0
+	 */
+	public static void writeDispatchSnapshot(OutputStream outputStream) throws IOException {
+		Assert.notNull(outputStream, "outputStream");
+		MorphEngine.writeDispatchSnapshot(outputStream);
+	}
+
+	/**
+	 * Preload the selections written by
+	 * {@link #writeDispatchSnapshot(OutputStream)}. Selections are only used
+	 * if they were made by components configured like the components behind
+	 * this facade and if the selected component can still perform the
+	 * selected transformation or reflection; selections involving classes that
+	 * cannot be loaded are ignored. A stale snapshot can therefore only make
+	 * this facade use a capable component other than the one it would have
+	 * selected itself. The input stream is not closed.
+	 * 
+	 * @param inputStream
+	 *            the stream to read from
+	 * @return whether the snapshot was used
+	 * @throws IOException
+	 *             if the snapshot could not be read
+	 * @since Morph 2.0
+	 */
+	public static boolean readDispatchSnapshot(InputStream inputStream) throws IOException {
+		Assert.notNull(inputStream, "inputStream");
+		return MorphEngine.readDispatchSnapshot(inputStream);
+	}
 	
 	/**
 	 * Converts the given <code>source</code> into an object of class
@@ -100,7 +137,27 @@ public abstract class Morph {
 	 */
 	public static Object convert(Class destinationClass, Object source)
 		throws TransformationException {
-		return DEFAULT_CONVERTER.convert(destinationClass, source);
+		return MorphEngine.getTransformer().convert(destinationClass, source);
+	}
+
+	/**
+	 * Attempts to convert the given <code>source</code> into an object of
+	 * class <code>destinationClass</code>. Where
+	 * {@link #convert(Class, Object)} would throw a TransformationException,
+	 * this method returns {@link TentativeConverter#NOT_CONVERTED} instead,
+	 * which makes it considerably faster for validating input of which much
+	 * cannot be converted.
+	 * 
+	 * @param destinationClass
+	 *            the destination class to convert
+	 * @param source
+	 *            the source object to convert
+	 * @return the result of the conversion or
+	 *         {@link TentativeConverter#NOT_CONVERTED}
+	 * @since Morph 2.0
+	 */
+	public static Object tryConvert(Class destinationClass, Object source) {
+		return MorphEngine.getTransformer().tryConvert(destinationClass, source);
 	}
 	
 	/**
@@ -124,7 +181,7 @@ public abstract class Morph {
 	 */
 	public static Object convert(Class destinationClass, Object source, Locale locale)
 		throws TransformationException {
-		return DEFAULT_CONVERTER.convert(destinationClass, source, locale);
+		return MorphEngine.getTransformer().convert(destinationClass, source, locale);
 	}
 	
 	/**
@@ -143,7 +200,29 @@ public abstract class Morph {
 	 */
 	public static String convertToPrettyString(Object source)
 		throws TransformationException {
-		return (String) DEFAULT_PRETTY_TEXT_CONVERTER.convert(String.class, source);
+		return (String) MorphEngine.getPrettyTextConverter().convert(String.class, source);
+	}
+
+	/**
+	 * Appends the text {@link #convertToPrettyString(Object)} would return
+	 * for <code>source</code> to <code>destination</code>, writing the text
+	 * of the whole object graph directly to <code>destination</code>.
+	 * <code>null</code> is appended as <code>"null"</code>.  If part of the
+	 * graph cannot be displayed, a destination other than a StringBuilder or
+	 * StringBuffer may keep the text written for that part before it failed.
+	 * 
+	 * @param destination
+	 *            the Appendable, such as a StringBuilder or Writer, to which
+	 *            the text is appended
+	 * @param source
+	 *            the source object to convert
+	 * @throws TransformationException
+	 *             if an error occurred while performing the conversion
+	 * @since Morph 2.0
+	 */
+	public static void appendPrettyString(Appendable destination, Object source)
+		throws TransformationException {
+		((BaseToPrettyTextConverter) MorphEngine.getPrettyTextConverter()).append(destination, source, null);
 	}
 	
 	/**
@@ -528,7 +607,7 @@ public abstract class Morph {
 	 */
 	public static Object get(Object target, String expression)
 		throws LanguageException {
-		return DEFAULT_LANGUAGE.get(target, expression);
+		return MorphEngine.getLanguage().get(target, expression);
 	}
 	
 	/**
@@ -557,7 +636,7 @@ public abstract class Morph {
 	 */
 	public static Object get(Object target, String expression, Class destinationClass)
 		throws LanguageException, TransformationException {
-		return DEFAULT_LANGUAGE.get(target, expression, destinationClass);
+		return MorphEngine.getLanguage().get(target, expression, destinationClass);
 	}
 	
 	/**
@@ -590,7 +669,7 @@ public abstract class Morph {
 	 */
 	public static Object get(Object target, String expression, Class destinationClass,
 		Locale locale) throws LanguageException, TransformationException {
-		return DEFAULT_LANGUAGE.get(target, expression, destinationClass, locale);
+		return MorphEngine.getLanguage().get(target, expression, destinationClass, locale);
 	}
 	
 	/**
@@ -623,7 +702,7 @@ public abstract class Morph {
 	 */
 	public static Object get(Object target, String expression, Locale locale,
 		Class destinationClass) throws LanguageException, TransformationException {
-		return DEFAULT_LANGUAGE.get(target, expression, locale, destinationClass);
+		return MorphEngine.getLanguage().get(target, expression, locale, destinationClass);
 	}
 	
 	/**
@@ -650,7 +729,7 @@ public abstract class Morph {
 	 */
 	public static void set(Object target, String expression, Object value)
 		throws LanguageException, TransformationException {
-		DEFAULT_LANGUAGE.set(target, expression, value);
+		MorphEngine.getLanguage().set(target, expression, value);
 	}
 	
 	/**
@@ -681,7 +760,7 @@ public abstract class Morph {
 	 */
 	public static void set(Object target, String expression, Object value,
 		Locale locale) throws LanguageException, TransformationException {
-		DEFAULT_LANGUAGE.set(target, expression, value, locale);
+		MorphEngine.getLanguage().set(target, expression, value, locale);
 	}
 	
 	/**
@@ -699,7 +778,7 @@ public abstract class Morph {
 	 */
 	
 	public static void copy(Object destination, Object source) throws TransformationException {
-		DEFAULT_COPIER.copy(destination, source);
+		MorphEngine.getTransformer().copy(destination, source);
 	}
 
 	/**
@@ -720,7 +799,7 @@ public abstract class Morph {
 	 */
 	public static void copy(Object destination, Object source, Locale locale)
 		throws TransformationException {
-		DEFAULT_COPIER.copy(destination, source, locale);
+		MorphEngine.getTransformer().copy(destination, source, locale);
 	}
 
 	/**
@@ -733,7 +812,7 @@ public abstract class Morph {
 	 *             if the wrapper could not be retrieved
 	 */
 	public static Bean getBean(Object object) throws WrapperException {
-		return (Bean) DEFAULT_REFLECTOR.getWrapper(object);
+		return (Bean) MorphEngine.getReflector().getWrapper(object);
 	}
 	
 	/**
@@ -746,7 +825,7 @@ public abstract class Morph {
 	 *             if the wrapper could not be retrieved
 	 */
 	public static Container getContainer(Object object) throws WrapperException {
-		return (Container) DEFAULT_REFLECTOR.getWrapper(object);
+		return (Container) MorphEngine.getReflector().getWrapper(object);
 	}
 	
 	/**
@@ -759,7 +838,7 @@ public abstract class Morph {
 	 *             if the wrapper could not be retrieved
 	 */
 	public static GrowableContainer getGrowableContainer(Object object) throws WrapperException {
-		return (GrowableContainer) DEFAULT_REFLECTOR.getWrapper(object);
+		return (GrowableContainer) MorphEngine.getReflector().getWrapper(object);
 	}
 	
 	/**
@@ -772,7 +851,7 @@ public abstract class Morph {
 	 *             if the wrapper could not be retrieved
 	 */
 	public static IndexedContainer getIndexedContainer(Object object) throws WrapperException {
-		return (IndexedContainer) DEFAULT_REFLECTOR.getWrapper(object);
+		return (IndexedContainer) MorphEngine.getReflector().getWrapper(object);
 	}
 	
 	/**
@@ -785,7 +864,7 @@ public abstract class Morph {
 	 *             if the wrapper could not be retrieved
 	 */
 	public static MutableIndexedContainer getMutableIndexedContainer(Object object) throws WrapperException {
-		return (MutableIndexedContainer) DEFAULT_REFLECTOR.getWrapper(object);
+		return (MutableIndexedContainer) MorphEngine.getReflector().getWrapper(object);
 	}
 
 	/**
@@ -1264,7 +1343,7 @@ public abstract class Morph {
 	 *             if bean is <code>null</code>
 	 */
 	public static String[] getPropertyNames(Object bean) throws ReflectionException {
-		return DEFAULT_BEAN_REFLECTOR.getPropertyNames(bean);
+		return MorphEngine.getReflector().getPropertyNames(bean);
 	}
 
 	/**
@@ -1288,7 +1367,7 @@ public abstract class Morph {
 	 */
 	public static Class getType(Object bean, String propertyName)
 		throws ReflectionException {
-		return DEFAULT_BEAN_REFLECTOR.getType(bean, propertyName);
+		return MorphEngine.getReflector().getType(bean, propertyName);
 	}
 
 	/**
@@ -1312,8 +1391,8 @@ public abstract class Morph {
 	 */
 	public static Class getType(Class beanType, String propertyName)
 		throws ReflectionException {
-		Object bean = DEFAULT_INSTANTIATING_REFLECTOR.newInstance(beanType, null);
-		return DEFAULT_BEAN_REFLECTOR.getType(bean, propertyName);
+		Object bean = MorphEngine.getReflector().newInstance(beanType, null);
+		return MorphEngine.getReflector().getType(bean, propertyName);
 	}
 
 	/**
@@ -1335,7 +1414,7 @@ public abstract class Morph {
 	 */
 	public static boolean isReadable(Object bean, String propertyName)
 		throws ReflectionException {
-		return DEFAULT_BEAN_REFLECTOR.isReadable(bean, propertyName);
+		return MorphEngine.getReflector().isReadable(bean, propertyName);
 	}
 
 	/**
@@ -1361,7 +1440,7 @@ public abstract class Morph {
 	 */
 	public static boolean isWriteable(Object bean, String propertyName)
 		throws ReflectionException {
-		return DEFAULT_BEAN_REFLECTOR.isWriteable(bean, propertyName);
+		return MorphEngine.getReflector().isWriteable(bean, propertyName);
 	}
 
 	/**
@@ -1380,7 +1459,7 @@ public abstract class Morph {
 	 *             determined
 	 */
 	public static Class getContainedType(Class clazz) throws ReflectionException {
-		return DEFAULT_CONTAINER_REFLECTOR.getContainedType(clazz);
+		return MorphEngine.getReflector().getContainedType(clazz);
 	}
 
 	/**
@@ -1398,7 +1477,7 @@ public abstract class Morph {
 	 *             the Iterator could not be created for some reason
 	 */
 	public static Iterator getIterator(Object container) throws ReflectionException {
-		return DEFAULT_CONTAINER_REFLECTOR.getIterator(container);
+		return MorphEngine.getReflector().getIterator(container);
 	}
 	
 	/**
@@ -1415,7 +1494,7 @@ public abstract class Morph {
 	 *             if an error occurrs
 	 */
 	public static boolean add(Object container, Object value) throws ReflectionException {
-		return DEFAULT_GROWABLE_CONTAINER_REFLECTOR.add(container, value);
+		return MorphEngine.getReflector().add(container, value);
 	}
 	
 	/**
@@ -1435,7 +1514,7 @@ public abstract class Morph {
 	 *             some reason
 	 */
 	public static Object get(Object container, int index) throws ReflectionException {
-		return DEFAULT_INDEXED_CONTAINER_REFLECTOR.get(container, index);
+		return MorphEngine.getReflector().get(container, index);
 	}
 
 	/**
@@ -1447,7 +1526,7 @@ public abstract class Morph {
 	 *             if an error occurrs
 	 */
 	public static Object newInstance(Class clazz) throws ReflectionException {
-		return DEFAULT_INSTANTIATING_REFLECTOR.newInstance(clazz, null);
+		return MorphEngine.getReflector().newInstance(clazz, null);
 	}
 	
 	/**
@@ -1470,7 +1549,7 @@ public abstract class Morph {
 	 */
 	public static Object set(Object container, int index, Object propertyValue)
 		throws ReflectionException {
-		return DEFAULT_MUTABLE_INDEXED_CONTAINER_REFLECTOR.set(container, index, propertyValue);
+		return MorphEngine.getReflector().set(container, index, propertyValue);
 	}
 	
 	/**
@@ -1486,7 +1565,7 @@ public abstract class Morph {
 	 *             number of elements in the object could not be determined
 	 */
 	public static int getSize(Object object) throws ReflectionException {
-		return DEFAULT_SIZABLE_REFLECTOR.getSize(object);
+		return MorphEngine.getReflector().getSize(object);
 	}
 	
 }
@@ -0,0 +1,237 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import net.sf.morph2.lang.languages.SimpleLanguage;
+import net.sf.morph2.reflect.BeanReflector;
+import net.sf.morph2.reflect.ContainerReflector;
+import net.sf.morph2.reflect.GrowableContainerReflector;
+import net.sf.morph2.reflect.IndexedContainerReflector;
+import net.sf.morph2.reflect.InstantiatingReflector;
+import net.sf.morph2.reflect.MutableIndexedContainerReflector;
+import net.sf.morph2.reflect.SizableReflector;
+import net.sf.morph2.reflect.reflectors.SimpleDelegatingReflector;
+import net.sf.morph2.transform.DecoratedConverter;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.converters.ObjectToPrettyTextConverter;
+import net.sf.morph2.transform.copiers.ContainerCopier;
+import net.sf.morph2.transform.copiers.TextToContainerCopier;
+import net.sf.morph2.transform.transformers.BaseReflectorTransformer;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+
+/**
+ * The components behind the {@link Morph} facade.  Each component is created
+ * the first time it is needed.  The transformer, its reflecting components,
+ * the container copier nested in its text to container copier, the pretty
+ * text converter and the language all share one reflector.  The nested
+ * container copier and the language transform with the same transformer the
+ * facade uses, so every facade method fills and uses the same dispatch and
+ * reflection caches.
+ *
+ * @since Morph 2.0
+ */
+final class MorphEngine {
+
+	private static final Class[] REFLECTOR_TYPES = { BeanReflector.class,
+			ContainerReflector.class, GrowableContainerReflector.class,
+			IndexedContainerReflector.class, InstantiatingReflector.class,
+			MutableIndexedContainerReflector.class, SizableReflector.class };
+
+	/** longest snapshot section accepted by readDispatchSnapshot, in bytes */
+	private static final int MAX_SECTION_LENGTH = 1 << 26;
+
+	private static class ReflectorHolder {
+		static final SimpleDelegatingReflector REFLECTOR = new SimpleDelegatingReflector();
+	}
+
+	private static class TransformerHolder {
+		static final SimpleDelegatingTransformer TRANSFORMER = createTransformer();
+	}
+
+	private static class LanguageHolder {
+		static final SimpleLanguage LANGUAGE = createLanguage();
+	}
+
+	private static class PrettyTextConverterHolder {
+		static final DecoratedConverter PRETTY_TEXT_CONVERTER = createPrettyTextConverter();
+	}
+
+	/**
+	 * This class cannot be instantiated.
+	 */
+	private MorphEngine() { }
+
+	private static SimpleDelegatingTransformer createTransformer() {
+		SimpleDelegatingTransformer result = new SimpleDelegatingTransformer();
+		result.setReflector(getReflector());
+		Transformer[] components = (Transformer[]) result.getComponents();
+		for (int i = 0; i < components.length; i++) {
+			share(components[i]);
+			if (components[i] instanceof TextToContainerCopier) {
+				// the default container copier would nest its own transformer
+				ContainerCopier containerCopier = Defaults.createContainerCopier();
+				share(containerCopier);
+				containerCopier.setNestedTransformer(result);
+				((TextToContainerCopier) components[i]).setContainerCopier(containerCopier);
+			}
+		}
+		return result;
+	}
+
+	private static DecoratedConverter createPrettyTextConverter() {
+		DecoratedConverter result = Defaults.createPrettyTextConverter();
+		share(result);
+		if (result instanceof ObjectToPrettyTextConverter) {
+			ObjectToPrettyTextConverter converter = (ObjectToPrettyTextConverter) result;
+			share(converter.getBeanToPrettyTextConverter());
+			share(converter.getContainerToPrettyTextConverter());
+		}
+		return result;
+	}
+
+	/**
+	 * Make <code>transformer</code> use the shared reflector, if it reflects.
+	 */
+	private static void share(Object transformer) {
+		if (transformer instanceof BaseReflectorTransformer) {
+			((BaseReflectorTransformer) transformer).setReflector(getReflector());
+		}
+	}
+
+	private static SimpleLanguage createLanguage() {
+		SimpleLanguage result = Defaults.createLanguage();
+		result.setReflector(getReflector());
+		result.setConverter(getTransformer());
+		return result;
+	}
+
+	/**
+	 * Get the shared reflector.
+	 * @return SimpleDelegatingReflector
+	 */
+	static SimpleDelegatingReflector getReflector() {
+		return ReflectorHolder.REFLECTOR;
+	}
+
+	/**
+	 * Get the shared transformer, which is both a converter and a copier.
+	 * @return SimpleDelegatingTransformer
+	 */
+	static SimpleDelegatingTransformer getTransformer() {
+		return TransformerHolder.TRANSFORMER;
+	}
+
+	/**
+	 * Get the shared language.
+	 * @return SimpleLanguage
+	 */
+	static SimpleLanguage getLanguage() {
+		return LanguageHolder.LANGUAGE;
+	}
+
+	/**
+	 * Get the shared pretty text converter.
+	 * @return DecoratedConverter
+	 */
+	static DecoratedConverter getPrettyTextConverter() {
+		return PrettyTextConverterHolder.PRETTY_TEXT_CONVERTER;
+	}
+
+	/**
+	 * Resolve the reflectors for each of <code>types</code> and the
+	 * transformers and copiers between each ordered pair of
+	 * <code>types</code>.
+	 * @param types
+	 */
+	static void warmUp(Class... types) {
+		SimpleDelegatingReflector reflector = getReflector();
+		SimpleDelegatingTransformer transformer = getTransformer();
+		for (int i = 0; i < types.length; i++) {
+			for (int j = 0; j < REFLECTOR_TYPES.length; j++) {
+				reflector.isReflectable(types[i], REFLECTOR_TYPES[j]);
+			}
+			for (int j = 0; j < types.length; j++) {
+				transformer.getDelegate(types[i], types[j]);
+				transformer.getCopierDelegate(types[i], types[j]);
+			}
+		}
+	}
+
+	/**
+	 * Write the transformer and reflector selections made so far.
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	static void writeDispatchSnapshot(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		writeSection(out, getTransformerSnapshot());
+		writeSection(out, getReflectorSnapshot());
+		out.flush();
+	}
+
+	/**
+	 * Preload the selections written by
+	 * {@link #writeDispatchSnapshot(OutputStream)}.
+	 * @param inputStream
+	 * @return whether both the transformer and the reflector selections were
+	 *         used
+	 * @throws IOException
+	 */
+	static boolean readDispatchSnapshot(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		// read both sections before using either, so a truncated stream changes nothing
+		byte[] transformerSnapshot = readSection(in);
+		byte[] reflectorSnapshot = readSection(in);
+		boolean transformerRead = getTransformer().readDispatchSnapshot(
+				new ByteArrayInputStream(transformerSnapshot));
+		boolean reflectorRead = getReflector().readResolutionSnapshot(
+				new ByteArrayInputStream(reflectorSnapshot));
+		return transformerRead && reflectorRead;
+	}
+
+	private static byte[] getTransformerSnapshot() throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		getTransformer().writeDispatchSnapshot(result);
+		return result.toByteArray();
+	}
+
+	private static byte[] getReflectorSnapshot() throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		getReflector().writeResolutionSnapshot(result);
+		return result.toByteArray();
+	}
+
+	private static void writeSection(DataOutputStream out, byte[] section) throws IOException {
+		out.writeInt(section.length);
+		out.write(section);
+	}
+
+	private static byte[] readSection(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0 || length > MAX_SECTION_LENGTH) {
+			throw new IOException("Not a dispatch snapshot");
+		}
+		byte[] result = new byte[length];
+		in.readFully(result);
+		return result;
+	}
+}
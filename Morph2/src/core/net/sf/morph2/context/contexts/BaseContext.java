@@ -141,8 +141,7 @@ public abstract class BaseContext implements Context, Map, DecoratedContext {
 				throw new ContextException("You must specify a propertyName to retrieve");
 			}
 			// make sure the propertyName is a valid property
-			String[] propertyNames = getPropertyNames();		
-			if (!(ContainerUtils.contains(propertyNames, expression))) {
+			if (!isPropertyName(expression)) {
 				return null;
 			}
 			try {
@@ -164,6 +163,19 @@ public abstract class BaseContext implements Context, Map, DecoratedContext {
 		return getLanguage().get(this, expression);
 	}
 
+	/**
+	 * Learn whether <code>propertyName</code>, which is a property according
+	 * to this context's language, is one of the names returned by
+	 * {@link #getPropertyNames()}.
+	 * @param propertyName
+	 * @return boolean
+	 * @throws ContextException
+	 * @since Morph 2.0
+	 */
+	protected boolean isPropertyName(String propertyName) throws ContextException {
+		return ContainerUtils.contains(getPropertyNames(), propertyName);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -14,7 +14,11 @@
 package net.sf.morph2.context.contexts;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.context.Context;
@@ -29,6 +33,16 @@ import net.sf.morph2.util.ContainerUtils;
  * {@link java.util.Map} interface.
  * </p>
  *
+ * <p>
+ * If <code>cachingLookups</code> is set, the flattened property names of the
+ * context hierarchy and the values resolved for them are cached until this
+ * context or one of its ancestors is modified.  Each context carries a
+ * version that changes whenever a property is set or its configuration
+ * changes, so modifications must be made through the contexts, or announced
+ * with {@link #clearCachedLookups()}.  Lookups are never cached for a
+ * hierarchy that includes contexts that are not BaseHierarchicalContexts.
+ * </p>
+ *
  * @author Matt Sgarlata
  * @since Nov 29, 2004
  * @see net.sf.morph2.context.support.BaseContext
@@ -37,7 +51,29 @@ import net.sf.morph2.util.ContainerUtils;
 public abstract class BaseHierarchicalContext extends BaseContext implements
 	HierarchicalContext {
 
+	/** source of versions: each modification gets a larger number than any before */
+	private static final AtomicLong VERSIONS = new AtomicLong();
+
+	private static final Object NULL_VALUE = new Object();
+
+	/** Cached lookups for a particular version of the context hierarchy */
+	private static class Lookups {
+		final long version;
+		final String[] propertyNames;
+		final Set propertyNameSet;
+		final Map values = new ConcurrentHashMap();
+
+		Lookups(long version, String[] propertyNames) {
+			this.version = version;
+			this.propertyNames = propertyNames;
+			this.propertyNameSet = new HashSet(Arrays.asList(propertyNames));
+		}
+	}
+
 	private Context parentContext;
+	private boolean cachingLookups;
+	private volatile long version = VERSIONS.incrementAndGet();
+	private volatile Lookups lookups;
 
 	/**
 	 * Creates a new, empty context.
@@ -67,6 +103,22 @@ public abstract class BaseHierarchicalContext extends BaseContext implements
 	 * {@inheritDoc}
 	 */
 	protected final Object getImpl(String propertyName) throws Exception {
+		Lookups lookups = getLookups();
+		if (lookups == null) {
+			return lookup(propertyName);
+		}
+		Object value = lookups.values.get(propertyName);
+		if (value == null) {
+			value = lookup(propertyName);
+			lookups.values.put(propertyName, value == null ? NULL_VALUE : value);
+		}
+		return value == NULL_VALUE ? null : value;
+	}
+
+	/**
+	 * Look up <code>propertyName</code> in this context, then in its ancestors.
+	 */
+	private Object lookup(String propertyName) throws Exception {
 		Object value = null;
 
 		if (getLog().isTraceEnabled()) {
@@ -109,6 +161,32 @@ public abstract class BaseHierarchicalContext extends BaseContext implements
 	 * {@inheritDoc}
 	 */
 	protected final String[] getPropertyNamesImpl() throws Exception {
+		Lookups lookups = getLookups();
+		return lookups == null ? flattenPropertyNames() : lookups.propertyNames.clone();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected boolean isPropertyName(String propertyName) throws ContextException {
+		Lookups lookups;
+		try {
+			lookups = getLookups();
+		}
+		catch (ContextException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new ContextException("Unable to retrieve property names", e);
+		}
+		return lookups == null ? super.isPropertyName(propertyName)
+				: lookups.propertyNameSet.contains(propertyName);
+	}
+
+	/**
+	 * Get the property names of this context and its hierarchical ancestors.
+	 */
+	private String[] flattenPropertyNames() throws Exception {
 		String[] currentPropertyNames = this.getPropertyNamesHierarchicalImpl();
 		Set propertyNames = ContainerUtils.createOrderedSet();
 		if (!ObjectUtils.isEmpty(currentPropertyNames)) {
@@ -141,6 +219,7 @@ public abstract class BaseHierarchicalContext extends BaseContext implements
 
 		try {
 			setHierarchicalImpl(propertyName, propertyValue);
+			modified();
 		}
 		catch (Exception e) {
 			if (getLog().isDebugEnabled()) {
@@ -158,6 +237,7 @@ public abstract class BaseHierarchicalContext extends BaseContext implements
 	 */
 	public void setParentContext(Context parentContext) {
 		this.parentContext = parentContext;
+		modified();
 	}
 	
 	/**
@@ -167,4 +247,78 @@ public abstract class BaseHierarchicalContext extends BaseContext implements
 		return parentContext;
 	}
 
+	/**
+	 * Get the cached lookups for the current version of the context
+	 * hierarchy, if lookups are cached.
+	 * @return Lookups or <code>null</code>
+	 */
+	private Lookups getLookups() throws Exception {
+		if (!cachingLookups) {
+			return null;
+		}
+		long hierarchyVersion = getHierarchyVersion();
+		if (hierarchyVersion < 0) {
+			return null;
+		}
+		Lookups result = lookups;
+		if (result == null || result.version != hierarchyVersion) {
+			result = new Lookups(hierarchyVersion, flattenPropertyNames());
+			lookups = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Get the greatest version of this context and its ancestors.
+	 * @return long, or -1 if an ancestor is not a BaseHierarchicalContext
+	 */
+	private long getHierarchyVersion() {
+		long result = version;
+		for (Context context = parentContext; context != null;
+				context = ((BaseHierarchicalContext) context).parentContext) {
+			if (!(context instanceof BaseHierarchicalContext)) {
+				return -1;
+			}
+			result = Math.max(result, ((BaseHierarchicalContext) context).version);
+		}
+		return result;
+	}
+
+	/**
+	 * Record that this context has been modified, invalidating any lookups
+	 * cached by this context and its descendants.
+	 * @since Morph 2.0
+	 */
+	protected void modified() {
+		version = VERSIONS.incrementAndGet();
+	}
+
+	/**
+	 * Discard the lookups cached by this context and its descendants, for
+	 * instance after the objects this context exposes were modified directly.
+	 * @since Morph 2.0
+	 */
+	public void clearCachedLookups() {
+		modified();
+	}
+
+	/**
+	 * Learn whether this context caches lookups.
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isCachingLookups() {
+		return cachingLookups;
+	}
+
+	/**
+	 * Set whether this context caches lookups.  Default <code>false</code>.
+	 * @param cachingLookups
+	 * @since Morph 2.0
+	 */
+	public void setCachingLookups(boolean cachingLookups) {
+		this.cachingLookups = cachingLookups;
+		modified();
+	}
+
 }
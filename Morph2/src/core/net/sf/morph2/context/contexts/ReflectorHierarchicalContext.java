@@ -135,6 +135,7 @@ public class ReflectorHierarchicalContext extends BaseHierarchicalContext implem
 	 */
 	public void setBeanReflector(BeanReflector beanReflector) {
 		this.beanReflector = beanReflector;
+		modified();
 	}
 
 	/**
@@ -151,6 +152,7 @@ public class ReflectorHierarchicalContext extends BaseHierarchicalContext implem
 	 */
 	public void setDelegate(Object delegate) {
 		this.delegate = delegate;
+		modified();
 	}
 
 }
@@ -122,6 +122,7 @@ public interface DecoratedLanguage extends Language {
 	 *             expression
 	 * @deprecated why would we need both signatures (Object, String, Locale, Class) and (Object, String, Class, Locale)?
 	 */
+	@Deprecated
 	public Object get(Object target, String expression, Locale locale,
 		Class destinationClass) throws LanguageException, TransformationException;
 
@@ -13,11 +13,18 @@
  */
 package net.sf.morph2.lang.languages;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.Defaults;
 import net.sf.morph2.lang.support.ExpressionParser;
 import net.sf.morph2.lang.support.SimpleExpressionParser;
 import net.sf.morph2.reflect.BeanReflector;
+import net.sf.morph2.reflect.reflectors.ObjectReflector;
+import net.sf.morph2.reflect.reflectors.SimpleDelegatingReflector;
 
 /**
  * <p>
@@ -91,21 +98,63 @@ import net.sf.morph2.reflect.BeanReflector;
  * and <code>fridayThe13th</code> are valid property names.
  * </p>
  *
+ * <p>
+ * Parsed expressions are cached.  Each cached expression also remembers, for
+ * each of its tokens, the reflector that handled the class of the last
+ * object the token was applied to and, for plain JavaBeans, the getter
+ * method; evaluating the same expression against objects of the same
+ * classes then involves neither parsing nor reflector selection.
+ * </p>
+ *
  * @author Matt Sgarlata
  * @since Nov 28, 2004
  */
 public class SimpleLanguage extends BaseLanguage {
 
+	/**
+	 * The tokens of a parsed expression, along with how each token was last
+	 * evaluated.
+	 */
+	private static final class CompiledExpression {
+		final String[] tokens;
+		final Step[] steps;
+
+		CompiledExpression(String[] tokens) {
+			this.tokens = tokens;
+			this.steps = new Step[tokens.length];
+		}
+	}
+
+	/**
+	 * How to evaluate a token against instances of a given class.  Steps are
+	 * immutable, so they may be replaced without locking.
+	 */
+	private static final class Step {
+		final Class type;
+		final BeanReflector reflector;
+		final Method accessor;
+
+		Step(Class type, BeanReflector reflector, Method accessor) {
+			this.type = type;
+			this.reflector = reflector;
+			this.accessor = accessor;
+		}
+	}
+
 	private static final ExpressionParser DEFAULT_EXPRESSION_PARSER = new SimpleExpressionParser();
+	private static final int MAX_CACHED_EXPRESSIONS = 1024;
+	private static final Object[] NO_ARGS = new Object[0];
 
 	private ExpressionParser expressionParser;
 	private BeanReflector reflector;
 
+	private transient Map compiledExpressions = new ConcurrentHashMap();
+
 	/**
 	 * {@inheritDoc}
 	 */
 	protected boolean isPropertyImpl(String expression) throws Exception {
-		return getExpressionParser().parse(expression).length == 1;
+		return compile(expression).tokens.length == 1;
 	}
 
 	/**
@@ -118,14 +167,12 @@ public class SimpleLanguage extends BaseLanguage {
 
 		Object value = target;
 
-		String[] tokens = getExpressionParser().parse(expression);
-		for (int i = 0; i < tokens.length - 1; i++) {
-			String token = tokens[i];
-			value = getReflector().get(value, token);
+		CompiledExpression compiled = compile(expression);
+		int last = compiled.tokens.length - 1;
+		for (int i = 0; i < last; i++) {
+			value = get(compiled, i, value);
 		}
-
-		String token = tokens[tokens.length - 1];
-		return getReflector().getType(value, token);
+		return getReflector(compiled, last, value).getType(value, compiled.tokens[last]);
 	}
 
 	/**
@@ -138,10 +185,9 @@ public class SimpleLanguage extends BaseLanguage {
 
 		Object value = target;
 
-		String[] tokens = getExpressionParser().parse(expression);
-		for (int i = 0; value != null && i < tokens.length; i++) {
-			String token = tokens[i];
-			value = getReflector().get(value, token);
+		CompiledExpression compiled = compile(expression);
+		for (int i = 0; value != null && i < compiled.tokens.length; i++) {
+			value = get(compiled, i, value);
 		}
 		return value;
 	}
@@ -156,15 +202,86 @@ public class SimpleLanguage extends BaseLanguage {
 
 		Object currentTarget = target;
 
-		String[] tokens = getExpressionParser().parse(expression);
-		for (int i = 0; i < tokens.length; i++) {
-			String token = tokens[i];
-			if (i == tokens.length - 1) {
-				getReflector().set(currentTarget, token, value);
+		CompiledExpression compiled = compile(expression);
+		for (int i = 0; i < compiled.tokens.length; i++) {
+			if (i == compiled.tokens.length - 1) {
+				getReflector(compiled, i, currentTarget).set(currentTarget, compiled.tokens[i],
+						value);
 			}
 			else {
-				currentTarget = getReflector().get(currentTarget, token);
+				currentTarget = get(compiled, i, currentTarget);
+			}
+		}
+	}
+
+	/**
+	 * Get the cached parse of <code>expression</code>, parsing it if
+	 * necessary.
+	 */
+	private CompiledExpression compile(String expression) {
+		CompiledExpression result = (CompiledExpression) compiledExpressions.get(expression);
+		if (result == null) {
+			result = new CompiledExpression(getExpressionParser().parse(expression));
+			if (compiledExpressions.size() >= MAX_CACHED_EXPRESSIONS) {
+				compiledExpressions.clear();
+			}
+			compiledExpressions.put(expression, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the Step for evaluating token <code>index</code> of
+	 * <code>compiled</code> against <code>bean</code>.
+	 */
+	private Step getStep(CompiledExpression compiled, int index, Object bean) {
+		Step step = compiled.steps[index];
+		Class type = bean.getClass();
+		if (step == null || step.type != type) {
+			BeanReflector beanReflector = getReflector();
+			if (beanReflector instanceof SimpleDelegatingReflector) {
+				BeanReflector delegate = ((SimpleDelegatingReflector) beanReflector)
+						.getBeanReflectorForClass(type);
+				if (delegate != null) {
+					beanReflector = delegate;
+				}
+			}
+			Method accessor = beanReflector.getClass() == ObjectReflector.class ? ((ObjectReflector) beanReflector)
+					.getAccessor(type, compiled.tokens[index])
+					: null;
+			step = new Step(type, beanReflector, accessor);
+			compiled.steps[index] = step;
+		}
+		return step;
+	}
+
+	private BeanReflector getReflector(CompiledExpression compiled, int index, Object bean) {
+		// let the reflector complain about null beans
+		return bean == null ? getReflector() : getStep(compiled, index, bean).reflector;
+	}
+
+	/**
+	 * Evaluate token <code>index</code> of <code>compiled</code> against
+	 * <code>bean</code>.  An exception thrown by a resolved accessor is
+	 * propagated as it is.
+	 */
+	private Object get(CompiledExpression compiled, int index, Object bean) throws Exception {
+		if (bean == null) {
+			return getReflector().get(bean, compiled.tokens[index]);
+		}
+		Step step = getStep(compiled, index, bean);
+		if (step.accessor == null) {
+			return step.reflector.get(bean, compiled.tokens[index]);
+		}
+		try {
+			return step.accessor.invoke(bean, NO_ARGS);
+		}
+		catch (InvocationTargetException e) {
+			Throwable cause = e.getTargetException();
+			if (cause instanceof Error) {
+				throw (Error) cause;
 			}
+			throw (Exception) cause;
 		}
 	}
 
@@ -185,6 +302,7 @@ public class SimpleLanguage extends BaseLanguage {
 	 */
 	public synchronized void setExpressionParser(ExpressionParser expressionParser) {
 		this.expressionParser = expressionParser;
+		compiledExpressions.clear();
 	}
 
 	/**
@@ -204,5 +322,6 @@ public class SimpleLanguage extends BaseLanguage {
 	 */
 	public synchronized void setReflector(BeanReflector reflector) {
 		this.reflector = reflector;
+		compiledExpressions.clear();
 	}
 }
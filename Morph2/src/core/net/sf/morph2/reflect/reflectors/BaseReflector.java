@@ -14,10 +14,9 @@
 package net.sf.morph2.reflect.reflectors;
 
 import java.lang.reflect.Proxy;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.reflect.BeanReflector;
@@ -34,6 +33,7 @@ import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.StringUtils;
 import net.sf.morph2.wrap.Wrapper;
 import net.sf.morph2.wrap.support.DefaultWrapperInvocationHandler;
+import net.sf.morph2.wrap.support.WrapperGenerator;
 import net.sf.morph2.wrap.support.WrapperInvocationHandler;
 
 import org.apache.commons.logging.Log;
@@ -55,6 +55,10 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 
 // fields
 
+	/** method whose overriding disables generated wrapper classes */
+	private static final String[] WRAPPER_HANDLER_METHOD_NAMES = {
+		"createWrapperInvocationHandler" };
+
 	private boolean initialized;
 	private boolean cachingIsReflectableCalls = true;
 	private String reflectorName;
@@ -95,7 +99,7 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 			try {
 				initializeImpl();
 				reflectableClasses = getReflectableClassesImpl();
-				reflectableCallCache = Collections.synchronizedMap(new HashMap());
+				reflectableCallCache = new ConcurrentHashMap();
 				setInitialized(true);
 			}
 			catch (ReflectionException e) {
@@ -156,9 +160,20 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 	}
 
 	/**
-	 * Implementation of {@link Reflector#getWrapper(Object)}.
+	 * Implementation of {@link Reflector#getWrapper(Object)}.  Unless
+	 * {@link #isGeneratingWrappers()} returns <code>false</code>, the wrapper
+	 * is an instance of a class generated to call this reflector directly;
+	 * such a wrapper implements only the wrapper interfaces, not the
+	 * interfaces of <code>object</code>.  Otherwise the wrapper is a dynamic
+	 * proxy that uses {@link #createWrapperInvocationHandler(Object)}.
 	 */
 	protected Wrapper getWrapperImpl(Object object) throws Exception {
+		if (isGeneratingWrappers()) {
+			Wrapper wrapper = WrapperGenerator.createWrapper(this, object);
+			if (wrapper != null) {
+				return wrapper;
+			}
+		}
 		WrapperInvocationHandler invocationHandler = createWrapperInvocationHandler(object);
 
 		return (Wrapper) Proxy.newProxyInstance(
@@ -176,6 +191,19 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 		return new DefaultWrapperInvocationHandler(object, this);
 	}
 
+	/**
+	 * Learn whether {@link #getWrapperImpl(Object)} should create wrappers of
+	 * generated classes rather than dynamic proxies.  The default
+	 * implementation returns <code>false</code> if this class overrides
+	 * {@link #createWrapperInvocationHandler(Object)}, so that a custom
+	 * invocation handler is still used.
+	 * @return boolean
+	 */
+	protected boolean isGeneratingWrappers() {
+		return !ClassUtils.isOverridingAny(getClass(), BaseReflector.class,
+				WRAPPER_HANDLER_METHOD_NAMES);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @see net.sf.morph2.reflect.DecoratedReflector#isReflectable(java.lang.Class)
@@ -214,7 +242,7 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 		try {
 			boolean isReflectable = isReflectableImpl(reflectedType);
 			if (isCachingIsReflectableCalls()) {
-				getReflectableCallCache().put(reflectedType, new Boolean(isReflectable));
+				getReflectableCallCache().put(reflectedType, Boolean.valueOf(isReflectable));
 			}
 			return isReflectable;
 		}
@@ -345,6 +373,7 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 	 *
 	 * @deprecated Use {@link #newInstanceImpl(Class, Object)} instead. Calls to this method will fail with an {@link UnsupportedOperationException}
 	 */
+	@Deprecated
 	protected final Object newInstanceImpl(Class clazz) throws Exception {
 		throw new UnsupportedOperationException("Deprecated method - use BaseReflector.newInstanceImpl(Class, Object) instead");
 	}
@@ -524,7 +553,7 @@ public abstract class BaseReflector implements Reflector, DecoratedReflector {
 			Exception exception = null;
 
 			try {
-				isWriteable = new Boolean(isWriteableImpl(bean, propertyName));
+				isWriteable = Boolean.valueOf(isWriteableImpl(bean, propertyName));
 			}
 			catch (Exception e) {
 				exception = e;
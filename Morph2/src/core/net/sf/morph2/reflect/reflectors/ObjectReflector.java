@@ -19,8 +19,6 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.WeakHashMap;
 
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.reflect.BeanReflector;
@@ -31,6 +29,7 @@ import net.sf.morph2.reflect.support.MethodHolder;
 import net.sf.morph2.reflect.support.ObjectIterator;
 import net.sf.morph2.reflect.support.ReflectionInfo;
 import net.sf.morph2.util.ClassUtils;
+import net.sf.morph2.util.WeakClassCache;
 
 /**
  * <p>
@@ -65,7 +64,7 @@ public class ObjectReflector extends BaseBeanReflector implements InstantiatingR
 	 */
 	private boolean allowNullPrimitiveAssignment = true;
 
-	private static final Map reflectionCache = new WeakHashMap();
+	private static final WeakClassCache reflectionCache = new WeakClassCache();
 
 	/**
 	 * {@inheritDoc}
@@ -299,14 +298,56 @@ public class ObjectReflector extends BaseBeanReflector implements InstantiatingR
 	 * @return ReflectionInfo
 	 */
 	protected ReflectionInfo getReflectionInfo(Class clazz) {
-		synchronized (reflectionCache) {
-			ReflectionInfo reflectionInfo = (ReflectionInfo) reflectionCache.get(clazz);
-			if (reflectionInfo == null) {
-				reflectionInfo = new ReflectionInfo(clazz);
-				reflectionCache.put(clazz, reflectionInfo);
-			}
-			return reflectionInfo;
+		ReflectionInfo reflectionInfo = (ReflectionInfo) reflectionCache.get(clazz);
+		if (reflectionInfo == null) {
+			// introspection is idempotent, so a concurrent duplicate is harmless
+			reflectionInfo = new ReflectionInfo(clazz);
+			reflectionCache.put(clazz, reflectionInfo);
 		}
+		return reflectionInfo;
+	}
+
+	/**
+	 * Set whether lookups in the shared ReflectionInfo cache are counted.
+	 * Counting costs an atomic update per lookup, so it is off by default.
+	 * @param counting
+	 * @since Morph 2.0
+	 */
+	public static void setCountingReflectionCacheLookups(boolean counting) {
+		reflectionCache.setCounting(counting);
+	}
+
+	/**
+	 * Get the number of counted ReflectionInfo lookups satisfied from the
+	 * shared cache.
+	 * @return long
+	 * @since Morph 2.0
+	 */
+	public static long getReflectionCacheHitCount() {
+		return reflectionCache.getHitCount();
+	}
+
+	/**
+	 * Get the number of counted ReflectionInfo lookups that required
+	 * introspection.
+	 * @return long
+	 * @since Morph 2.0
+	 */
+	public static long getReflectionCacheMissCount() {
+		return reflectionCache.getMissCount();
+	}
+
+	/**
+	 * Get the simple getter method for the specified property of
+	 * <code>beanClass</code>.
+	 * @param beanClass
+	 * @param propertyName
+	 * @return Method, or <code>null</code> if the property has no simple getter
+	 * @since Morph 2.0
+	 */
+	public Method getAccessor(Class beanClass, String propertyName) {
+		MethodHolder methodHolder = getReflectionInfo(beanClass).getMethodHolder(propertyName);
+		return methodHolder == null ? null : methodHolder.getAccessor();
 	}
 
 	/**
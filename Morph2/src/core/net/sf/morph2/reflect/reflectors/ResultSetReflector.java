@@ -13,16 +13,17 @@
  */
 package net.sf.morph2.reflect.reflectors;
 
+import java.lang.ref.WeakReference;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.util.Iterator;
 
 import org.springframework.jdbc.support.JdbcUtils;
 
 import net.sf.morph2.reflect.BeanReflector;
 import net.sf.morph2.reflect.ContainerReflector;
+import net.sf.morph2.reflect.support.ResultSetInfo;
 import net.sf.morph2.reflect.support.ResultSetIterator;
 import net.sf.morph2.transform.TransformationException;
 
@@ -37,7 +38,13 @@ import net.sf.morph2.transform.TransformationException;
  * </p>
  * 
  * <p>
- * Note: Code from the {@link #getImpl(Object, String)} method was taken from
+ * The metadata of the most recently reflected ResultSet is cached per thread,
+ * so that mapping consecutive rows of a ResultSet reads the metadata only once
+ * and retrieves each column by index.
+ * </p>
+ * 
+ * <p>
+ * Note: Code from the {@link #getColumnValue(ResultSet, int)} method was taken from
  * Spring's {@link JdbcUtils} class.
  * </p>
  * 
@@ -49,12 +56,42 @@ public class ResultSetReflector extends BaseBeanReflector implements BeanReflect
 
 	private static final Class[] REFLECTABLE_TYPES = new Class[] { ResultSet.class };
 
+	/**
+	 * The ResultSetInfo for a ResultSet, which is only weakly referenced.
+	 */
+	private static class CachedResultSetInfo {
+		final WeakReference resultSet;
+		final ResultSetInfo resultSetInfo;
+
+		CachedResultSetInfo(ResultSet resultSet, ResultSetInfo resultSetInfo) {
+			this.resultSet = new WeakReference(resultSet);
+			this.resultSetInfo = resultSetInfo;
+		}
+	}
+
+	private final ThreadLocal cachedResultSetInfo = new ThreadLocal();
+
 	private ResultSet getResultSet(Object bean) {
 		return (ResultSet) bean;
 	}
 
-	private ResultSetMetaData getMetaData(Object bean) throws Exception {
-		return getResultSet(bean).getMetaData();
+	/**
+	 * Get the column information for the specified ResultSet.  The result is
+	 * cached for the ResultSet most recently passed to this method on the
+	 * current thread.
+	 * @param bean the ResultSet
+	 * @return ResultSetInfo
+	 * @throws Exception
+	 * @since Morph 2.0
+	 */
+	public ResultSetInfo getResultSetInfo(Object bean) throws Exception {
+		CachedResultSetInfo cached = (CachedResultSetInfo) cachedResultSetInfo.get();
+		if (cached == null || cached.resultSet.get() != bean) {
+			ResultSet resultSet = getResultSet(bean);
+			cached = new CachedResultSetInfo(resultSet, new ResultSetInfo(resultSet.getMetaData()));
+			cachedResultSetInfo.set(cached);
+		}
+		return cached.resultSetInfo;
 	}
 
 	// container reflector methods	
@@ -76,12 +113,9 @@ public class ResultSetReflector extends BaseBeanReflector implements BeanReflect
 	// bean reflector methods	
 
 	private int getIndexForColumn(Object bean, String propertyName) throws Exception {
-		int numColumns = getMetaData(bean).getColumnCount();
-		String lowerCasePropertyName = propertyName.toLowerCase();
-		for (int i = 1; i < numColumns; i++) {
-			if (lowerCasePropertyName.equals(getMetaData(bean).getColumnLabel(i).toLowerCase())) {
-				return i;
-			}
+		int index = getResultSetInfo(bean).getColumnIndex(propertyName);
+		if (index > 0) {
+			return index;
 		}
 		throw new TransformationException("The propertyName you specified '" + propertyName
 				+ "' was not found to be a column in the given ResultSet");
@@ -91,20 +125,14 @@ public class ResultSetReflector extends BaseBeanReflector implements BeanReflect
 	 * {@inheritDoc}
 	 */
 	protected String[] getPropertyNamesImpl(Object bean) throws Exception {
-		ResultSetMetaData meta = getMetaData(bean);
-		int numColumns = meta.getColumnCount();
-		String[] propertyNames = new String[numColumns];
-		for (int i = 0; i < propertyNames.length; i++) {
-			propertyNames[i] = meta.getColumnName(i + 1).toLowerCase();
-		}
-		return propertyNames;
+		return getResultSetInfo(bean).getPropertyNames().clone();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
 	protected Class getTypeImpl(Object bean, String propertyName) throws Exception {
-		return Class.forName(getMetaData(bean).getColumnClassName(
+		return Class.forName(getResultSetInfo(bean).getColumnClassName(
 				getIndexForColumn(bean, propertyName)));
 	}
 
@@ -112,40 +140,52 @@ public class ResultSetReflector extends BaseBeanReflector implements BeanReflect
 	 * {@inheritDoc}
 	 */
 	protected boolean isWriteableImpl(Object bean, String propertyName) throws Exception {
-		return getMetaData(bean).isWritable(getIndexForColumn(bean, propertyName));
+		return getResultSetInfo(bean).isWritable(getIndexForColumn(bean, propertyName));
 	}
 
 	/**
+	 * {@inheritDoc}
+	 */
+	protected Object getImpl(Object bean, String propertyName) throws Exception {
+		return getColumnValue(getResultSet(bean), getIndexForColumn(bean, propertyName));
+	}
+
+	/**
+	 * Get the value of the specified column of the current row of
+	 * <code>rs</code>, exactly as {@link #get(Object, String)} would return it.
 	 * NOTE: Code copied here from Spring's
 	 * {@link org.springframework.jdbc.support.JdbcUtils} class.
+	 * @param rs
+	 * @param index the 1-based column index
+	 * @return Object
+	 * @throws Exception
+	 * @since Morph 2.0
 	 */
-	protected Object getImpl(Object bean, String propertyName) throws Exception {
-		ResultSet rs = getResultSet(bean);
-		Object obj = rs.getObject(propertyName);
+	public Object getColumnValue(ResultSet rs, int index) throws Exception {
+		ResultSetInfo info = getResultSetInfo(rs);
+		Object obj = rs.getObject(index);
 		if (obj instanceof Blob) {
-			obj = rs.getBytes(propertyName);
+			obj = rs.getBytes(index);
 		}
 		else if (obj instanceof Clob) {
-			obj = rs.getString(propertyName);
+			obj = rs.getString(index);
 		}
 		else if (obj != null && obj.getClass().getName().startsWith("oracle.sql.TIMESTAMP")) {
-			obj = rs.getTimestamp(propertyName);
+			obj = rs.getTimestamp(index);
 		}
 		else if (obj != null && obj.getClass().getName().startsWith("oracle.sql.DATE")) {
-			int index = getIndexForColumn(bean, propertyName);
-			String metaDataClassName = rs.getMetaData().getColumnClassName(index);
+			String metaDataClassName = info.getColumnClassName(index);
 			if ("java.sql.Timestamp".equals(metaDataClassName)
 					|| "oracle.sql.TIMESTAMP".equals(metaDataClassName)) {
-				obj = rs.getTimestamp(propertyName);
+				obj = rs.getTimestamp(index);
 			}
 			else {
-				obj = rs.getDate(propertyName);
+				obj = rs.getDate(index);
 			}
 		}
 		else if (obj != null && obj instanceof java.sql.Date) {
-			int index = getIndexForColumn(bean, propertyName);
-			if ("java.sql.Timestamp".equals(rs.getMetaData().getColumnClassName(index))) {
-				obj = rs.getTimestamp(propertyName);
+			if ("java.sql.Timestamp".equals(info.getColumnClassName(index))) {
+				obj = rs.getTimestamp(index);
 			}
 		}
 		return obj;
@@ -155,7 +195,7 @@ public class ResultSetReflector extends BaseBeanReflector implements BeanReflect
 	 * {@inheritDoc}
 	 */
 	protected void setImpl(Object bean, String propertyName, Object value) throws Exception {
-		getResultSet(bean).updateObject(propertyName, value);
+		getResultSet(bean).updateObject(getIndexForColumn(bean, propertyName), value);
 	}
 
 	/**
@@ -13,10 +13,17 @@
  */
 package net.sf.morph2.reflect.reflectors;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.composite.SpecializableComposite;
 import net.sf.composite.StrictlyTypedComposite;
@@ -34,7 +41,9 @@ import net.sf.morph2.reflect.Reflector;
 import net.sf.morph2.reflect.SizableReflector;
 import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.ContainerUtils;
+import net.sf.morph2.util.DispatchSnapshot;
 import net.sf.morph2.util.ReflectorUtils;
+import net.sf.morph2.util.WeakClassCache;
 
 /**
  * Reflector that can be used to combine multiple bean reflectors.  By default,
@@ -50,6 +59,36 @@ public class SimpleDelegatingReflector extends BaseCompositeReflector implements
 		ContainerReflector, GrowableContainerReflector, IndexedContainerReflector,
 		InstantiatingReflector, MutableIndexedContainerReflector, CompositeReflector, Cloneable {
 
+	/**
+	 * The reflectors already selected from a given component array, keyed by
+	 * reflector interface, then by reflected class.  A new table is created
+	 * whenever the components change, so a lookup can never see a reflector
+	 * chosen from a different set of components.  Reflected classes are held
+	 * in {@link WeakClassCache}s, so the table does not keep them, or their
+	 * ClassLoaders, from being garbage collected.
+	 */
+	private static final class ResolutionTable {
+		final Object[] components;
+		final Map reflectors = new ConcurrentHashMap();
+
+		ResolutionTable(Object[] components) {
+			this.components = components;
+		}
+	}
+
+	/** Never reflected, so it can stand in for a <code>null</code> class */
+	private static final class NullKey {
+	}
+
+	/** Stands in for a <code>null</code> class in the resolution table */
+	private static final Class NULL_KEY = NullKey.class;
+	/** Records that no component can reflect a class */
+	private static final Object NO_REFLECTOR = new Object();
+	/** name of the resolution table in a {@link DispatchSnapshot} */
+	private static final String REFLECTORS_TABLE = "reflectors";
+
+	private transient volatile ResolutionTable resolutionTable;
+
 	/**
 	 * Construct a new SimpleDelegatingReflector.
 	 */
@@ -294,15 +333,212 @@ public class SimpleDelegatingReflector extends BaseCompositeReflector implements
 		return result;
 	}
 
-	//TODO cache result
+	/**
+	 * Learn whether the {@link BeanReflector} to which this reflector delegates
+	 * for <code>reflectedType</code> is strictly typed, i.e. whether the
+	 * properties of instances of <code>reflectedType</code> and their types are
+	 * determined by the class alone.
+	 * @param reflectedType
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isStrictlyTyped(Class reflectedType) {
+		BeanReflector result = getBeanReflectorForClass(reflectedType);
+		return result instanceof BaseReflector && ((BaseReflector) result).isStrictlyTyped();
+	}
+
+	/**
+	 * Get the {@link BeanReflector} that ultimately reflects
+	 * <code>reflectedType</code>, looking through any nested
+	 * SimpleDelegatingReflectors.
+	 * @param reflectedType
+	 * @return BeanReflector, or <code>null</code> if no component can reflect
+	 *         <code>reflectedType</code>
+	 * @since Morph 2.0
+	 */
+	public BeanReflector getBeanReflectorForClass(Class reflectedType) {
+		Reflector result = safeGetReflector(BeanReflector.class, reflectedType);
+		if (result instanceof SimpleDelegatingReflector) {
+			return ((SimpleDelegatingReflector) result).getBeanReflectorForClass(reflectedType);
+		}
+		return (BeanReflector) result;
+	}
+
+	/**
+	 * Get the Reflector of type <code>reflectorType</code> that ultimately
+	 * reflects <code>reflectedType</code>, looking through any nested
+	 * SimpleDelegatingReflectors.
+	 * @param reflectorType
+	 * @param reflectedType
+	 * @return Reflector, or <code>null</code> if no component can reflect
+	 *         <code>reflectedType</code>
+	 * @since Morph 2.0
+	 */
+	public Reflector getReflectorForClass(Class reflectorType, Class reflectedType) {
+		Reflector result = safeGetReflector(reflectorType, reflectedType);
+		if (result instanceof SimpleDelegatingReflector) {
+			return ((SimpleDelegatingReflector) result).getReflectorForClass(reflectorType,
+					reflectedType);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the first component of type <code>reflectorType</code> that can
+	 * reflect <code>reflectedType</code>, consulting the resolution table
+	 * first.  Lookups neither lock nor allocate.
+	 */
 	private Reflector safeGetReflector(Class reflectorType, Class reflectedType) {
-		for (int i = 0; i < getComponents().length; i++) {
-			Reflector component = (Reflector) getComponents()[i];
-			if (ReflectorUtils.isReflectable(component, reflectedType, reflectorType)) {
-				return component;
+		ResolutionTable table = getResolutionTable();
+		Class reflectedKey = reflectedType == null ? NULL_KEY : reflectedType;
+		WeakClassCache byReflectedType = (WeakClassCache) table.reflectors.get(reflectorType);
+		if (byReflectedType == null) {
+			byReflectedType = new WeakClassCache();
+			// a racing thread may replace this map; that only costs a repeated search
+			table.reflectors.put(reflectorType, byReflectedType);
+		}
+		Object result = byReflectedType.get(reflectedKey);
+		if (result == null) {
+			result = NO_REFLECTOR;
+			Object[] components = table.components;
+			for (int i = 0; i < components.length; i++) {
+				Reflector component = (Reflector) components[i];
+				if (ReflectorUtils.isReflectable(component, reflectedType, reflectorType)) {
+					result = component;
+					break;
+				}
+			}
+			byReflectedType.put(reflectedKey, result);
+		}
+		return result == NO_REFLECTOR ? null : (Reflector) result;
+	}
+
+	/**
+	 * Get the resolution table for the current components, replacing it if
+	 * the components have changed.
+	 */
+	private ResolutionTable getResolutionTable() {
+		Object[] components = getComponents();
+		ResolutionTable result = resolutionTable;
+		if (result == null || result.components != components) {
+			result = new ResolutionTable(components);
+			resolutionTable = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Write the reflectors this reflector has selected so far, so that they
+	 * can be preloaded by {@link #readResolutionSnapshot(InputStream)} in
+	 * another JVM.  The output stream is not closed.
+	 * @param outputStream
+	 * @throws IOException
+	 * @since Morph 2.0
+	 */
+	public void writeResolutionSnapshot(OutputStream outputStream) throws IOException {
+		ResolutionTable table = getResolutionTable();
+		DispatchSnapshot snapshot = new DispatchSnapshot(getFingerprint(table.components));
+		for (Iterator i = table.reflectors.entrySet().iterator(); i.hasNext();) {
+			Map.Entry entry = (Map.Entry) i.next();
+			for (Iterator j = ((WeakClassCache) entry.getValue()).toMap().entrySet().iterator(); j
+					.hasNext();) {
+				Map.Entry resolution = (Map.Entry) j.next();
+				snapshot.add(REFLECTORS_TABLE, (Class) entry.getKey(),
+						resolution.getKey() == NULL_KEY ? null : (Class) resolution.getKey(),
+						indexOf(table.components, resolution.getValue()));
+			}
+		}
+		snapshot.write(outputStream);
+	}
+
+	/**
+	 * Preload the reflectors recorded by
+	 * {@link #writeResolutionSnapshot(OutputStream)}.  The snapshot is ignored
+	 * unless it was written by a reflector whose components are of the same
+	 * classes, in the same order, reflecting the same classes as the
+	 * components of this reflector, and each reflector is only preloaded if it
+	 * can still reflect its class.  The input stream is not closed.
+	 * @param inputStream
+	 * @return whether the snapshot was used
+	 * @throws IOException if the snapshot could not be read
+	 * @since Morph 2.0
+	 */
+	public boolean readResolutionSnapshot(InputStream inputStream) throws IOException {
+		DispatchSnapshot snapshot = DispatchSnapshot.read(inputStream);
+		ResolutionTable table = getResolutionTable();
+		if (!snapshot.getFingerprint().equals(getFingerprint(table.components))) {
+			return false;
+		}
+		for (int i = 0; i < snapshot.size(); i++) {
+			Class reflectorType = snapshot.getFirstClass(i);
+			Class reflectedType = snapshot.getSecondClass(i);
+			int component = snapshot.getComponent(i);
+			// a class no component could reflect is left to be searched again
+			if (!REFLECTORS_TABLE.equals(snapshot.getTable(i)) || reflectorType == null
+					|| reflectedType == null || component < 0
+					|| component >= table.components.length
+					|| !ReflectorUtils.isReflectable((Reflector) table.components[component],
+							reflectedType, reflectorType)) {
+				continue;
+			}
+			WeakClassCache byReflectedType = (WeakClassCache) table.reflectors.get(reflectorType);
+			if (byReflectedType == null) {
+				byReflectedType = new WeakClassCache();
+				table.reflectors.put(reflectorType, byReflectedType);
+			}
+			if (byReflectedType.get(reflectedType) == null) {
+				byReflectedType.put(reflectedType, table.components[component]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Describe the configuration on which the selection of reflectors depends.
+	 */
+	private String getFingerprint(Object[] components) {
+		StringBuffer result = new StringBuffer(getClass().getName());
+		for (int i = 0; i < components.length; i++) {
+			Reflector reflector = (Reflector) components[i];
+			result.append(' ').append(reflector.getClass().getName());
+			DispatchSnapshot.appendClassNames(result, reflector.getReflectableClasses());
+		}
+		return result.toString();
+	}
+
+	private static int indexOf(Object[] components, Object component) {
+		for (int i = 0; i < components.length; i++) {
+			if (components[i] == component) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get a snapshot of the reflectors this reflector has selected so far,
+	 * for diagnostic purposes.  The result maps each reflector interface to
+	 * a map from reflected class to the component selected for it, or
+	 * <code>null</code> where no component could reflect the class.  The
+	 * table is discarded whenever the components change.
+	 * @return Map
+	 * @since Morph 2.0
+	 */
+	public Map getResolvedReflectors() {
+		Map result = new HashMap();
+		ResolutionTable table = getResolutionTable();
+		for (Iterator i = table.reflectors.entrySet().iterator(); i.hasNext();) {
+			Map.Entry entry = (Map.Entry) i.next();
+			Map byReflectedType = new HashMap();
+			for (Iterator j = ((WeakClassCache) entry.getValue()).toMap().entrySet().iterator(); j
+					.hasNext();) {
+				Map.Entry resolution = (Map.Entry) j.next();
+				byReflectedType.put(resolution.getKey() == NULL_KEY ? null : resolution.getKey(),
+						resolution.getValue() == NO_REFLECTOR ? null : resolution.getValue());
 			}
+			result.put(entry.getKey(), Collections.unmodifiableMap(byReflectedType));
 		}
-		return null;
+		return Collections.unmodifiableMap(result);
 	}
 
 	/**
@@ -16,21 +16,26 @@ package net.sf.morph2.reflect.reflectors;
 import java.util.StringTokenizer;
 
 import net.sf.morph2.reflect.SizableReflector;
+import net.sf.morph2.util.CharSequenceTokenizer;
 
 /**
- * Reflector for {@link StringTokenizer}s.
+ * Reflector for {@link StringTokenizer}s and {@link CharSequenceTokenizer}s.
  * 
  * @author Matt Sgarlata
  * @since Apr 9, 2007
  */
 public class StringTokenizerReflector extends EnumerationReflector implements SizableReflector {
 
-	private static final Class[] REFLECTABLE_TYPES = new Class[] { StringTokenizer.class };
+	private static final Class[] REFLECTABLE_TYPES = new Class[] { StringTokenizer.class,
+			CharSequenceTokenizer.class };
 
 	/**
 	 * {@inheritDoc}
 	 */
 	protected int getSizeImpl(Object container) throws Exception {
+		if (container instanceof CharSequenceTokenizer) {
+			return ((CharSequenceTokenizer) container).countTokens();
+		}
 		StringTokenizer tokenizer = (StringTokenizer) container;
 		return tokenizer.countTokens();
 	}
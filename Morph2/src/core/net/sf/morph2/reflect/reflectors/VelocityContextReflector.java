@@ -20,5 +20,6 @@ package net.sf.morph2.reflect.reflectors;
  * @since Dec 29, 2004
  * @deprecated version 1.0.2 use net.sf.morph2.integration.velocity
  */
+@Deprecated
 public class VelocityContextReflector extends net.sf.morph2.integration.velocity.VelocityContextReflector {
 }
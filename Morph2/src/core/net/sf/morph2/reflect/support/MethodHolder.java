@@ -21,6 +21,10 @@ import org.apache.commons.logging.LogFactory;
 
 /**
  * Holds a reference to the getter and setter methods of a JavaBeans property.
+ * Each method is made accessible when it is registered, so that access checks
+ * are not repeated every time the method is invoked.  If the method cannot be
+ * made accessible (e.g. because of a security manager or module restrictions),
+ * it is invoked through ordinary, access-checked reflection.
  *  
  * @author Matt Sgarlata
  * @author Alexander Volanis
@@ -29,6 +33,7 @@ import org.apache.commons.logging.LogFactory;
 public class MethodHolder {
 
 	private static final Log log = LogFactory.getLog(MethodHolder.class);
+	private static final Object[] NO_ARGS = new Object[0];
 
 	private Method mutator;
 	private Method indexedMutator;
@@ -48,7 +53,7 @@ public class MethodHolder {
 	 * @param mutator the Method to set
 	 */
 	public void setMutator(Method mutator) {
-		this.mutator = mutator;
+		this.mutator = prepare(mutator);
 	}
 
 	/**
@@ -64,7 +69,7 @@ public class MethodHolder {
 	 * @param indexedMutator the Method to set
 	 */
 	public void setIndexedMutator(Method indexedMutator) {
-		this.indexedMutator = indexedMutator;
+		this.indexedMutator = prepare(indexedMutator);
 	}
 
 	/**
@@ -80,7 +85,7 @@ public class MethodHolder {
 	 * @param accessor the Method to set
 	 */
 	public void setAccessor(Method accessor) {
-		this.accessor = accessor;
+		this.accessor = prepare(accessor);
 	}
 
 	/**
@@ -96,7 +101,30 @@ public class MethodHolder {
 	 * @param indexedAccessor the Method to set
 	 */
 	public void setIndexedAccessor(Method indexedAccessor) {
-		this.indexedAccessor = indexedAccessor;
+		this.indexedAccessor = prepare(indexedAccessor);
+	}
+
+	/**
+	 * Prepare a Method for repeated invocation by suppressing access checks
+	 * where permitted.
+	 * @param method
+	 * @return <code>method</code>
+	 * @since Morph 2.0
+	 */
+	protected static Method prepare(Method method) {
+		if (method != null) {
+			try {
+				method.setAccessible(true);
+			}
+			catch (RuntimeException e) {
+				// SecurityException, or InaccessibleObjectException on newer JREs
+				if (log.isDebugEnabled()) {
+					log.debug("Unable to suppress access checks for " + methodToString(method)
+							+ "; falling back to checked reflection", e);
+				}
+			}
+		}
+		return method;
 	}
 
 	/**
@@ -155,7 +183,7 @@ public class MethodHolder {
 			log.trace("Invoking accessor " + methodToString(accessor) + " on bean of class "
 					+ bean.getClass().getName());
 		}
-		return accessor.invoke(bean, (Object[]) null);
+		return accessor.invoke(bean, NO_ARGS);
 	}
 
 	/**
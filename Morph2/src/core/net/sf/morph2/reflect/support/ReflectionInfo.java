@@ -186,12 +186,9 @@ public class ReflectionInfo {
      * @return boolean
      */
 	public boolean isWriteable(String propertyName) {
-		return
-			getMethodHolder(propertyName) != null &&
-			(
-				getMethodHolder(propertyName).getMutator() != null ||
-				getMethodHolder(propertyName).getIndexedMutator() != null
-			);
+		MethodHolder holder = getMethodHolder(propertyName);
+		return holder != null
+				&& (holder.getMutator() != null || holder.getIndexedMutator() != null);
 	}
 
 	/**
@@ -200,12 +197,9 @@ public class ReflectionInfo {
 	 * @return boolean
 	 */
 	public boolean isReadable(String propertyName) {
-		return
-			getMethodHolder(propertyName) != null &&
-			(
-				getMethodHolder(propertyName).getAccessor() != null ||
-				getMethodHolder(propertyName).getIndexedAccessor() != null
-			);
+		MethodHolder holder = getMethodHolder(propertyName);
+		return holder != null
+				&& (holder.getAccessor() != null || holder.getIndexedAccessor() != null);
 	}
 
 	/**
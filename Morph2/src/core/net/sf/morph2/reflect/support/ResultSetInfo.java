@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.reflect.support;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Provides easy access to the column information of a ResultSet.  The
+ * metadata is read once, when the ResultSetInfo is created, so that columns
+ * can be located by index rather than by name for every row.
+ *
+ * @since Morph 2.0
+ */
+public class ResultSetInfo {
+	private Map columnIndexes = new HashMap();
+	private String[] propertyNames;
+	private String[] columnClassNames;
+	private boolean[] writable;
+
+	/**
+	 * Create a new ResultSetInfo instance.
+	 * @param metaData
+	 * @throws SQLException
+	 */
+	public ResultSetInfo(ResultSetMetaData metaData) throws SQLException {
+		int columnCount = metaData.getColumnCount();
+		propertyNames = new String[columnCount];
+		columnClassNames = new String[columnCount];
+		writable = new boolean[columnCount];
+		for (int i = 0; i < columnCount; i++) {
+			String label = metaData.getColumnLabel(i + 1).toLowerCase();
+			propertyNames[i] = label;
+			columnClassNames[i] = metaData.getColumnClassName(i + 1);
+			writable[i] = metaData.isWritable(i + 1);
+			// the first column with a given label wins
+			if (!columnIndexes.containsKey(label)) {
+				columnIndexes.put(label, Integer.valueOf(i + 1));
+			}
+		}
+	}
+
+	/**
+	 * Get the number of columns.
+	 * @return int
+	 */
+	public int getColumnCount() {
+		return propertyNames.length;
+	}
+
+	/**
+	 * Get the lowercase labels of the columns, in order.
+	 * @return String[]
+	 */
+	public String[] getPropertyNames() {
+		return propertyNames;
+	}
+
+	/**
+	 * Get the index of the column with the specified label, ignoring case.
+	 * @param propertyName
+	 * @return the 1-based column index, or 0 if there is no such column
+	 */
+	public int getColumnIndex(String propertyName) {
+		Integer index = (Integer) columnIndexes.get(propertyName);
+		if (index == null) {
+			index = (Integer) columnIndexes.get(propertyName.toLowerCase());
+		}
+		return index == null ? 0 : index.intValue();
+	}
+
+	/**
+	 * Get the name of the class of the values of the specified column.
+	 * @param columnIndex the 1-based column index
+	 * @return String
+	 */
+	public String getColumnClassName(int columnIndex) {
+		return columnClassNames[columnIndex - 1];
+	}
+
+	/**
+	 * Learn whether the specified column may be written to.
+	 * @param columnIndex the 1-based column index
+	 * @return boolean
+	 */
+	public boolean isWritable(int columnIndex) {
+		return writable[columnIndex - 1];
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform;
+
+import java.util.Locale;
+
+/**
+ * Defines a transformer that can attempt a conversion without throwing an
+ * exception if the conversion fails.  This suits callers that expect many
+ * conversions to fail, such as validators of user input, since neither an
+ * exception nor its message is created for a failed conversion.
+ *
+ * @since Morph 2.0
+ */
+public interface TentativeConverter extends Transformer {
+
+	/**
+	 * Returned by {@link #tryConvert(Class, Object, Locale)} if the conversion
+	 * failed.
+	 */
+	public static final Object NOT_CONVERTED = new Object();
+
+	/**
+	 * Attempts to convert the given <code>source</code> into an object of
+	 * class <code>destinationClass</code>. Where
+	 * {@link Converter#convert(Class, Object, Locale)} would throw a
+	 * {@link TransformationException}, this method returns
+	 * {@link #NOT_CONVERTED} instead.
+	 * 
+	 * @param destinationClass
+	 *            the destination class of the conversion
+	 * @param source
+	 *            the source object of the conversion
+	 * @param locale
+	 *            the locale in which the conversion should take place, or
+	 *            <code>null</code> if the locale is not applicable
+	 * @return the result of the conversion or {@link #NOT_CONVERTED}
+	 */
+	public Object tryConvert(Class destinationClass, Object source, Locale locale);
+}
@@ -180,6 +180,7 @@ public class ArbitraryObjectMappingConverter extends BaseTransformer implements
 	 * @return Map
 	 * @deprecated
 	 */
+	@Deprecated
 	public Map getVisitedSourceToDestinationMap() {
 		return getMapping();
 	}
@@ -188,6 +189,7 @@ public class ArbitraryObjectMappingConverter extends BaseTransformer implements
 	 * @param visitedSourceToDestinationMap
 	 * @deprecated
 	 */
+	@Deprecated
 	public void setVisitedSourceToDestinationMap(Map visitedSourceToDestinationMap) {
 		throw new UnsupportedOperationException();
 	}
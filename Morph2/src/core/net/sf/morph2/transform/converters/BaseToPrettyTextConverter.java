@@ -13,16 +13,24 @@
  */
 package net.sf.morph2.transform.converters;
 
+import java.io.IOException;
+import java.util.Locale;
+
 import net.sf.morph2.Defaults;
 import net.sf.morph2.transform.Converter;
 import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.ImpreciseTransformer;
+import net.sf.morph2.transform.TransformationException;
+import net.sf.morph2.transform.support.TruncatingAppendable;
 import net.sf.morph2.transform.transformers.BaseReflectorTransformer;
 import net.sf.morph2.util.TransformerUtils;
 
 /**
  * Base class for converts that convert objects to a pretty programmer-friendly
- * representation using information retrieved using a reflector.
+ * representation using information retrieved using a reflector.  The text
+ * for an entire object graph is appended to a single {@link Appendable}, which
+ * may be supplied by the caller using
+ * {@link #append(Appendable, Object, Locale)}.
  * 
  * @author Matt Sgarlata
  * @since Feb 15, 2005
@@ -30,12 +38,106 @@ import net.sf.morph2.util.TransformerUtils;
 public abstract class BaseToPrettyTextConverter extends BaseReflectorTransformer
 		implements DecoratedConverter, ImpreciseTransformer {
 
+	/** Value of <code>maxLength</code> indicating text is never truncated */
+	public static final int UNLIMITED_LENGTH = -1;
+
 	private String prefix;
 	private String suffix;
 	private String separator;
 	private Converter textConverter;
 	private Converter toTextConverter;
 	private boolean showNullValues = false;
+	private int maxLength = UNLIMITED_LENGTH;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object convertImpl(Class destinationClass, Object source, Locale locale)
+			throws Exception {
+		StringBuilder builder = new StringBuilder();
+		append(builder, source, locale);
+		return getTextConverter().convert(destinationClass, builder.toString(), locale);
+	}
+
+	/**
+	 * Append the pretty text representation of <code>source</code> to
+	 * <code>destination</code>, truncated to <code>maxLength</code>
+	 * characters if set.
+	 * @param destination
+	 * @param source
+	 * @param locale
+	 * @throws TransformationException
+	 * @since Morph 2.0
+	 */
+	public void append(Appendable destination, Object source, Locale locale)
+			throws TransformationException {
+		initialize();
+		if (locale == null) {
+			locale = getLocale();
+		}
+		if (maxLength != UNLIMITED_LENGTH && !(destination instanceof TruncatingAppendable)) {
+			destination = new TruncatingAppendable(destination, maxLength);
+		}
+		try {
+			appendImpl(destination, source, locale);
+		}
+		catch (TransformationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new TransformationException(String.class, source, e);
+		}
+	}
+
+	/**
+	 * Implementation of {@link #append(Appendable, Object, Locale)}.  By
+	 * default appends the result of converting <code>source</code> to a
+	 * String, so subclasses should override this method or
+	 * {@link #convertImpl(Class, Object, Locale)}.
+	 * @param destination
+	 * @param source
+	 * @param locale
+	 * @throws Exception
+	 * @since Morph 2.0
+	 */
+	protected void appendImpl(Appendable destination, Object source, Locale locale)
+			throws Exception {
+		destination.append((String) convert(String.class, source, locale));
+	}
+
+	/**
+	 * Append the text of a nested <code>value</code> using the "to text"
+	 * converter, directly if it is itself a BaseToPrettyTextConverter.
+	 * @param destination
+	 * @param value
+	 * @param locale
+	 * @throws Exception
+	 * @since Morph 2.0
+	 */
+	protected void appendText(Appendable destination, Object value, Locale locale)
+			throws Exception {
+		Converter converter = getToTextConverter();
+		if (converter instanceof BaseToPrettyTextConverter) {
+			((BaseToPrettyTextConverter) converter).append(destination, value, locale);
+		}
+		else {
+			destination.append((String) converter.convert(String.class, value, locale));
+		}
+	}
+
+	/**
+	 * Append <code>text</code> to <code>destination</code> unless it is
+	 * <code>null</code>.
+	 * @param destination
+	 * @param text
+	 * @throws IOException
+	 */
+	protected static void appendIfNotNull(Appendable destination, String text)
+			throws IOException {
+		if (text != null) {
+			destination.append(text);
+		}
+	}
 
 	/**
 	 * {@inheritDoc}
@@ -163,6 +265,27 @@ public abstract class BaseToPrettyTextConverter extends BaseReflectorTransformer
 		this.showNullValues = showNullValues;
 	}
 
+	/**
+	 * Get the maximum length of the text produced by this
+	 * BaseToPrettyTextConverter.
+	 * @return int
+	 * @since Morph 2.0
+	 */
+	public int getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 * Set the maximum length of the text produced by this
+	 * BaseToPrettyTextConverter.  Longer text is truncated and followed by an
+	 * ellipsis.  Default {@link #UNLIMITED_LENGTH}.
+	 * @param maxLength
+	 * @since Morph 2.0
+	 */
+	public void setMaxLength(int maxLength) {
+		this.maxLength = maxLength;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -15,8 +15,8 @@ package net.sf.morph2.transform.converters;
 
 import java.util.Locale;
 
-import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.reflect.BeanReflector;
+import net.sf.morph2.transform.support.TruncatingAppendable;
 
 /**
  * <p>
@@ -64,57 +64,32 @@ public class BeanToPrettyTextConverter extends BaseToPrettyTextConverter {
 	/**
 	 * {@inheritDoc}
 	 */
-	protected Object convertImpl(Class destinationClass, Object source,
-		Locale locale) throws Exception {
+	protected void appendImpl(Appendable destination, Object source, Locale locale)
+			throws Exception {
 
 		BeanReflector beanReflector = getBeanReflector();
 
-		StringBuffer buffer = new StringBuffer();
-		// can't pass prefix to constructor because if it's null we'll get a NPE
-		if (getPrefix() != null) {
-			buffer.append(getPrefix());
-		}
+		appendIfNotNull(destination, getPrefix());
 		String[] propertyNames = beanReflector.getPropertyNames(source);
 		boolean separatorNeeded = false;
-		if (!ObjectUtils.isEmpty(propertyNames)) {
-			String propertyName = propertyNames[0];
-			Object value;
+		for (int i = 0; propertyNames != null && i < propertyNames.length
+				&& !TruncatingAppendable.isTruncated(destination); i++) {
+			String propertyName = propertyNames[i];
 			if (beanReflector.isReadable(source, propertyName)) {
-				value = beanReflector.get(source, propertyName);			
-				append(buffer, propertyName, value, locale);
+				Object value = beanReflector.get(source, propertyName);
 				if (value != null || isShowNullValues()) {
+					if (separatorNeeded) {
+						destination.append(getSeparator());
+					}
 					separatorNeeded = true;
-				}
-			}
-			for (int i = 1; i < propertyNames.length; i++) {
-				propertyName = propertyNames[i];
-				if (beanReflector.isReadable(source, propertyName)) {
-					value = beanReflector.get(source, propertyName);
-					if (value != null || isShowNullValues()) {
-						if (separatorNeeded) {
-							buffer.append(getSeparator());
-						}
-						separatorNeeded = true;
+					if (isShowPropertyNames()) {
+						destination.append(propertyName).append(getNameValueSeparator());
 					}
-					append(buffer, propertyNames[i], value, locale);
+					appendText(destination, value, locale);
 				}
 			}
 		}
-		if (getSuffix() != null) {
-			buffer.append(getSuffix());
-		}
-		return getTextConverter().convert(destinationClass, buffer, locale);
-	}
-
-	private void append(StringBuffer buffer, String propertyName, Object value,
-			Locale locale) {		
-		if (value == null && !isShowNullValues()) {
-			return;
-		}
-		if (isShowPropertyNames()) {
-			buffer.append(propertyName).append(getNameValueSeparator());
-		}
-		buffer.append(getToTextConverter().convert(String.class, value, locale));
+		appendIfNotNull(destination, getSuffix());
 	}
 
 	/**
@@ -20,5 +20,6 @@ package net.sf.morph2.transform.converters;
  * @author Matt Sgarlata
  * @since October 25, 2004
  */
+@Deprecated
 public class BeanUtilsConverter extends net.sf.morph2.integration.commons.beanutils.BeanUtilsConverter {
 }
@@ -18,6 +18,8 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 
+import net.sf.morph2.transform.support.TruncatingAppendable;
+
 /**
  * <p>
  * Converts a container to a textual representation (String or StringBuffer only).
@@ -59,32 +61,23 @@ public class ContainerToPrettyTextConverter extends BaseToPrettyTextConverter {
 	/**
 	 * {@inheritDoc}
 	 */
-	protected Object convertImpl(Class destinationClass, Object source,
-		Locale locale) throws Exception {
-
-		boolean endsInSeparator = false;
-		StringBuffer buffer = new StringBuffer();
-		if (getPrefix() != null) {
-			buffer.append(getPrefix());
-		}
+	protected void appendImpl(Appendable destination, Object source, Locale locale)
+			throws Exception {
+		appendIfNotNull(destination, getPrefix());
+		boolean separatorNeeded = false;
 		Iterator iterator = getContainerReflector().getIterator(source);
-		while (iterator != null && iterator.hasNext()) {
+		while (iterator != null && iterator.hasNext()
+				&& !TruncatingAppendable.isTruncated(destination)) {
 			Object next = iterator.next();
 			if (next != null || isShowNullValues()) {
-				String text = (String) getToTextConverter().convert(String.class,
-					next, locale);
-				buffer.append(text);
-				buffer.append(getSeparator());
-				endsInSeparator = true;
+				if (separatorNeeded) {
+					destination.append(getSeparator());
+				}
+				appendText(destination, next, locale);
+				separatorNeeded = true;
 			}
 		}
-		if (endsInSeparator) {
-			buffer.delete(buffer.length() - getSeparator().length(), buffer.length());	
-		}
-		if (getSuffix() != null) {
-			buffer.append(getSuffix());
-		}
-		return getTextConverter().convert(destinationClass, buffer, locale);
+		appendIfNotNull(destination, getSuffix());
 	}
 
 	/**
@@ -106,6 +106,14 @@ public class ConverterDecorator extends BaseTransformer implements DecoratedConv
 		return getNestedConverter().convert(destinationClass, source, locale);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object tryConvertImpl(Class destinationClass, Object source, Locale locale)
+			throws Exception {
+		return TransformerUtils.tryConvert(getNestedConverter(), destinationClass, source, locale);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 * @see net.sf.morph2.transform.transformers.BaseTransformer#setSourceClasses(java.lang.Class[])
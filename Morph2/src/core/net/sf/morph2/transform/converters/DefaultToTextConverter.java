@@ -78,6 +78,7 @@ public class DefaultToTextConverter extends SimpleDelegatingTransformer {
 	 * @return
 	 * @deprecated since Morph 1.1
 	 */
+	@Deprecated
 	public Converter getTextConverter() {
 		if (textConverter == null) {
 			setTextConverter(Defaults.createTextConverter());
@@ -90,6 +91,7 @@ public class DefaultToTextConverter extends SimpleDelegatingTransformer {
 	 * @param textConverter
 	 * @deprecated since Morph 1.1
 	 */
+	@Deprecated
 	public void setTextConverter(Converter textConverter) {
 		this.textConverter = textConverter;
 	}
@@ -25,6 +25,7 @@ import net.sf.morph2.transform.transformers.BaseTransformer;
  * @author Matt Sgarlata
  * @since Dec 31, 2004
  */
+@Deprecated
 public class NullConverter extends BaseTransformer implements DecoratedConverter {
 
 	private static final Class[] SOURCE_TYPES = { null };
@@ -13,7 +13,18 @@
  */
 package net.sf.morph2.transform.converters;
 
+import static net.sf.morph2.util.NumberUtils.BYTE_TYPE;
+import static net.sf.morph2.util.NumberUtils.DOUBLE_TYPE;
+import static net.sf.morph2.util.NumberUtils.FLOAT_TYPE;
+import static net.sf.morph2.util.NumberUtils.INT_TYPE;
+import static net.sf.morph2.util.NumberUtils.LONG_TYPE;
+import static net.sf.morph2.util.NumberUtils.MAX_EXACT_FLOAT;
+import static net.sf.morph2.util.NumberUtils.NO_PRIMITIVE_TYPE;
+import static net.sf.morph2.util.NumberUtils.SHORT_TYPE;
+import static net.sf.morph2.util.NumberUtils.getPrimitiveNumberType;
+
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Locale;
 
 import net.sf.morph2.transform.DecoratedConverter;
@@ -37,6 +48,13 @@ public class NumberConverter extends BaseTransformer implements DecoratedConvert
 		float.class, double.class, null
 	};
 
+	/** doubles at least this large are converted to long by way of BigDecimal */
+	private static final double MIN_INEXACT_LONG = 1L << 62;
+
+	/** methods whose overriding forces every conversion by way of BigDecimal */
+	private static final String[] CONVERSION_METHOD_NAMES = { "checkNotOutOfBounds",
+		"isDecimal" };
+
 	/** Default rounding method */
 	public static final String DEFAULT_ROUNDING_METHOD = NumberRounder.ROUND_HALF_UP;
 
@@ -138,6 +156,10 @@ public class NumberConverter extends BaseTransformer implements DecoratedConvert
 		if (destinationClass.isAssignableFrom(ClassUtils.getClass(source))) {
 			return source;
 		}
+		Number result = convertDirectly(destinationClass, (Number) source);
+		if (result != null) {
+			return result;
+		}
 		checkNotOutOfBounds(destinationClass, (Number) source);
 
 		String numberStr;
@@ -153,6 +175,161 @@ public class NumberConverter extends BaseTransformer implements DecoratedConvert
 		return NumberUtils.getNumber(destinationClass, numberStr);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object tryConvertImpl(Class destinationClass, Object source, Locale locale)
+			throws Exception {
+		if (destinationClass == null || source == null) {
+			return destinationClass != null && destinationClass.isPrimitive() ? NOT_CONVERTED
+					: convertImpl(destinationClass, source, locale);
+		}
+		if (destinationClass.isAssignableFrom(source.getClass())) {
+			return source;
+		}
+		Number number = (Number) source;
+		Number result = convertDirectly(destinationClass, number);
+		if (result != null) {
+			return result;
+		}
+		// the bounds checked by checkNotOutOfBounds
+		if (NumberUtils.isTooBigForType(number, destinationClass)
+				|| NumberUtils.isTooSmallForType(number, destinationClass)) {
+			return NOT_CONVERTED;
+		}
+		return convertImpl(destinationClass, source, locale);
+	}
+
+	/**
+	 * Convert between the primitive number types with primitive arithmetic
+	 * rather than by way of BigDecimal, yielding the same result.  Values that
+	 * are out of bounds for <code>destinationClass</code>, and values whose
+	 * conversion by way of their decimal representation may differ from
+	 * primitive arithmetic, are left to the BigDecimal conversion.
+	 * @param destinationClass
+	 * @param source
+	 * @return the converted Number or <code>null</code> if the conversion
+	 *         must be performed by way of BigDecimal
+	 */
+	private Number convertDirectly(Class destinationClass, Number source) {
+		int destinationType = getPrimitiveNumberType(destinationClass);
+		int sourceType = getPrimitiveNumberType(source.getClass());
+		if (destinationType == NO_PRIMITIVE_TYPE || sourceType == NO_PRIMITIVE_TYPE
+				|| ClassUtils.isOverridingAny(getClass(), NumberConverter.class,
+					CONVERSION_METHOD_NAMES)) {
+			return null;
+		}
+		if (sourceType <= LONG_TYPE) {
+			long value = source.longValue();
+			switch (destinationType) {
+			case FLOAT_TYPE:
+				return Float.valueOf(value);
+			case DOUBLE_TYPE:
+				return Double.valueOf(value);
+			default:
+				return valueOf(destinationType, value);
+			}
+		}
+		double value = source.doubleValue();
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			return null;
+		}
+		// a float is converted by way of its decimal representation, which is
+		// exact for integral floats up to MAX_EXACT_FLOAT
+		if (sourceType == FLOAT_TYPE && (value > MAX_EXACT_FLOAT || value < -MAX_EXACT_FLOAT)) {
+			return null;
+		}
+		switch (destinationType) {
+		case FLOAT_TYPE:
+			float f = (float) value;
+			return f == value ? Float.valueOf(f) : null;
+		case DOUBLE_TYPE:
+			return sourceType == DOUBLE_TYPE || value == Math.floor(value) ? Double.valueOf(value)
+					: null;
+		case LONG_TYPE:
+			if (value >= MIN_INEXACT_LONG || value <= -MIN_INEXACT_LONG) {
+				return null;
+			}
+			return valueOf(destinationType, round(value));
+		default:
+			// compare the unrounded value, as checkNotOutOfBounds does
+			if (value > getMaximum(destinationType) || value < getMinimum(destinationType)) {
+				return null;
+			}
+			return valueOf(destinationType, round(value));
+		}
+	}
+
+	/**
+	 * Round <code>value</code>, whose magnitude is less than 2^62, to a long
+	 * according to the rounding method of this NumberConverter.
+	 */
+	private long round(double value) {
+		long truncated = (long) value;
+		double fraction = value - truncated;
+		if (fraction == 0) {
+			return truncated;
+		}
+		long away = fraction > 0 ? truncated + 1 : truncated - 1;
+		double distance = Math.abs(fraction);
+		switch (RoundingMode.valueOf(NumberRounder.getBigDecimalRoundMode(getRoundingMethod()))) {
+		case UP:
+			return away;
+		case DOWN:
+			return truncated;
+		case CEILING:
+			return fraction > 0 ? away : truncated;
+		case FLOOR:
+			return fraction < 0 ? away : truncated;
+		case HALF_UP:
+			return distance >= 0.5 ? away : truncated;
+		case HALF_DOWN:
+			return distance > 0.5 ? away : truncated;
+		default:
+			return distance > 0.5 || distance == 0.5 && truncated % 2 != 0 ? away
+					: truncated;
+		}
+	}
+
+	/**
+	 * Box <code>value</code> as <code>type</code>, or return
+	 * <code>null</code> if it is out of bounds for <code>type</code>.
+	 */
+	private static Number valueOf(int type, long value) {
+		switch (type) {
+		case BYTE_TYPE:
+			return value == (byte) value ? Byte.valueOf((byte) value) : null;
+		case SHORT_TYPE:
+			return value == (short) value ? Short.valueOf((short) value) : null;
+		case INT_TYPE:
+			return value == (int) value ? Integer.valueOf((int) value) : null;
+		default:
+			return Long.valueOf(value);
+		}
+	}
+
+	private static double getMaximum(int type) {
+		switch (type) {
+		case BYTE_TYPE:
+			return Byte.MAX_VALUE;
+		case SHORT_TYPE:
+			return Short.MAX_VALUE;
+		default:
+			return Integer.MAX_VALUE;
+		}
+	}
+
+	private static double getMinimum(int type) {
+		switch (type) {
+		case BYTE_TYPE:
+			return Byte.MIN_VALUE;
+		case SHORT_TYPE:
+			return Short.MIN_VALUE;
+		default:
+			return Integer.MIN_VALUE;
+		}
+	}
+
 	/**
 	 * Learn whether <code>numberType</code> is a decimal type
 	 * @param numberType
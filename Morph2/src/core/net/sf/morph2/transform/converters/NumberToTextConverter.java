@@ -20,6 +20,7 @@ import net.sf.morph2.Defaults;
 import net.sf.morph2.transform.Converter;
 import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.ImpreciseTransformer;
+import net.sf.morph2.transform.support.FormatCache;
 import net.sf.morph2.transform.transformers.BaseTransformer;
 import net.sf.morph2.util.TransformerUtils;
 
@@ -35,12 +36,18 @@ public class NumberToTextConverter extends BaseTransformer implements DecoratedC
 
 	private Converter textConverter;
 	private Converter numberConverter;
+	private final FormatCache numberFormats = new FormatCache();
 
 	/**
 	 * {@inheritDoc}
 	 */
 	protected Object convertImpl(Class destinationClass, Object source, Locale locale) throws Exception {
-		String formatted = getNumberFormat(locale).format(source);
+		NumberFormat numberFormat = (NumberFormat) numberFormats.get(locale);
+		if (numberFormat == null) {
+			numberFormat = getNumberFormat(locale);
+			numberFormats.put(locale, numberFormat);
+		}
+		String formatted = numberFormat.format(source);
 		return getTextConverter().convert(destinationClass, formatted, locale);
 	}
 
@@ -118,7 +125,8 @@ public class NumberToTextConverter extends BaseTransformer implements DecoratedC
 	/**
 	 * Retrieves the {@link NumberFormat} instance to be used to in the given
 	 * locale to format numbers as text. Subclasses can override this method to
-	 * customize the behavior of this converter.
+	 * customize the behavior of this converter.  The instance returned is
+	 * reused for subsequent conversions on the same thread in the same locale.
 	 * 
 	 * @param locale
 	 *            the locale
@@ -18,6 +18,7 @@ import java.util.Locale;
 import java.util.Set;
 
 import net.sf.morph2.transform.Converter;
+import net.sf.morph2.transform.support.TruncatingAppendable;
 import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.MutableInteger;
@@ -27,7 +28,16 @@ import net.sf.morph2.util.TransformerUtils;
  * <p>
  * Creates a String representation of an object that is useful for debugging.
  * This class is threadsafe and will not enter an infinite loop, even if
- * displaying the information in a cyclic graph of objects.
+ * displaying the information in a cyclic graph of objects.  The depth of the
+ * graph displayed is limited by <code>levels</code> and the length of the
+ * text by <code>maxLength</code>.
+ * </p>
+ * <p>
+ * If an object cannot be displayed, the text of its <code>toString</code>
+ * method is shown instead.  Text already appended for the object is removed
+ * first if the destination is a StringBuilder, a StringBuffer or a
+ * {@link TruncatingAppendable}; other destinations, such as Writers, receive
+ * the text as it is produced and so may keep part of it.
  * </p>
  * 
  * @author Matt Sgarlata
@@ -62,7 +72,7 @@ public class ObjectToPrettyTextConverter extends BaseToPrettyTextConverter {
 	/**
 	 * {@inheritDoc}
 	 */
-	protected Object convertImpl(Class destinationClass, Object source, Locale locale)
+	protected void appendImpl(Appendable destination, Object source, Locale locale)
 			throws Exception {
 		MutableInteger currentLevel = (MutableInteger) currentLevelThreadLocal.get();
 		if (currentLevel == null) {
@@ -73,24 +83,22 @@ public class ObjectToPrettyTextConverter extends BaseToPrettyTextConverter {
 			currentLevel.value++;
 		}
 
+		// a failed rendering is discarded where the destination allows it.  text
+		// bound for a truncated destination that cannot discard text is short,
+		// so it is buffered; anything else is written straight through
+		Appendable target = destination;
+		StringBuilder buffer = null;
+		if (destination instanceof TruncatingAppendable
+				&& TruncatingAppendable.getLength(destination) < 0) {
+			buffer = new StringBuilder();
+			target = ((TruncatingAppendable) destination).createBuffer(buffer);
+		}
+		int mark = TruncatingAppendable.getLength(target);
+		boolean appended = false;
 		try {
 			// if we aren't down too many levels in the object graph
 			if (currentLevel.value < levels) {
-				if (source == null) {
-					return "null";
-				}
-				if (getTypesUsingToStringInternal().contains(source.getClass())) {
-					return source.toString();
-				}
-				if (TransformerUtils.isTransformable(getContainerToPrettyTextConverter(),
-						destinationClass, ClassUtils.getClass(source))) {
-					return getContainerToPrettyTextConverter().convert(destinationClass, source,
-							locale);
-				}
-				if (TransformerUtils.isTransformable(getBeanToPrettyTextConverter(),
-						destinationClass, ClassUtils.getClass(source))) {
-					return getBeanToPrettyTextConverter().convert(destinationClass, source, locale);
-				}
+				appended = appendPrettyText(target, source, locale);
 			}
 		} catch (Exception e) {
 			if (log.isErrorEnabled()) {
@@ -98,6 +106,10 @@ public class ObjectToPrettyTextConverter extends BaseToPrettyTextConverter {
 						"Error occurred while attempting to create a formatted text representation of source "
 								+ source, e);
 			}
+			// discard any partial representation we are able to
+			if (mark >= 0) {
+				TruncatingAppendable.setLength(target, mark);
+			}
 		} finally {
 			if (currentLevel.value == 0) {
 				currentLevelThreadLocal.set(null);
@@ -106,7 +118,51 @@ public class ObjectToPrettyTextConverter extends BaseToPrettyTextConverter {
 				currentLevel.value--;
 			}
 		}
-		return getToTextConverter().convert(destinationClass, source, locale);
+		if (!appended) {
+			target.append((String) getToTextConverter().convert(String.class, source, locale));
+		}
+		if (buffer != null) {
+			destination.append(buffer);
+		}
+	}
+
+	/**
+	 * Append the pretty text of <code>source</code>, if one of the nested
+	 * converters can produce it.
+	 * @return whether the text was appended
+	 */
+	private boolean appendPrettyText(Appendable destination, Object source, Locale locale)
+			throws Exception {
+		if (source == null) {
+			destination.append("null");
+			return true;
+		}
+		if (getTypesUsingToStringInternal().contains(source.getClass())) {
+			destination.append(source.toString());
+			return true;
+		}
+		return appendPrettyText(getContainerToPrettyTextConverter(), destination, source, locale)
+				|| appendPrettyText(getBeanToPrettyTextConverter(), destination, source, locale);
+	}
+
+	/**
+	 * Append the text of <code>source</code> using <code>converter</code>,
+	 * if it can convert <code>source</code> to text.
+	 * @return whether the text was appended
+	 */
+	private boolean appendPrettyText(Converter converter, Appendable destination,
+			Object source, Locale locale) throws Exception {
+		if (!TransformerUtils.isTransformable(converter, String.class, ClassUtils
+				.getClass(source))) {
+			return false;
+		}
+		if (converter instanceof BaseToPrettyTextConverter) {
+			((BaseToPrettyTextConverter) converter).append(destination, source, locale);
+		}
+		else {
+			destination.append((String) converter.convert(String.class, source, locale));
+		}
+		return true;
 	}
 
 	/**
@@ -0,0 +1,293 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.converters;
+
+import static net.sf.morph2.util.NumberUtils.BYTE_TYPE;
+import static net.sf.morph2.util.NumberUtils.DOUBLE_TYPE;
+import static net.sf.morph2.util.NumberUtils.FLOAT_TYPE;
+import static net.sf.morph2.util.NumberUtils.INT_TYPE;
+import static net.sf.morph2.util.NumberUtils.LONG_TYPE;
+import static net.sf.morph2.util.NumberUtils.MAX_EXACT_FLOAT;
+import static net.sf.morph2.util.NumberUtils.NO_PRIMITIVE_TYPE;
+import static net.sf.morph2.util.NumberUtils.SHORT_TYPE;
+import static net.sf.morph2.util.NumberUtils.getPrimitiveNumberType;
+import static net.sf.morph2.util.NumberUtils.storeExactly;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Locale;
+
+import net.sf.morph2.transform.DecoratedConverter;
+import net.sf.morph2.transform.ExplicitTransformer;
+import net.sf.morph2.transform.NestingAwareTransformer;
+import net.sf.morph2.transform.TransformationType;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.transformers.BaseTransformer;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+import net.sf.morph2.util.ClassUtils;
+import net.sf.morph2.util.TransformerUtils;
+
+/**
+ * Converts primitive arrays, object arrays and collections to numeric
+ * primitive arrays without boxing each element.  Values that the nested
+ * transformer's {@link NumberConverter} (or, for plain digit strings, its
+ * {@link TextToNumberConverter}) would convert exactly are stored directly;
+ * all other elements, such as values that would be rounded or are out of
+ * range for the destination type, are converted by the nested transformer so
+ * that the results and exceptions are the same as an element by element
+ * conversion.
+ *
+ * @since Morph 2.0
+ */
+public class PrimitiveArrayConverter extends BaseTransformer implements
+		DecoratedConverter, ExplicitTransformer, NestingAwareTransformer {
+
+	/** longest digit string that always fits in a long */
+	private static final int MAX_PARSED_DIGITS = 18;
+
+	private static final Class[] DESTINATION_TYPES = { byte[].class, short[].class,
+			int[].class, long[].class, float[].class, double[].class };
+
+	private static final Class[] SOURCE_TYPES = { byte[].class, short[].class,
+			int[].class, long[].class, float[].class, double[].class, Object[].class,
+			Collection.class };
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Class[] getDestinationClassesImpl() throws Exception {
+		return DESTINATION_TYPES;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Class[] getSourceClassesImpl() throws Exception {
+		return SOURCE_TYPES;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected boolean isTransformableImpl(Class destinationType, Class sourceType)
+			throws Exception {
+		return destinationType != sourceType
+				&& TransformerUtils.isImplicitlyTransformable(this, destinationType, sourceType);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object convertImpl(Class destinationClass, Object source, Locale locale)
+			throws Exception {
+		Class componentType = destinationClass.getComponentType();
+		int kind = getPrimitiveNumberType(componentType);
+		Class sourceComponentType = source.getClass().getComponentType();
+		if (sourceComponentType != null && sourceComponentType.isPrimitive()) {
+			int length = Array.getLength(source);
+			Object result = Array.newInstance(componentType, length);
+			int sourceKind = getPrimitiveNumberType(sourceComponentType);
+			boolean fast = isNumberConversion(componentType,
+					ClassUtils.getPrimitiveWrapper(sourceComponentType));
+			for (int i = 0; i < length; i++) {
+				if (!fast || !storePrimitive(result, kind, i, source, sourceKind)) {
+					storeConverted(result, componentType, i, Array.get(source, i), locale);
+				}
+			}
+			return result;
+		}
+		Object[] elements = source instanceof Collection ? ((Collection) source).toArray()
+				: (Object[]) source;
+		Object result = Array.newInstance(componentType, elements.length);
+		Class lastClass = null;
+		int lastKind = NO_PRIMITIVE_TYPE;
+		for (int i = 0; i < elements.length; i++) {
+			Object element = elements[i];
+			Class elementClass = element == null ? null : element.getClass();
+			if (elementClass != lastClass) {
+				lastClass = elementClass;
+				lastKind = getElementKind(componentType, elementClass);
+			}
+			if (!storeElement(result, kind, i, element, lastKind)) {
+				storeConverted(result, componentType, i, element, locale);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the fast path kind for elements of <code>elementClass</code>:
+	 * the kind of an unboxed number, <code>NO_PRIMITIVE_TYPE</code> if the
+	 * element must be
+	 * converted by the nested transformer or, for strings, the kind of the
+	 * destination.
+	 * @param componentType
+	 * @param elementClass
+	 * @return int
+	 */
+	private int getElementKind(Class componentType, Class elementClass) {
+		if (elementClass == String.class) {
+			Transformer delegate = getDelegate(componentType, elementClass);
+			return delegate != null && delegate.getClass() == TextToNumberConverter.class
+					? LONG_TYPE : NO_PRIMITIVE_TYPE;
+		}
+		int kind = getPrimitiveNumberType(elementClass);
+		return kind != NO_PRIMITIVE_TYPE && isNumberConversion(componentType, elementClass)
+				? kind : NO_PRIMITIVE_TYPE;
+	}
+
+	/**
+	 * Learn whether the nested transformer converts <code>sourceClass</code>
+	 * to <code>destinationClass</code> with a {@link NumberConverter}.
+	 * @param destinationClass
+	 * @param sourceClass
+	 * @return boolean
+	 */
+	private boolean isNumberConversion(Class destinationClass, Class sourceClass) {
+		Transformer delegate = getDelegate(destinationClass, sourceClass);
+		return delegate != null && delegate.getClass() == NumberConverter.class;
+	}
+
+	private Transformer getDelegate(Class destinationClass, Class sourceClass) {
+		Transformer nestedTransformer = getNestedTransformer();
+		if (nestedTransformer instanceof SimpleDelegatingTransformer) {
+			return ((SimpleDelegatingTransformer) nestedTransformer).getDelegate(
+					destinationClass, sourceClass);
+		}
+		return null;
+	}
+
+	/**
+	 * Store element <code>i</code> of primitive array <code>source</code>
+	 * if it is exactly representable in the destination.
+	 * @return whether the element was stored
+	 */
+	private static boolean storePrimitive(Object result, int kind, int i, Object source,
+			int sourceKind) {
+		switch (sourceKind) {
+		case BYTE_TYPE:
+			return storeExactly(result, kind, i, ((byte[]) source)[i]);
+		case SHORT_TYPE:
+			return storeExactly(result, kind, i, ((short[]) source)[i]);
+		case INT_TYPE:
+			return storeExactly(result, kind, i, ((int[]) source)[i]);
+		case LONG_TYPE:
+			return storeExactly(result, kind, i, ((long[]) source)[i]);
+		case FLOAT_TYPE:
+			return storeDouble(result, kind, i, ((float[]) source)[i], true);
+		default:
+			return storeDouble(result, kind, i, ((double[]) source)[i], false);
+		}
+	}
+
+	/**
+	 * Store <code>element</code> if it is exactly representable in the
+	 * destination.
+	 * @return whether the element was stored
+	 */
+	private static boolean storeElement(Object result, int kind, int i, Object element,
+			int elementKind) {
+		switch (elementKind) {
+		case NO_PRIMITIVE_TYPE:
+			return false;
+		case FLOAT_TYPE:
+			return storeDouble(result, kind, i, ((Float) element).doubleValue(), true);
+		case DOUBLE_TYPE:
+			return storeDouble(result, kind, i, ((Double) element).doubleValue(), false);
+		default:
+			if (element instanceof String) {
+				String string = (String) element;
+				return isDigits(string) && storeExactly(result, kind, i, Long.parseLong(string));
+			}
+			return storeExactly(result, kind, i, ((Number) element).longValue());
+		}
+	}
+
+	private static boolean isDigits(String string) {
+		int length = string.length();
+		if (length == 0 || length > MAX_PARSED_DIGITS) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			char c = string.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Store a floating point value.  Floats are converted by way of their
+	 * decimal representation, so only floats whose decimal representation is
+	 * exact are stored directly.
+	 */
+	private static boolean storeDouble(Object result, int kind, int i, double value,
+			boolean fromFloat) {
+		if (Double.isNaN(value) || Double.isInfinite(value)
+				|| fromFloat && (value > MAX_EXACT_FLOAT || value < -MAX_EXACT_FLOAT)) {
+			return false;
+		}
+		boolean integral = value == Math.floor(value);
+		switch (kind) {
+		case FLOAT_TYPE:
+			if ((float) value != value) {
+				return false;
+			}
+			((float[]) result)[i] = (float) value;
+			return true;
+		case DOUBLE_TYPE:
+			if (fromFloat && !integral) {
+				return false;
+			}
+			((double[]) result)[i] = value;
+			return true;
+		default:
+			// 2^63 is the first double above Long.MAX_VALUE
+			return integral && value >= Long.MIN_VALUE && value < -(double) Long.MIN_VALUE
+					&& storeExactly(result, kind, i, (long) value);
+		}
+	}
+
+	/**
+	 * Convert an element with the nested transformer and store it.
+	 */
+	private void storeConverted(Object result, Class componentType, int i, Object element,
+			Locale locale) {
+		Object converted = TransformerUtils.transform(getNestedTransformer(), componentType,
+				null, element, locale, TransformationType.CONVERT);
+		Array.set(result, i, converted);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected boolean isPerformingLogging() {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Transformer getNestedTransformer() {
+		return super.getNestedTransformer();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void setNestedTransformer(Transformer nestedTransformer) {
+		super.setNestedTransformer(nestedTransformer);
+	}
+}
@@ -22,6 +22,7 @@ import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.transformers.BaseTransformer;
 import net.sf.morph2.util.ContainerUtils;
+import net.sf.morph2.util.TransformerUtils;
 
 /**
  * Converts text values to Booleans.  Text values include Characters, Strings and
@@ -64,6 +65,30 @@ public class TextToBooleanConverter extends BaseTransformer implements Decorated
 		Locale locale) throws Exception {
 
 		String str = (String) getTextConverter().convert(String.class, source, locale);
+		Object result = toBoolean(destinationClass, str);
+		if (result == NOT_CONVERTED) {
+			throw new TransformationException(destinationClass, source);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object tryConvertImpl(Class destinationClass, Object source,
+		Locale locale) throws Exception {
+
+		Object str = TransformerUtils.tryConvert(getTextConverter(), String.class, source, locale);
+		return str == NOT_CONVERTED ? NOT_CONVERTED : toBoolean(destinationClass, (String) str);
+	}
+
+	/**
+	 * Look up <code>str</code> in the true and false texts.
+	 * @param destinationClass
+	 * @param str
+	 * @return Boolean, <code>null</code> or {@link #NOT_CONVERTED}
+	 */
+	private Object toBoolean(Class destinationClass, String str) {
 		if (str != null) {
 			str = str.toLowerCase();
 		}
@@ -76,7 +101,7 @@ public class TextToBooleanConverter extends BaseTransformer implements Decorated
 		if (ObjectUtils.isEmpty(str) && !destinationClass.isPrimitive()) {
 			return null;
 		}
-		throw new TransformationException(destinationClass, source);
+		return NOT_CONVERTED;
 	}
 
 	/**
@@ -24,7 +24,9 @@ import net.sf.morph2.Defaults;
 import net.sf.morph2.transform.Converter;
 import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.TransformationException;
+import net.sf.morph2.transform.support.FormatCache;
 import net.sf.morph2.transform.transformers.BaseTransformer;
+import net.sf.morph2.util.TransformerUtils;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -151,6 +153,16 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 	 */
 	private int parenthesesHandling = PARENTHESES_NEGATE;
 
+	/**
+	 * The formats used to parse percentages, cached per thread and locale.
+	 */
+	private final FormatCache percentFormats = new FormatCache();
+	/**
+	 * The formats used to parse regular numbers, cached per thread and
+	 * locale.
+	 */
+	private final FormatCache numberFormats = new FormatCache();
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -163,6 +175,42 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 		// convert the source to a String
 		String string = (String) getTextConverter().convert(String.class,
 			source, locale);
+		Object result = parse(destinationClass, source, string, locale, false);
+		if (result == NOT_CONVERTED) {
+			throw new TransformationException(destinationClass, source);
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object tryConvertImpl(Class destinationClass, Object source,
+		Locale locale) throws Exception {
+
+		if (ObjectUtils.isEmpty(source)) {
+			return null;
+		}
+		Object string = TransformerUtils.tryConvert(getTextConverter(), String.class,
+			source, locale);
+		if (string == NOT_CONVERTED) {
+			return NOT_CONVERTED;
+		}
+		return parse(destinationClass, source, (String) string, locale, true);
+	}
+
+	/**
+	 * Parse the text of <code>source</code>.
+	 * 
+	 * @param tentative
+	 *            whether the parsed number should be converted to
+	 *            <code>destinationClass</code> with
+	 *            {@link TransformerUtils#tryConvert(Converter, Class, Object, Locale)}
+	 * @return the number, or {@link #NOT_CONVERTED} if the text could not be
+	 *         parsed
+	 */
+	private Object parse(Class destinationClass, Object source, String string,
+		Locale locale, boolean tentative) {
 
 //			// if a custom numberFormat has been specified, ues that for the
 //			// conversion
@@ -181,6 +229,9 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 			// remove characters that should be ignored, such as currency symbols
 			// when currency handling is set to CURRENCY_IGNORE
 			removeIgnoredCharacters(string, locale);
+		if (charactersToParse.length() == 0) {
+			return NOT_CONVERTED;
+		}
 
 		// keep track of whether the conversion result needs to be negated
 		// before it is returned
@@ -216,15 +267,18 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 		// try to do the conversion to decimal assuming the source is a
 		// percentage
 		if (getPercentageHandling() == PERCENTAGE_CONVERT_TO_DECIMAL) {
-			format = NumberFormat.getPercentInstance(locale);
+			format = (NumberFormat) percentFormats.get(locale);
+			if (format == null) {
+				format = NumberFormat.getPercentInstance(locale);
+				percentFormats.put(locale, format);
+			}
 			position = new ParsePosition(0);
 			number = format.parse(stringToParse, position);
 			if (isParseSuccessful(stringToParse, position)) {
 				// negate the number if needed
 				returnVal = negateIfNecessary(number, negate, locale);
 				// convert the number to the destination class requested
-				returnVal = getNumberConverter().convert(destinationClass, returnVal,
-					locale);
+				returnVal = convertNumber(destinationClass, returnVal, locale, tentative);
 				if (logger.isDebugEnabled()) {
 					logger.debug("Successfully parsed '" + source + "' as a percentage with value " + returnVal);
 				}
@@ -236,15 +290,18 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 		}
 
 		// try to do the conversion as a regular number
-		format = NumberFormat.getInstance(locale);
+		format = (NumberFormat) numberFormats.get(locale);
+		if (format == null) {
+			format = NumberFormat.getInstance(locale);
+			numberFormats.put(locale, format);
+		}
 		position = new ParsePosition(0);
 		number = format.parse(stringToParse, position);
 		if (isParseSuccessful(stringToParse, position)) {
 			// negate the number if needed
 			returnVal = negateIfNecessary(number, negate, locale);
 			// convert the number to the destination class requested
-			returnVal = getNumberConverter().convert(destinationClass, returnVal,
-				locale);
+			returnVal = convertNumber(destinationClass, returnVal, locale, tentative);
 			if (logger.isDebugEnabled()) {
 				logger.debug("Successfully parsed '" + source + "' as a number or currency value of " + returnVal);
 			}
@@ -270,7 +327,13 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 //				}
 //			}
 
-		throw new TransformationException(destinationClass, source);
+		return NOT_CONVERTED;
+	}
+
+	private Object convertNumber(Class destinationClass, Object number, Locale locale,
+		boolean tentative) {
+		return tentative ? TransformerUtils.tryConvert(getNumberConverter(), destinationClass,
+			number, locale) : getNumberConverter().convert(destinationClass, number, locale);
 	}
 
 	/**
@@ -301,7 +364,8 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 	 */
 	private StringBuffer removeIgnoredCharacters(String string, Locale locale) {
 		StringBuffer charactersToParse = new StringBuffer();
-		DecimalFormatSymbols symbols = new DecimalFormatSymbols(locale);
+		DecimalFormatSymbols symbols = getPercentageHandling() == PERCENTAGE_IGNORE ? new DecimalFormatSymbols(locale)
+				: null;
 	    for (int i = 0; i < string.length(); i++) {
 			char currentChar = string.charAt(i);
 			if (getWhitespaceHandling() == WHITESPACE_IGNORE
@@ -312,7 +376,8 @@ public class TextToNumberConverter extends BaseTransformer implements DecoratedC
 				&& Character.getType(currentChar) == Character.CURRENCY_SYMBOL) {
 				continue;
 			}
-			if (getPercentageHandling() == PERCENTAGE_IGNORE) {
+			// symbols are only looked up when percentages are ignored
+			if (symbols != null) {
 				if (currentChar == symbols.getPercent()) {
 					continue;
 				}
@@ -14,6 +14,7 @@
 package net.sf.morph2.transform.converters;
 
 import java.text.DateFormat;
+import java.text.ParsePosition;
 import java.util.Date;
 import java.util.Locale;
 
@@ -21,13 +22,14 @@ import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.Defaults;
 import net.sf.morph2.transform.Converter;
 import net.sf.morph2.transform.DecoratedConverter;
+import net.sf.morph2.transform.support.FormatCache;
 import net.sf.morph2.transform.transformers.BaseTransformer;
+import net.sf.morph2.util.TransformerUtils;
 
 public class TextToTimeConverter extends BaseTransformer implements DecoratedConverter {
 
-	private static final DateFormat DEFAULT_DATE_FORMAT = DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.LONG);
-
 	private DateFormat dateFormat;
+	private final FormatCache dateFormats = new FormatCache();
 	private Converter timeConverter;
 	private Converter textConverter;
 
@@ -42,10 +44,43 @@ public class TextToTimeConverter extends BaseTransformer implements DecoratedCon
 		if (ObjectUtils.isEmpty(text)) {
 			return null;
 		}
-		Date date = getDateFormat().parse(text);
+		// DateFormats are not thread-safe; parse with this thread's copy
+		Date date = getFormat().parse(text);
 		return getTimeConverter().convert(destinationClass, date, locale);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object tryConvertImpl(Class destinationClass, Object source,
+			Locale locale) throws Exception {
+
+		Object text = TransformerUtils.tryConvert(getTextConverter(), String.class, source,
+				locale);
+		if (text == NOT_CONVERTED) {
+			return NOT_CONVERTED;
+		}
+		if (ObjectUtils.isEmpty(text)) {
+			return null;
+		}
+		// fails where DateFormat.parse(String) would throw a ParseException
+		ParsePosition position = new ParsePosition(0);
+		Date date = getFormat().parse((String) text, position);
+		if (position.getIndex() == 0) {
+			return NOT_CONVERTED;
+		}
+		return TransformerUtils.tryConvert(getTimeConverter(), destinationClass, date, locale);
+	}
+
+	/**
+	 * Get this thread's copy of the DateFormat.
+	 * @return DateFormat
+	 */
+	private DateFormat getFormat() {
+		DateFormat template = getDateFormat();
+		return (DateFormat) dateFormats.get(template, template);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -68,12 +103,14 @@ public class TextToTimeConverter extends BaseTransformer implements DecoratedCon
     }
 
 	/**
-	 * Get the DateFormat used by this TextToTimeConverter.
+	 * Get the DateFormat used by this TextToTimeConverter.  The converter
+	 * parses with per-thread copies of this format, so it is never used
+	 * concurrently and must not be modified once conversions have begun.
 	 * @return DateFormat
 	 */
 	public DateFormat getDateFormat() {
 		if (dateFormat == null) {
-			setDateFormat(DEFAULT_DATE_FORMAT);
+			setDateFormat(DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.LONG));
 		}
 		return dateFormat;
 	}
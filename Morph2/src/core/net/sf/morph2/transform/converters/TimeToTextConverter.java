@@ -21,6 +21,7 @@ import net.sf.morph2.Defaults;
 import net.sf.morph2.transform.Converter;
 import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.ImpreciseTransformer;
+import net.sf.morph2.transform.support.FormatCache;
 import net.sf.morph2.transform.transformers.BaseTransformer;
 import net.sf.morph2.util.TransformerUtils;
 
@@ -37,6 +38,7 @@ public class TimeToTextConverter extends BaseTransformer implements DecoratedCon
 		ImpreciseTransformer {
 
 	private DateFormat dateFormat;
+	private final FormatCache dateFormats = new FormatCache();
 	private Converter timeConverter;
 	private Converter textConverter;
 
@@ -48,7 +50,12 @@ public class TimeToTextConverter extends BaseTransformer implements DecoratedCon
 
 		Calendar calendar = (Calendar) getTimeConverter().convert(Calendar.class, source, locale);
 
-		String string = getDateFormat(calendar).format(calendar.getTime());
+		DateFormat format = getDateFormat(calendar);
+		if (format == dateFormat) {
+			// a configured DateFormat is shared; format with this thread's copy
+			format = (DateFormat) dateFormats.get(format, format);
+		}
+		String string = format.format(calendar.getTime());
 
 		return getTextConverter().convert(destinationClass, string, locale);
 	}
@@ -90,7 +97,10 @@ public class TimeToTextConverter extends BaseTransformer implements DecoratedCon
 	}
 
 	/**
-	 * Get a DateFormat for the specified Calendar.
+	 * Get a DateFormat for the specified Calendar.  If no DateFormat has been
+	 * set and <code>calendar</code> is not <code>null</code>, the result is
+	 * the current thread's cached default format, reset to
+	 * <code>calendar</code>.
 	 * @param calendar
 	 * @return DateFormat
 	 */
@@ -98,10 +108,16 @@ public class TimeToTextConverter extends BaseTransformer implements DecoratedCon
 		if (dateFormat != null) {
 			return dateFormat;
 		}
-		DateFormat result = DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.LONG);
-		if (calendar != null) {
-			result.setCalendar(calendar);
+		if (calendar == null) {
+			return DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.LONG);
+		}
+		Locale locale = Locale.getDefault();
+		DateFormat result = (DateFormat) dateFormats.get(locale);
+		if (result == null) {
+			result = DateFormat.getDateTimeInstance(DateFormat.LONG, DateFormat.LONG);
+			dateFormats.put(locale, result);
 		}
+		result.setCalendar(calendar);
 		return result;
 	}
 
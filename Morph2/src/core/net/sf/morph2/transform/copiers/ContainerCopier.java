@@ -15,17 +15,33 @@ package net.sf.morph2.transform.copiers;
 
 import static net.sf.morph2.transform.TransformationType.*;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.reflect.GrowableContainerReflector;
 import net.sf.morph2.reflect.IndexedContainerReflector;
 import net.sf.morph2.reflect.MutableIndexedContainerReflector;
+import net.sf.morph2.reflect.Reflector;
+import net.sf.morph2.reflect.reflectors.ArrayReflector;
+import net.sf.morph2.reflect.reflectors.CollectionReflector;
+import net.sf.morph2.reflect.reflectors.ListReflector;
+import net.sf.morph2.reflect.reflectors.SetReflector;
+import net.sf.morph2.reflect.reflectors.SimpleDelegatingReflector;
+import net.sf.morph2.reflect.reflectors.SortedSetReflector;
 import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.DecoratedCopier;
 import net.sf.morph2.transform.NodeCopier;
@@ -33,7 +49,10 @@ import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.TransformationType;
 import net.sf.morph2.transform.Transformer;
 import net.sf.morph2.transform.support.ResetableIteratorWrapper;
+import net.sf.morph2.transform.support.VisitedNodeTable;
 import net.sf.morph2.transform.transformers.BaseReflectorTransformer;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.IteratorEnumeration;
 import net.sf.morph2.util.ReflectorUtils;
@@ -76,15 +95,58 @@ import net.sf.morph2.util.TypeMap;
  * </tr>
  * </table>
  * 
+ * <p>
+ * If the <em>bulkCopying</em> property is <code>true</code> (the default), the
+ * way elements are stored in the destination is determined once per copy
+ * rather than once per element, and the destination type of the elements is
+ * determined once per element class.  Immutable elements that the nested
+ * transformer would return unchanged are then stored directly, without a
+ * nested transformation: <code>Collection</code> destinations are added to
+ * directly and arrays are set directly if the stock container reflectors
+ * reflect them, and <code>ArrayList</code>s are presized.
+ * Subclasses that override {@link #put}, {@link #nestedTransform} or
+ * <code>determineDestinationContainedType</code> always copy element by
+ * element.
+ * </p>
+ * 
+ * <p>
+ * If an <em>executor</em> is set, a bulk copy of more than
+ * <em>parallelChunkSize</em> elements to a <code>Collection</code> or to an
+ * array whose elements are not yet set is split into chunks of that many
+ * elements, which are transformed on the executor's threads and then stored
+ * in the destination in order.  The nested transformer must be a
+ * {@link SimpleDelegatingTransformer}.  Each chunk records the nodes it
+ * visits separately, so that the nodes visited before the copy are seen by
+ * all chunks; if two chunks turn out to have visited the same node, so that
+ * a reference shared between elements would not be shared in the
+ * destination, the chunks not yet run are cancelled, the parallel results
+ * are discarded and the elements are copied one after the other instead.  The
+ * elements should therefore be independent of each other.  This detection
+ * has a cost whenever the nested transformer tracks visited nodes: each chunk
+ * keeps its own table of the nodes it visits, the tables are merged one
+ * chunk at a time, and the work done before a shared node is detected is
+ * done again sequentially.
+ * </p>
+ * 
  * @author Matt Sgarlata
  * @since Nov 27, 2004
  */
 public class ContainerCopier extends BaseReflectorTransformer implements DecoratedCopier,
 		DecoratedConverter, NodeCopier {
 
+	/** Default parallelChunkSize */
+	public static final int DEFAULT_PARALLEL_CHUNK_SIZE = 1000;
+
+	/** Per-element methods that, when overridden, rule out bulk copying */
+	private static final String[] ELEMENT_METHOD_NAMES = { "put", "nestedTransform",
+		"determineDestinationContainedType" };
+
 	// map of Class to Class
 	private Map containedSourceToDestinationTypeMap;
 	private boolean preferGrow = true;
+	private boolean bulkCopying = true;
+	private transient Executor executor;
+	private int parallelChunkSize = DEFAULT_PARALLEL_CHUNK_SIZE;
 
 	/**
 	 * Create a new ContainerCopier.
@@ -112,6 +174,7 @@ public class ContainerCopier extends BaseReflectorTransformer implements Decorat
 	 * @return destination element type
 	 * @deprecated in favor of fully-specified method
 	 */
+	@Deprecated
 	protected Class determineDestinationContainedType(Object destination, Class sourceValueClass) {
 		// determine the destinationType
 		Class destinationType = null;
@@ -274,6 +337,19 @@ public class ContainerCopier extends BaseReflectorTransformer implements Decorat
 		if (destination instanceof Iterator || destination instanceof Enumeration) {
 			return;
 		}
+		if (isBulkCopying() && !ClassUtils.isOverridingAny(getClass(), ContainerCopier.class,
+				ELEMENT_METHOD_NAMES)) {
+			Iterator sourceIterator = getContainerReflector().getIterator(source);
+			if (getExecutor() != null) {
+				sourceIterator = parallelCopy(destination, source, sourceIterator, locale,
+						preferredTransformationType);
+				if (sourceIterator == null) {
+					return;
+				}
+			}
+			bulkCopy(destination, source, sourceIterator, locale, preferredTransformationType);
+			return;
+		}
 		int i = 0;
 		Iterator sourceIterator = getContainerReflector().getIterator(source);
 		while (sourceIterator.hasNext()) {
@@ -290,6 +366,372 @@ public class ContainerCopier extends BaseReflectorTransformer implements Decorat
 		}
 	}
 
+	/**
+	 * Copy <code>source</code> to <code>destination</code>, deciding how
+	 * elements are stored once for the whole copy.  Elements for which no such
+	 * decision can be made up front, such as <code>null</code>s or elements
+	 * beyond the end of a destination array, are handed to {@link #put}.
+	 */
+	private void bulkCopy(Object destination, Object source, Iterator sourceIterator,
+			Locale locale, TransformationType preferredTransformationType) {
+		Class destinationClass = destination.getClass();
+		boolean grow = (isPreferGrow() || preferredTransformationType == CONVERT)
+				&& ReflectorUtils.isReflectable(getReflector(), destinationClass,
+						GrowableContainerReflector.class);
+		boolean overwrite = !grow && destinationClass.isArray()
+				&& ReflectorUtils.isReflectable(getReflector(), destinationClass,
+						MutableIndexedContainerReflector.class);
+		int length = overwrite ? Array.getLength(destination) : 0;
+		// store elements needing no transformation directly only if the
+		// reflector would do no more than that itself
+		Collection collection = grow && destination instanceof Collection
+				&& isStockReflector(GrowableContainerReflector.class, destinationClass)
+				? (Collection) destination : null;
+		boolean arraySet = overwrite
+				&& isStockReflector(MutableIndexedContainerReflector.class, destinationClass);
+		if (collection instanceof ArrayList) {
+			if (source instanceof Collection) {
+				((ArrayList) collection).ensureCapacity(collection.size()
+						+ ((Collection) source).size());
+			}
+			else if (source.getClass().isArray()) {
+				((ArrayList) collection).ensureCapacity(collection.size()
+						+ Array.getLength(source));
+			}
+		}
+
+		// element handling, determined once per element class
+		Class elementClass = null;
+		Class destinationContainedType = null;
+		boolean identity = false;
+
+		int i = 0;
+		while (sourceIterator.hasNext()) {
+			Object sourceValue = sourceIterator.next();
+			if (sourceValue == null || !grow && !(overwrite && i < length)) {
+				Class sourceValueClass = sourceValue == null ? getContainerReflector()
+						.getContainedType(source.getClass()) : sourceValue.getClass();
+				put(i++, destination, sourceValue, sourceValueClass, locale,
+						preferredTransformationType);
+				continue;
+			}
+			if (sourceValue.getClass() != elementClass) {
+				elementClass = sourceValue.getClass();
+				destinationContainedType = determineDestinationContainedType(destination,
+						sourceValue, elementClass, locale);
+				identity = isIdentityConversion(destinationContainedType, elementClass);
+			}
+			if (grow) {
+				if (identity && collection != null) {
+					collection.add(sourceValue);
+				}
+				else {
+					getGrowableContainerReflector().add(destination,
+							identity ? sourceValue : nestedTransform(destinationContainedType,
+									null, sourceValue, locale, CONVERT));
+				}
+			}
+			else if (identity && arraySet) {
+				Array.set(destination, i, sourceValue);
+			}
+			else if (identity) {
+				getMutableIndexedContainerReflector().set(destination, i, sourceValue);
+			}
+			else {
+				Object destinationValue = getMutableIndexedContainerReflector().get(destination, i);
+				getMutableIndexedContainerReflector().set(destination, i, nestedTransform(
+						destinationContainedType, destinationValue, sourceValue, locale,
+						preferredTransformationType));
+			}
+			i++;
+		}
+	}
+
+	/**
+	 * Copy <code>source</code> to <code>destination</code> in chunks run by
+	 * the executor, if the copy is large enough and of a kind that can be
+	 * split.
+	 * @return <code>null</code> if the copy was made, otherwise an Iterator
+	 *         over the source elements that remain to be copied
+	 */
+	private Iterator parallelCopy(Object destination, Object source, Iterator sourceIterator,
+			Locale locale, TransformationType preferredTransformationType) {
+		Class destinationClass = destination.getClass();
+		boolean grow = (isPreferGrow() || preferredTransformationType == CONVERT)
+				&& ReflectorUtils.isReflectable(getReflector(), destinationClass,
+						GrowableContainerReflector.class);
+		if (!(getNestedTransformer() instanceof SimpleDelegatingTransformer)
+				|| (grow ? !(destination instanceof Collection) : !(destinationClass.isArray()
+						&& ReflectorUtils.isReflectable(getReflector(), destinationClass,
+								MutableIndexedContainerReflector.class)))) {
+			return sourceIterator;
+		}
+		List sourceValues = new ArrayList();
+		while (sourceIterator.hasNext()) {
+			sourceValues.add(sourceIterator.next());
+		}
+		int size = sourceValues.size();
+		if (size <= getParallelChunkSize()
+				|| !grow && (size > Array.getLength(destination) || isHoldingValues(destination))) {
+			return sourceValues.iterator();
+		}
+
+		SimpleDelegatingTransformer nestedTransformer =
+				(SimpleDelegatingTransformer) getNestedTransformer();
+		VisitedNodeTable visitedNodeTable = nestedTransformer.isTrackingVisitedNodes()
+				? nestedTransformer.getVisitedNodeTable() : null;
+		Object[] values = sourceValues.toArray();
+		Object[] results = new Object[size];
+		Class nullValueClass = getContainerReflector().getContainedType(source.getClass());
+		TransformationType transformationType = grow ? CONVERT : preferredTransformationType;
+		AtomicBoolean abandoned = new AtomicBoolean();
+		ParallelChunk[] chunks = new ParallelChunk[(size - 1) / getParallelChunkSize() + 1];
+		FutureTask[] tasks = new FutureTask[chunks.length];
+		for (int i = 0; i < chunks.length; i++) {
+			int start = i * getParallelChunkSize();
+			chunks[i] = new ParallelChunk(nestedTransformer, visitedNodeTable, destination,
+					values, results, start, Math.min(start + getParallelChunkSize(), size),
+					grow, nullValueClass, locale, transformationType, abandoned);
+			tasks[i] = new FutureTask(chunks[i], null);
+			try {
+				getExecutor().execute(tasks[i]);
+			}
+			catch (RejectedExecutionException e) {
+				// run below on this thread
+			}
+		}
+		VisitedNodeTable chunkNodes = visitedNodeTable == null ? null : new VisitedNodeTable();
+		if (!awaitChunks(tasks, chunks, chunkNodes, abandoned, destination, source)) {
+			if (log.isDebugEnabled()) {
+				log.debug("Elements copied to " + destinationClass.getName()
+						+ " share references; copying them sequentially");
+			}
+			return sourceValues.iterator();
+		}
+		if (visitedNodeTable != null) {
+			visitedNodeTable.putAll(chunkNodes);
+		}
+		if (grow && isStockReflector(GrowableContainerReflector.class, destinationClass)) {
+			Collection collection = (Collection) destination;
+			if (collection instanceof ArrayList) {
+				((ArrayList) collection).ensureCapacity(collection.size() + size);
+			}
+			collection.addAll(Arrays.asList(results));
+		}
+		else if (grow) {
+			for (int i = 0; i < size; i++) {
+				getGrowableContainerReflector().add(destination, results[i]);
+			}
+		}
+		else {
+			for (int i = 0; i < size; i++) {
+				getMutableIndexedContainerReflector().set(destination, i, results[i]);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Wait for each chunk, running any chunk that the executor has not yet
+	 * started on this thread, so that nested parallel copies cannot exhaust
+	 * the executor's threads.  The nodes visited by each chunk are merged into
+	 * <code>chunkNodes</code>, if specified, as soon as the chunk is done; if
+	 * two chunks visited the same node, the remaining chunks are abandoned.
+	 * Whether or not the chunks complete, none is running once this method
+	 * returns.
+	 * @return <code>false</code> if the chunks were abandoned
+	 */
+	private boolean awaitChunks(FutureTask[] tasks, ParallelChunk[] chunks,
+			VisitedNodeTable chunkNodes, AtomicBoolean abandoned, Object destination,
+			Object source) {
+		boolean done = false;
+		try {
+			for (int i = 0; i < tasks.length; i++) {
+				tasks[i].run();
+				tasks[i].get();
+				if (chunkNodes != null && !chunkNodes.putAll(chunks[i].visitedNodeTable)) {
+					return false;
+				}
+			}
+			done = true;
+			return true;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransformationException(destination, source, e);
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new TransformationException(destination, source, cause);
+		}
+		finally {
+			if (!done) {
+				abandoned.set(true);
+				awaitAbandonedChunks(tasks);
+			}
+		}
+	}
+
+	/**
+	 * Wait for abandoned chunks to stop.  Chunks that are running still read
+	 * the caller's visited nodes, which must not change until they are done.
+	 * Chunks that have not started are run on this thread, where they stop at
+	 * once.
+	 */
+	private static void awaitAbandonedChunks(FutureTask[] tasks) {
+		boolean interrupted = false;
+		for (int i = 0; i < tasks.length; i++) {
+			tasks[i].run();
+			while (true) {
+				try {
+					tasks[i].get();
+					break;
+				}
+				catch (InterruptedException e) {
+					interrupted = true;
+				}
+				catch (ExecutionException e) {
+					// the copy has already failed or is being made sequentially
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Learn whether any element of an array is set.  Chunks transform their
+	 * elements without knowing whether others will be copied sequentially
+	 * after all, so existing destination elements are not copied to.
+	 */
+	private static boolean isHoldingValues(Object array) {
+		if (array.getClass().getComponentType().isPrimitive()) {
+			return false;
+		}
+		Object[] objects = (Object[]) array;
+		for (int i = 0; i < objects.length; i++) {
+			if (objects[i] != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A range of the elements of a parallel copy.
+	 */
+	private class ParallelChunk implements Runnable {
+		private final SimpleDelegatingTransformer nestedTransformer;
+		private final VisitedNodeTable visitedNodeTable;
+		private final Object destination;
+		private final Object[] values;
+		private final Object[] results;
+		private final int start;
+		private final int end;
+		private final boolean grow;
+		private final Class nullValueClass;
+		private final Locale locale;
+		private final TransformationType transformationType;
+		private final AtomicBoolean abandoned;
+
+		ParallelChunk(SimpleDelegatingTransformer nestedTransformer,
+				VisitedNodeTable parentVisitedNodeTable, Object destination, Object[] values,
+				Object[] results, int start, int end, boolean grow, Class nullValueClass,
+				Locale locale, TransformationType transformationType, AtomicBoolean abandoned) {
+			this.nestedTransformer = nestedTransformer;
+			this.visitedNodeTable = parentVisitedNodeTable == null ? null
+					: new VisitedNodeTable(parentVisitedNodeTable);
+			this.destination = destination;
+			this.values = values;
+			this.results = results;
+			this.start = start;
+			this.end = end;
+			this.grow = grow;
+			this.nullValueClass = nullValueClass;
+			this.locale = locale;
+			this.transformationType = transformationType;
+			this.abandoned = abandoned;
+		}
+
+		public void run() {
+			if (visitedNodeTable == null) {
+				transform();
+			}
+			else {
+				nestedTransformer.runWithVisitedNodeTable(new Runnable() {
+					public void run() {
+						transform();
+					}
+				}, visitedNodeTable);
+			}
+		}
+
+		private void transform() {
+			Class elementClass = null;
+			Class destinationContainedType = null;
+			boolean identity = false;
+			for (int i = start; i < end && !abandoned.get(); i++) {
+				Object sourceValue = values[i];
+				Object destinationValue = grow ? null : getMutableIndexedContainerReflector().get(
+						destination, i);
+				if (sourceValue == null) {
+					results[i] = nestedTransform(determineDestinationContainedType(destination,
+							null, nullValueClass, locale), destinationValue, null, locale,
+							transformationType);
+					continue;
+				}
+				if (sourceValue.getClass() != elementClass) {
+					elementClass = sourceValue.getClass();
+					destinationContainedType = determineDestinationContainedType(destination,
+							sourceValue, elementClass, locale);
+					identity = isIdentityConversion(destinationContainedType, elementClass);
+				}
+				results[i] = identity ? sourceValue : nestedTransform(destinationContainedType,
+						destinationValue, sourceValue, locale, transformationType);
+			}
+		}
+	}
+
+	/**
+	 * Learn whether <code>destinationClass</code> is reflected as a
+	 * <code>reflectorType</code> by one of the stock container reflectors,
+	 * which store elements by simply calling <code>Collection.add</code> or
+	 * <code>Array.set</code>.
+	 */
+	private boolean isStockReflector(Class reflectorType, Class destinationClass) {
+		Reflector reflector = getReflector();
+		if (reflector instanceof SimpleDelegatingReflector) {
+			reflector = ((SimpleDelegatingReflector) reflector).getReflectorForClass(
+					reflectorType, destinationClass);
+		}
+		Class reflectorClass = reflector == null ? null : reflector.getClass();
+		return reflectorClass == CollectionReflector.class
+				|| reflectorClass == SetReflector.class
+				|| reflectorClass == SortedSetReflector.class
+				|| reflectorClass == ListReflector.class
+				|| reflectorClass == ArrayReflector.class;
+	}
+
+	/**
+	 * Learn whether the nested transformer returns immutable instances of
+	 * <code>sourceClass</code> unchanged when asked for a
+	 * <code>destinationClass</code>.
+	 */
+	private boolean isIdentityConversion(Class destinationClass, Class sourceClass) {
+		Transformer nestedTransformer = getNestedTransformer();
+		return nestedTransformer instanceof SimpleDelegatingTransformer
+				&& ((SimpleDelegatingTransformer) nestedTransformer).isIdentityConversion(
+						destinationClass, sourceClass);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -385,4 +827,69 @@ public class ContainerCopier extends BaseReflectorTransformer implements Decorat
 	public void setPreferGrow(boolean preferGrow) {
 		this.preferGrow = preferGrow;
 	}
+
+	/**
+	 * Learn whether this ContainerCopier decides how to store elements once
+	 * per copy rather than once per element.
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isBulkCopying() {
+		return bulkCopying;
+	}
+
+	/**
+	 * Set whether this ContainerCopier decides how to store elements once per
+	 * copy rather than once per element.  Elements are stored without the
+	 * reflector only where it is one of the stock container reflectors;
+	 * default <code>true</code>.
+	 * @param bulkCopying
+	 * @since Morph 2.0
+	 */
+	public void setBulkCopying(boolean bulkCopying) {
+		this.bulkCopying = bulkCopying;
+	}
+
+	/**
+	 * Get the Executor on which large bulk copies are split.
+	 * @return Executor, or <code>null</code> if copies are not split
+	 * @since Morph 2.0
+	 */
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Set the Executor on which large bulk copies are split, such as a
+	 * thread pool sized to the number of processors.  Default
+	 * <code>null</code>, so that every copy runs on the calling thread.
+	 * @param executor
+	 * @since Morph 2.0
+	 */
+	public void setExecutor(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Get the number of elements in each chunk of a parallel copy.
+	 * @return int
+	 * @since Morph 2.0
+	 */
+	public int getParallelChunkSize() {
+		return parallelChunkSize;
+	}
+
+	/**
+	 * Set the number of elements in each chunk of a parallel copy; copies of
+	 * no more elements than this are not split.  Default
+	 * {@link #DEFAULT_PARALLEL_CHUNK_SIZE}.
+	 * @param parallelChunkSize
+	 * @since Morph 2.0
+	 */
+	public void setParallelChunkSize(int parallelChunkSize) {
+		if (parallelChunkSize < 1) {
+			throw new IllegalArgumentException("parallelChunkSize must be positive");
+		}
+		this.parallelChunkSize = parallelChunkSize;
+	}
 }
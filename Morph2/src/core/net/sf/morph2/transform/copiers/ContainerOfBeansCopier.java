@@ -29,6 +29,7 @@ import net.sf.morph2.util.ReflectorUtils;
  * @since Dec 20, 2004
  * @deprecated it's not clear what the intent of this copier was
  */
+@Deprecated
 public class ContainerOfBeansCopier extends ContainerCopier {
 
 //	private Transformer beanTransformer;
@@ -31,6 +31,7 @@ import net.sf.morph2.util.TransformerUtils;
  * @since Apr 18, 2005
  * @deprecated since v1.1 in favor of {@link DisassemblerCopier}
  */
+@Deprecated
 public class MultipleDestinationConverter extends BaseCompositeTransformer implements
 		DecoratedConverter {
 
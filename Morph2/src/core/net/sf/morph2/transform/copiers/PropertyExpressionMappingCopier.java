@@ -15,7 +15,9 @@ package net.sf.morph2.transform.copiers;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
 
@@ -69,8 +71,23 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 
 	private static final Class[] SOURCE_AND_DEST_CLASSES = new Class[] { Object.class };
 
+	/**
+	 * Source properties and the destination properties they are copied to,
+	 * replaced as a whole so copies can read them without locking.
+	 */
+	private static class CompiledMapping {
+		final String[] sourceProperties;
+		final String[] destinationProperties;
+
+		CompiledMapping(String[] sourceProperties, String[] destinationProperties) {
+			this.sourceProperties = sourceProperties;
+			this.destinationProperties = destinationProperties;
+		}
+	}
+
 	private Map mapping;
 	private Language language;
+	private volatile CompiledMapping compiledMapping;
 
 	/**
 	 * Create a new PropertyExpressionMappingCopier.
@@ -126,6 +143,25 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 		}
 		ensureOnlyStrings(mapping.keySet());
 		ensureOnlyStrings(expand(mapping.values()));
+		compileMapping();
+	}
+
+	/**
+	 * Flatten the mapping into parallel arrays of source and destination
+	 * properties so that copying need not iterate over the mapping's values.
+	 */
+	private void compileMapping() {
+		ArrayList sources = new ArrayList();
+		ArrayList destinations = new ArrayList();
+		for (Iterator it = mapping.entrySet().iterator(); it.hasNext();) {
+			Map.Entry e = (Map.Entry) it.next();
+			for (Iterator v = DEST_REFLECTOR.getIterator(e.getValue()); v.hasNext();) {
+				sources.add(e.getKey());
+				destinations.add(v.next());
+			}
+		}
+		compiledMapping = new CompiledMapping((String[]) sources.toArray(new String[sources
+				.size()]), (String[]) destinations.toArray(new String[destinations.size()]));
 	}
 
 	/**
@@ -165,14 +201,12 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 	 */
 	protected void copyImpl(Object destination, Object source, Locale locale,
 			TransformationType preferredTransformationType) throws Exception {
-		for (Iterator it = getMapping().entrySet().iterator(); it.hasNext();) {
-			Map.Entry e = (Map.Entry) it.next();
-			String sourceProperty = (String) e.getKey();
-			for (Iterator v = DEST_REFLECTOR.getIterator(e.getValue()); v.hasNext();) {
-				String destinationProperty = (String) v.next();
-				copyProperty(sourceProperty, source, destinationProperty, destination, locale,
-						preferredTransformationType);
-			}
+		CompiledMapping compiledMapping = this.compiledMapping;
+		String[] sourceProperties = compiledMapping.sourceProperties;
+		String[] destinationProperties = compiledMapping.destinationProperties;
+		for (int i = 0; i < sourceProperties.length; i++) {
+			copyProperty(sourceProperties[i], source, destinationProperties[i], destination,
+					locale, preferredTransformationType);
 		}
 	}
 
@@ -196,12 +230,13 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 							+ ObjectUtils.getObjectDescription(destination));
 		}
 
+		Language language = getLanguage();
 		// determine the destination type
-		Class destinationType = getLanguage().getType(destination, destinationProperty);
+		Class destinationType = language.getType(destination, destinationProperty);
 		// determine the value of the source property
-		Object sourceValue = getLanguage().get(source, sourceProperty);
+		Object sourceValue = language.get(source, sourceProperty);
 		// determine the current value of the destination property, if any
-		Object destinationValue = getLanguage().get(destination, destinationProperty);
+		Object destinationValue = language.get(destination, destinationProperty);
 
 		// choose a transformer to use
 		Transformer transformer = getNestedTransformer();
@@ -209,7 +244,7 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 		/* ordinarily we should probably assume that if we're using the expression mapping copier
 		 * we have a settable destination property, so we'll only check for simple properties:
 		 */
-		if (getLanguage().isProperty(destinationProperty)
+		if (language.isProperty(destinationProperty)
 				&& !((BeanReflector) getReflector(BeanReflector.class)).isWriteable(destination,
 						destinationProperty)) {
 			preferredTransformationType = TransformationType.COPY;
@@ -219,7 +254,7 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 				destinationType, destinationValue, sourceValue, locale,
 				preferredTransformationType);
 		// set the transformed value on the destination
-		getLanguage().set(destination, destinationProperty, newDestinationValue);
+		language.set(destination, destinationProperty, newDestinationValue);
 
 		if (getLog().isTraceEnabled()) {
 			getLog().trace(
@@ -246,19 +281,23 @@ public class PropertyExpressionMappingCopier extends BaseTransformer implements
 	}
 
 	/**
-	 * Get the mapping of this PropertyExpressionMappingCopier.
+	 * Get the mapping of this PropertyExpressionMappingCopier.  The mapping
+	 * cannot be modified; call {@link #setMapping(Map)} to change it.
 	 * @return the mapping
 	 */
 	public synchronized Map getMapping() {
-		return mapping;
+		return mapping == null ? null : Collections.unmodifiableMap(mapping);
 	}
 
 	/**
-	 * Set the mapping of this PropertyExpressionMappingCopier.
+	 * Set the mapping of this PropertyExpressionMappingCopier.  The mapping
+	 * is copied, keeping its iteration order, so later changes to
+	 * <code>mapping</code> or to the containers among its values do not
+	 * affect this copier once it has been initialized.
 	 * @param mapping the mapping to set
 	 */
 	public synchronized void setMapping(Map mapping) {
-		this.mapping = mapping;
+		this.mapping = mapping == null ? null : new LinkedHashMap(mapping);
 		setInitialized(false);
 	}
 
@@ -13,19 +13,35 @@
  */
 package net.sf.morph2.transform.copiers;
 
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.composite.util.ObjectUtils;
+import net.sf.morph2.reflect.BeanReflector;
 import net.sf.morph2.reflect.ReflectionException;
+import net.sf.morph2.reflect.Reflector;
+import net.sf.morph2.reflect.reflectors.BaseReflector;
+import net.sf.morph2.reflect.reflectors.ObjectReflector;
+import net.sf.morph2.reflect.reflectors.SimpleDelegatingReflector;
+import net.sf.morph2.reflect.support.MethodHolder;
+import net.sf.morph2.reflect.support.ReflectionInfo;
 import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.TransformationType;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.support.DirectPropertyCopier;
+import net.sf.morph2.transform.support.DirectPropertyCopierGenerator;
+import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.StringUtils;
+import net.sf.morph2.util.TransformerUtils;
 
 /**
  * <p>Copies the properties specified by the <code>propertiesToCopy</code>
@@ -40,14 +56,72 @@ import net.sf.morph2.util.StringUtils;
  * set the <em>errorOnMissingProperty</em> property of this class to
  * <code>true</code>.
  *
+ * <p>If the <em>compilingPlans</em> property is set to <code>true</code>, the
+ * first copy between a given pair of strictly typed source and destination
+ * classes records which properties will be copied, their destination types and
+ * the transformers used to copy them.  Subsequent copies between the same pair
+ * of classes replay that plan rather than consulting the reflector and
+ * choosing a transformer for every property.  Values of immutable types that
+ * already match the type of the destination property are assigned directly.
+ * Because a plan is computed from the first copy, it bypasses any subclass
+ * overrides of {@link #copyProperty(String, Object, String, Object, Locale, TransformationType)}
+ * and of {@link #chooseTransformer(String, Object, String, Object, Locale, TransformationType)}
+ * that depend on the objects being copied.</p>
+ *
+ * <p>If the <em>generatingCopiers</em> property is also set to
+ * <code>true</code>, each plan between public classes reflected by an
+ * {@link ObjectReflector} is backed by a class generated at runtime that
+ * calls the getters and setters of the plan's directly assignable
+ * properties, including exact primitive widenings such as <code>int</code>
+ * to <code>long</code>, without reflection.  These properties are copied
+ * before the remaining properties, which are still converted by the nested
+ * transformer.  Class pairs that are not eligible are copied as usual.</p>
+ *
  * @author Matt Sgarlata
  * @author Alexander Volanis
  * @since Oct 31, 2004
  */
 public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 
+	/**
+	 * A precomputed sequence of property copies for a given pair of source and
+	 * destination classes.
+	 */
+	private static final class CopyPlan {
+		final String[] properties;
+		final Class[] destinationTypes;
+		final boolean[] destinationReadable;
+		final boolean[] assignDirectly;
+		final Transformer[] transformers;
+		final String skippedPropertiesMessage;
+		final DirectPropertyCopier directCopier;
+		final boolean[] copiedDirectly;
+
+		CopyPlan(String[] properties, Class[] destinationTypes, boolean[] destinationReadable,
+				boolean[] assignDirectly, Transformer[] transformers,
+				String skippedPropertiesMessage, DirectPropertyCopier directCopier,
+				boolean[] copiedDirectly) {
+			this.properties = properties;
+			this.destinationTypes = destinationTypes;
+			this.destinationReadable = destinationReadable;
+			this.assignDirectly = assignDirectly;
+			this.transformers = transformers;
+			this.skippedPropertiesMessage = skippedPropertiesMessage;
+			this.directCopier = directCopier;
+			this.copiedDirectly = copiedDirectly;
+		}
+	}
+
+	/** Marks class pairs for which no plan can be compiled. */
+	private static final CopyPlan NOT_COMPILABLE = new CopyPlan(null, null, null, null, null,
+			null, null, null);
+
 	private Set propertiesToCopy = ContainerUtils.createOrderedSet();
 	private Set propertiesToIgnore = ContainerUtils.createOrderedSet();
+	private boolean compilingPlans;
+	private boolean generatingCopiers;
+
+	private transient Map copyPlans = new ConcurrentHashMap();
 
 	/**
 	 * Create a new PropertyNameMatchingCopier.
@@ -70,6 +144,13 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 	 */
 	public void copyImpl(Object destination, Object source, Locale locale,
 			TransformationType preferredTransformationType) throws Exception {
+		if (isCompilingPlans() || isGeneratingCopiers()) {
+			CopyPlan plan = getCopyPlan(destination, source, locale);
+			if (plan != NOT_COMPILABLE) {
+				executeCopyPlan(plan, destination, source, locale, preferredTransformationType);
+				return;
+			}
+		}
 		String[] properties = evaluateIncludedProperties(source);
 		if (log.isInfoEnabled()) {
 			if (ObjectUtils.isEmpty(properties)) {
@@ -118,14 +199,8 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 			skippedProperties.addAll(unreadableProperties);
 			skippedProperties.addAll(unwriteableProperties);
 
-			String message = "The following properties were not copied "
-					+ "because they were not readable on the source object, not "
-					+ "writeable on the destination object or both: "
-					+ StringUtils.englishJoin(skippedProperties)
-					+ ".  The properties that were not readable are: "
-					+ StringUtils.englishJoin(unreadableProperties)
-					+ ".  The properties that were not writeable are: "
-					+ StringUtils.englishJoin(unwriteableProperties);
+			String message = createSkippedPropertiesMessage(skippedProperties,
+					unreadableProperties, unwriteableProperties);
 			if (isErrorOnMissingProperty()) {
 				throw new TransformationException(message);
 			}
@@ -137,6 +212,304 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 		}
 	}
 
+	private String createSkippedPropertiesMessage(List skippedProperties,
+			List unreadableProperties, List unwriteableProperties) {
+		return "The following properties were not copied "
+				+ "because they were not readable on the source object, not "
+				+ "writeable on the destination object or both: "
+				+ StringUtils.englishJoin(skippedProperties)
+				+ ".  The properties that were not readable are: "
+				+ StringUtils.englishJoin(unreadableProperties)
+				+ ".  The properties that were not writeable are: "
+				+ StringUtils.englishJoin(unwriteableProperties);
+	}
+
+	/**
+	 * Get the copy plan for the classes of <code>destination</code> and
+	 * <code>source</code>, compiling it if this is the first copy between
+	 * those classes.
+	 * @param destination
+	 * @param source
+	 * @param locale
+	 * @return CopyPlan
+	 */
+	private CopyPlan getCopyPlan(Object destination, Object source, Locale locale) {
+		Class sourceClass = source.getClass();
+		Class destinationClass = destination.getClass();
+		Map plansBySourceClass = (Map) copyPlans.get(destinationClass);
+		CopyPlan plan = plansBySourceClass == null ? null : (CopyPlan) plansBySourceClass
+				.get(sourceClass);
+		if (plan == null) {
+			plan = isPlanCompilable(destinationClass, sourceClass) ? compileCopyPlan(
+					destination, source, locale) : NOT_COMPILABLE;
+			// look again: lazily creating the default reflector clears the plans
+			plansBySourceClass = (Map) copyPlans.get(destinationClass);
+			if (plansBySourceClass == null) {
+				plansBySourceClass = new ConcurrentHashMap();
+				copyPlans.put(destinationClass, plansBySourceClass);
+			}
+			plansBySourceClass.put(sourceClass, plan);
+		}
+		return plan;
+	}
+
+	/**
+	 * Get the generated copier of the plan compiled for the given classes.
+	 * @param destinationClass
+	 * @param sourceClass
+	 * @return DirectPropertyCopier, or <code>null</code> if no plan with a
+	 *         generated copier has been compiled
+	 */
+	DirectPropertyCopier getDirectPropertyCopier(Class destinationClass, Class sourceClass) {
+		Map plansBySourceClass = (Map) copyPlans.get(destinationClass);
+		CopyPlan plan = plansBySourceClass == null ? null : (CopyPlan) plansBySourceClass
+				.get(sourceClass);
+		return plan == null ? null : plan.directCopier;
+	}
+
+	/**
+	 * Learn whether a copy plan may be compiled for the given classes.  By
+	 * default this is the case when both classes are reflected by strictly
+	 * typed bean reflectors, since only then are the properties that will be
+	 * copied known from the classes alone.
+	 * @param destinationClass
+	 * @param sourceClass
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	protected boolean isPlanCompilable(Class destinationClass, Class sourceClass) {
+		// ResultSets are strictly typed, but their columns vary by instance
+		return isStrictlyTyped(sourceClass) && isStrictlyTyped(destinationClass)
+				&& !ResultSet.class.isAssignableFrom(sourceClass)
+				&& !ResultSet.class.isAssignableFrom(destinationClass);
+	}
+
+	private boolean isStrictlyTyped(Class reflectedType) {
+		Reflector beanReflector = getBeanReflector();
+		if (beanReflector instanceof SimpleDelegatingReflector) {
+			return ((SimpleDelegatingReflector) beanReflector).isStrictlyTyped(reflectedType);
+		}
+		return beanReflector instanceof BaseReflector
+				&& ((BaseReflector) beanReflector).isStrictlyTyped();
+	}
+
+	private CopyPlan compileCopyPlan(Object destination, Object source, Locale locale) {
+		BeanReflector beanReflector = getBeanReflector();
+		String[] included = evaluateIncludedProperties(source);
+		List properties = new ArrayList(included.length);
+		List unreadableProperties = new ArrayList();
+		List unwriteableProperties = new ArrayList();
+		for (int i = 0; i < included.length; i++) {
+			boolean sourceReadable = beanReflector.isReadable(source, included[i]);
+			boolean destinationWriteable = beanReflector.isWriteable(destination, included[i]);
+			if (sourceReadable && destinationWriteable) {
+				properties.add(included[i]);
+			}
+			else {
+				if (!sourceReadable) {
+					unreadableProperties.add(included[i]);
+				}
+				if (!destinationWriteable) {
+					unwriteableProperties.add(included[i]);
+				}
+			}
+		}
+		int size = properties.size();
+		String[] planProperties = (String[]) properties.toArray(new String[size]);
+		Class[] destinationTypes = new Class[size];
+		boolean[] destinationReadable = new boolean[size];
+		boolean[] assignDirectly = new boolean[size];
+		Transformer[] transformers = new Transformer[size];
+		for (int i = 0; i < size; i++) {
+			String property = planProperties[i];
+			destinationTypes[i] = beanReflector.getType(destination, property);
+			destinationReadable[i] = beanReflector.isReadable(destination, property);
+			Map m = getPropertyTransformers();
+			assignDirectly[i] = (m == null || !m.containsKey(property))
+					&& ClassUtils.isImmutable(destinationTypes[i])
+					&& beanReflector.getType(source, property) == destinationTypes[i];
+			transformers[i] = chooseTransformer(property, source, property, destination, locale,
+					null);
+		}
+		boolean[] copiedDirectly = new boolean[size];
+		DirectPropertyCopier directCopier = isGeneratingCopiers() ? generateDirectPropertyCopier(
+				destination.getClass(), source.getClass(), planProperties, assignDirectly,
+				copiedDirectly) : null;
+		String message = null;
+		if (!unreadableProperties.isEmpty() || !unwriteableProperties.isEmpty()) {
+			List skippedProperties = new ArrayList(unreadableProperties);
+			skippedProperties.addAll(unwriteableProperties);
+			message = createSkippedPropertiesMessage(skippedProperties, unreadableProperties,
+					unwriteableProperties);
+		}
+		if (getLog().isInfoEnabled()) {
+			getLog().info("Compiled copy plan from " + source.getClass().getName() + " to "
+					+ destination.getClass().getName() + " for properties "
+					+ StringUtils.englishJoin(planProperties));
+		}
+		return new CopyPlan(planProperties, destinationTypes, destinationReadable,
+				assignDirectly, transformers, message, directCopier, copiedDirectly);
+	}
+
+	/**
+	 * Generate a DirectPropertyCopier for those of <code>properties</code>
+	 * that can be copied by calling their getter and setter directly, marking
+	 * them in <code>copiedDirectly</code>.
+	 * @return DirectPropertyCopier, or <code>null</code> if none is possible
+	 */
+	private DirectPropertyCopier generateDirectPropertyCopier(Class destinationClass,
+			Class sourceClass, String[] properties, boolean[] assignDirectly,
+			boolean[] copiedDirectly) {
+		if (!isReflectedByObjectReflector(destinationClass)
+				|| !isReflectedByObjectReflector(sourceClass)
+				|| !DirectPropertyCopierGenerator.isAccessible(destinationClass)
+				|| !DirectPropertyCopierGenerator.isAccessible(sourceClass)) {
+			return null;
+		}
+		ReflectionInfo destinationInfo = new ReflectionInfo(destinationClass);
+		ReflectionInfo sourceInfo = new ReflectionInfo(sourceClass);
+		Map propertyTransformers = getPropertyTransformers();
+		List accessors = new ArrayList();
+		List mutators = new ArrayList();
+		for (int i = 0; i < properties.length; i++) {
+			if (propertyTransformers != null && propertyTransformers.containsKey(properties[i])) {
+				continue;
+			}
+			MethodHolder sourceMethods = sourceInfo.getMethodHolder(properties[i]);
+			MethodHolder destinationMethods = destinationInfo.getMethodHolder(properties[i]);
+			Method accessor = sourceMethods == null ? null : sourceMethods.getAccessor();
+			Method mutator = destinationMethods == null ? null : destinationMethods.getMutator();
+			if (!DirectPropertyCopierGenerator.isAccessible(accessor)
+					|| !DirectPropertyCopierGenerator.isAccessible(mutator)) {
+				continue;
+			}
+			Class sourceType = accessor.getReturnType();
+			Class destinationType = mutator.getParameterTypes()[0];
+			if (assignDirectly[i] && sourceType == destinationType
+					|| sourceType.isPrimitive() && destinationType.isPrimitive()
+					&& DirectPropertyCopierGenerator.isDirectlyAssignable(destinationType,
+							sourceType)) {
+				accessors.add(accessor);
+				mutators.add(mutator);
+				copiedDirectly[i] = true;
+			}
+		}
+		if (accessors.isEmpty()) {
+			return null;
+		}
+		try {
+			return DirectPropertyCopierGenerator.generate(destinationClass, sourceClass,
+					(Method[]) accessors.toArray(new Method[accessors.size()]),
+					(Method[]) mutators.toArray(new Method[mutators.size()]));
+		}
+		catch (TransformationException e) {
+			if (getLog().isDebugEnabled()) {
+				getLog().debug("Copying reflectively from " + sourceClass.getName() + " to "
+						+ destinationClass.getName(), e);
+			}
+			Arrays.fill(copiedDirectly, false);
+			return null;
+		}
+	}
+
+	private boolean isReflectedByObjectReflector(Class reflectedType) {
+		BeanReflector beanReflector = getBeanReflector();
+		if (beanReflector instanceof SimpleDelegatingReflector) {
+			beanReflector = ((SimpleDelegatingReflector) beanReflector)
+					.getBeanReflectorForClass(reflectedType);
+		}
+		return beanReflector != null && beanReflector.getClass() == ObjectReflector.class;
+	}
+
+	private void executeCopyPlan(CopyPlan plan, Object destination, Object source,
+			Locale locale, TransformationType preferredTransformationType) {
+		if (plan.skippedPropertiesMessage != null) {
+			if (isErrorOnMissingProperty()) {
+				throw new TransformationException(plan.skippedPropertiesMessage);
+			}
+			if (getLog().isTraceEnabled()) {
+				getLog().trace(plan.skippedPropertiesMessage);
+			}
+		}
+		if (plan.directCopier != null) {
+			plan.directCopier.copy(destination, source);
+		}
+		BeanReflector beanReflector = getBeanReflector();
+		for (int i = 0; i < plan.properties.length; i++) {
+			if (plan.copiedDirectly[i]) {
+				continue;
+			}
+			String property = plan.properties[i];
+			Object sourceValue = beanReflector.get(source, property);
+			if (plan.assignDirectly[i]) {
+				beanReflector.set(destination, property, sourceValue);
+				continue;
+			}
+			Object destinationValue = plan.destinationReadable[i] ? beanReflector.get(
+					destination, property) : null;
+			TransformationType transformationType = getPreferredTransformationType(source,
+					property, sourceValue, destination, property, destinationValue, locale,
+					preferredTransformationType);
+			Object newDestinationValue = TransformerUtils.transform(plan.transformers[i],
+					plan.destinationTypes[i], destinationValue, sourceValue, locale,
+					transformationType);
+			beanReflector.set(destination, property, newDestinationValue);
+		}
+	}
+
+	/**
+	 * Discard any compiled copy plans.  Called whenever configuration that
+	 * affects the plans changes.
+	 * @since Morph 2.0
+	 */
+	protected void clearCopyPlans() {
+		copyPlans.clear();
+	}
+
+	/**
+	 * Learn whether this copier compiles and caches a copy plan for each pair
+	 * of source and destination classes.
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isCompilingPlans() {
+		return compilingPlans;
+	}
+
+	/**
+	 * Set whether this copier compiles and caches a copy plan for each pair of
+	 * source and destination classes.  Defaults to <code>false</code>.
+	 * @param compilingPlans
+	 * @since Morph 2.0
+	 */
+	public void setCompilingPlans(boolean compilingPlans) {
+		this.compilingPlans = compilingPlans;
+		clearCopyPlans();
+	}
+
+	/**
+	 * Learn whether this copier generates a class to copy the directly
+	 * assignable properties of each compiled copy plan.
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isGeneratingCopiers() {
+		return generatingCopiers;
+	}
+
+	/**
+	 * Set whether this copier generates a class to copy the directly
+	 * assignable properties of each compiled copy plan.  Setting this to
+	 * <code>true</code> implies compiling plans.  Defaults to
+	 * <code>false</code>.
+	 * @param generatingCopiers
+	 * @since Morph 2.0
+	 */
+	public void setGeneratingCopiers(boolean generatingCopiers) {
+		this.generatingCopiers = generatingCopiers;
+		clearCopyPlans();
+	}
+
 	/**
 	 * Get the properties to copy.
 	 * @return String[]
@@ -152,6 +525,7 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 	public synchronized void setPropertiesToCopy(String[] propertiesToCopy) {
 		this.propertiesToCopy.clear();
 		this.propertiesToCopy.addAll(Arrays.asList(propertiesToCopy));
+		clearCopyPlans();
 	}
 
 	/**
@@ -160,6 +534,7 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 	 */
 	public synchronized void addPropertyToCopy(String propertyName) {
 		propertiesToCopy.add(propertyName);
+		clearCopyPlans();
 	}
 
 	/**
@@ -178,6 +553,7 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 	public synchronized void setPropertiesToIgnore(String[] propertiesToIgnore) {
 		this.propertiesToIgnore.clear();
 		this.propertiesToIgnore.addAll(Arrays.asList(propertiesToIgnore));
+		clearCopyPlans();
 	}
 
 	/**
@@ -186,6 +562,40 @@ public class PropertyNameMatchingCopier extends BasePropertyNameCopier {
 	 */
 	public synchronized void addPropertyToIgnore(String propertyName) {
 		propertiesToIgnore.add(propertyName);
+		clearCopyPlans();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void setPropertyTransformers(Map propertyTransformers) {
+		super.setPropertyTransformers(propertyTransformers);
+		clearCopyPlans();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void setNestedTransformer(Transformer transformer) {
+		super.setNestedTransformer(transformer);
+		clearCopyPlans();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public synchronized void setReflector(Reflector reflector) {
+		super.setReflector(reflector);
+		clearCopyPlans();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected Object clone() throws CloneNotSupportedException {
+		PropertyNameMatchingCopier result = (PropertyNameMatchingCopier) super.clone();
+		result.copyPlans = new ConcurrentHashMap();
+		return result;
 	}
 
 	/**
@@ -13,6 +13,7 @@
  */
 package net.sf.morph2.transform.copiers;
 
+import java.lang.reflect.Array;
 import java.util.Enumeration;
 import java.util.Locale;
 
@@ -22,8 +23,15 @@ import net.sf.morph2.transform.Copier;
 import net.sf.morph2.transform.DecoratedConverter;
 import net.sf.morph2.transform.DecoratedCopier;
 import net.sf.morph2.transform.TransformationType;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.converters.TextToNumberConverter;
 import net.sf.morph2.transform.transformers.BaseTransformer;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+import net.sf.morph2.util.CharSequenceTokenizer;
+import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.MorphStringTokenizer;
+import net.sf.morph2.util.NumberUtils;
+import net.sf.morph2.util.TransformerUtils;
 
 /**
  * Parses text into multiple parts for storage in a container. For example, the
@@ -49,6 +57,10 @@ import net.sf.morph2.util.MorphStringTokenizer;
  * different elements to be copied to the container. The default characters are
  * specified by {@link #DEFAULT_DELIMITERS}.
  * </ul>
+ * Text is tokenized in a single pass by a {@link CharSequenceTokenizer}.  When
+ * converting to an array of primitive numbers, tokens made up only of digits
+ * are parsed in place rather than being passed to the container copier as
+ * Strings.
  * 
  * @author Matt Sgarlata
  * @since Apr 9, 2007
@@ -60,8 +72,27 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
 	/** Default ignored characters */
 	public static final String DEFAULT_IGNORED_CHARACTERS  = "()[]{}";
 
-	private String delimiters = DEFAULT_DELIMITERS;
-	private String ignoredCharacters = DEFAULT_IGNORED_CHARACTERS;
+	/** method whose overriding disables the single-pass tokenizer */
+	private static final String[] REMOVE_IGNORED_CHARACTERS_METHOD_NAMES = {
+		"removeIgnoredCharacters" };
+
+	/**
+	 * Characters together with their lookup table, replaced as a whole so a
+	 * concurrent copy never sees the table of other characters.
+	 */
+	private static final class CharacterSet {
+		final String characters;
+		final boolean[] table;
+
+		CharacterSet(String characters) {
+			this.characters = characters;
+			this.table = CharSequenceTokenizer.createLookupTable(characters);
+		}
+	}
+
+	private volatile CharacterSet delimiters = new CharacterSet(DEFAULT_DELIMITERS);
+	private volatile CharacterSet ignoredCharacters = new CharacterSet(
+			DEFAULT_IGNORED_CHARACTERS);
 
 	private Converter textConverter = Defaults.createTextConverter();
 	private Copier containerCopier = Defaults.createContainerCopier();
@@ -71,6 +102,13 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
 	 */
 	protected Object convertImpl(Class destinationClass, Object source, Locale locale) throws Exception {
 		Enumeration tokenizer = getTokenizer(source, locale);
+		if (tokenizer instanceof CharSequenceTokenizer && destinationClass.isArray()) {
+			Object result = convertToPrimitiveArray(destinationClass,
+					(CharSequenceTokenizer) tokenizer, locale);
+			if (result != null) {
+				return result;
+			}
+		}
 		// this call is the key reason we can't just fall back on the behavior
 		// of the superclass.  a string like "1,2" is going to look to the
 		// superclass like it has a size as 1
@@ -88,24 +126,81 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
     }
 
 	/**
-	 * Constructs a StringTokenizer that can be passed directly to the
+	 * Convert the tokens to an array of primitive numbers, parsing tokens that
+	 * consist only of digits directly.  Other tokens are converted by the
+	 * container copier's nested transformer.
+	 * @param destinationClass
+	 * @param tokenizer
+	 * @param locale
+	 * @return the array, or <code>null</code> if the tokens should be
+	 *         converted by the container copier
+	 */
+	private Object convertToPrimitiveArray(Class destinationClass,
+			CharSequenceTokenizer tokenizer, Locale locale) {
+		Class componentType = destinationClass.getComponentType();
+		int type = NumberUtils.getPrimitiveNumberType(componentType);
+		if (!componentType.isPrimitive() || type == NumberUtils.NO_PRIMITIVE_TYPE
+				|| getContainerCopier().getClass() != ContainerCopier.class) {
+			return null;
+		}
+		Transformer nestedTransformer = ((ContainerCopier) getContainerCopier())
+				.getNestedTransformer();
+		if (!(nestedTransformer instanceof SimpleDelegatingTransformer)) {
+			return null;
+		}
+		Transformer delegate = ((SimpleDelegatingTransformer) nestedTransformer).getDelegate(
+				componentType, String.class);
+		if (delegate == null || delegate.getClass() != TextToNumberConverter.class) {
+			return null;
+		}
+		int size = tokenizer.countTokens();
+		Object result = Array.newInstance(componentType, size);
+		for (int i = 0; i < size; i++) {
+			long digits = tokenizer.peekDigits();
+			if (digits >= 0 && NumberUtils.storeExactly(result, type, i, digits)) {
+				tokenizer.skipToken();
+			}
+			else {
+				Array.set(result, i, TransformerUtils.transform(nestedTransformer, componentType,
+						null, tokenizer.nextToken(), locale, TransformationType.CONVERT));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Constructs a tokenizer that can be passed directly to the
 	 * <code>containerCopier</code> to complete the transformation.
 	 * 
 	 * @param source
 	 *            the source, as passed in by the user
 	 * @param locale
 	 *            the locale in which the transformation is to take place
-	 * @return a StringTokenizer that can be passed directly to the
+	 * @return a tokenizer that can be passed directly to the
 	 *         <code>containerCopier</code> to complete the transformation
 	 */
 	protected Enumeration getTokenizer(Object source, Locale locale) {
-	    // prepare the source
-	    String sourceStr = (String) getTextConverter().convert(String.class, source, locale);
-	    sourceStr = removeIgnoredCharacters(sourceStr, getIgnoredCharacters());
-	    // parse the source into separate tokens
-	    return new MorphStringTokenizer(sourceStr, getDelimiters());
-    }
-	
+		// prepare the source
+		String sourceStr = (String) getTextConverter().convert(String.class, source, locale);
+		if (ClassUtils.isOverridingAny(getClass(), TextToContainerCopier.class,
+				REMOVE_IGNORED_CHARACTERS_METHOD_NAMES)) {
+			sourceStr = removeIgnoredCharacters(sourceStr, getIgnoredCharacters());
+			return new MorphStringTokenizer(sourceStr, getDelimiters());
+		}
+		// parse the source into separate tokens, skipping ignored characters
+		return new CharSequenceTokenizer(sourceStr, getLookupTable(this.delimiters,
+				getDelimiters()), getLookupTable(this.ignoredCharacters, getIgnoredCharacters()));
+	}
+
+	/**
+	 * Get the lookup table for <code>characters</code>, reusing the table of
+	 * <code>set</code> unless a subclass returned other characters.
+	 */
+	private static boolean[] getLookupTable(CharacterSet set, String characters) {
+		return characters == set.characters ? set.table : CharSequenceTokenizer
+				.createLookupTable(characters);
+	}
+
 	/**
 	 * Remove all characters contained in <code>ignoredCharacters</code> from
 	 * <code>source</code>.
@@ -170,7 +265,7 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
 	 *         to be copied to the container.
 	 */
 	public String getDelimiters() {
-		return delimiters;
+		return delimiters.characters;
 	}
 
 	/**
@@ -182,7 +277,7 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
 	 *            elements to be copied to the container
 	 */
 	public void setDelimiters(String delimiters) {
-    	this.delimiters = delimiters;
+    	this.delimiters = new CharacterSet(delimiters);
     }
 
 	/**
@@ -191,7 +286,7 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
 	 * @return characters that are completely ignored in the source
 	 */
 	public String getIgnoredCharacters() {
-		return ignoredCharacters;
+		return ignoredCharacters.characters;
 	}
 
 	/**
@@ -201,7 +296,7 @@ public class TextToContainerCopier extends BaseTransformer implements DecoratedC
 	 *            the characters that are completely ignored in the source
 	 */
 	public void setIgnoredCharacters(String ignoredCharacters) {
-    	this.ignoredCharacters = ignoredCharacters;
+    	this.ignoredCharacters = new CharacterSet(ignoredCharacters);
     }
 
 	/**
@@ -0,0 +1,39 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+/**
+ * Copies a fixed set of properties between instances of a particular pair of
+ * bean classes by calling their accessors and mutators directly.
+ * Implementations are generated at runtime by
+ * {@link DirectPropertyCopierGenerator}.
+ *
+ * @since Morph 2.0
+ */
+public abstract class DirectPropertyCopier {
+
+	/**
+	 * Create a new DirectPropertyCopier.
+	 */
+	protected DirectPropertyCopier() {
+	}
+
+	/**
+	 * Copy the properties handled by this DirectPropertyCopier.
+	 * @param destination an instance of the destination class
+	 * @param source an instance of the source class
+	 */
+	public abstract void copy(Object destination, Object source);
+
+}
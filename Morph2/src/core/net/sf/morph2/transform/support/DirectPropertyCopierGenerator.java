@@ -0,0 +1,258 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import net.sf.composite.util.ObjectUtils;
+import net.sf.morph2.transform.TransformationException;
+import net.sf.morph2.util.ClassFileWriter;
+
+/**
+ * Generates {@link DirectPropertyCopier} classes.  The generated
+ * <code>copy</code> method is a straight-line sequence of
+ * <code>destination.setX(source.getX())</code> calls, widening primitive
+ * values where necessary, so it runs as fast as a hand-written mapper once
+ * compiled by the JVM.
+ *
+ * <p>Each generated class is written by a {@link ClassFileWriter} and
+ * defined in its own ClassLoader, so it can be collected along with the bean
+ * classes it refers to.  Only public classes and public methods can be called
+ * this way; use
+ * {@link #isAccessible(Class)}, {@link #isAccessible(Method)} and
+ * {@link #isDirectlyAssignable(Class, Class)} to determine which properties
+ * may be handed to {@link #generate(Class, Class, Method[], Method[])}.</p>
+ *
+ * @since Morph 2.0
+ */
+public abstract class DirectPropertyCopierGenerator {
+
+	private static final int ALOAD_0 = 0x2a;
+	private static final int ALOAD_1 = 0x2b;
+	private static final int ALOAD_2 = 0x2c;
+	private static final int ALOAD_3 = 0x2d;
+	private static final int ALOAD = 0x19;
+	private static final int ASTORE_3 = 0x4e;
+	private static final int ASTORE = 0x3a;
+	private static final int POP = 0x57;
+	private static final int POP2 = 0x58;
+	private static final int I2L = 0x85;
+	private static final int I2F = 0x86;
+	private static final int I2D = 0x87;
+	private static final int F2D = 0x8d;
+	private static final int RETURN = 0xb1;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int CHECKCAST = 0xc0;
+
+	private static final String CLASS_NAME_PREFIX = DirectPropertyCopier.class.getName()
+			+ "$Generated";
+
+	private static int classCount;
+
+	/**
+	 * Learn whether generated code may refer to <code>type</code>, i.e.
+	 * whether it and all its enclosing classes are public.
+	 * @param type
+	 * @return boolean
+	 */
+	public static boolean isAccessible(Class type) {
+		return ClassFileWriter.isAccessible(type);
+	}
+
+	/**
+	 * Learn whether generated code may call <code>method</code> on an
+	 * accessible class.
+	 * @param method
+	 * @return boolean
+	 */
+	public static boolean isAccessible(Method method) {
+		return method != null && Modifier.isPublic(method.getModifiers())
+				&& !Modifier.isStatic(method.getModifiers());
+	}
+
+	/**
+	 * Learn whether a value of type <code>sourceType</code> may be passed
+	 * as is to a parameter of type <code>destinationType</code> without
+	 * losing information.  This is the case for identical types and for
+	 * primitive widening conversions that are exact.
+	 * @param destinationType
+	 * @param sourceType
+	 * @return boolean
+	 */
+	public static boolean isDirectlyAssignable(Class destinationType, Class sourceType) {
+		return destinationType == sourceType || getWideningOpcode(destinationType, sourceType) >= 0;
+	}
+
+	/**
+	 * Get the opcode that widens a <code>sourceType</code> value to
+	 * <code>destinationType</code>: 0 if none is needed, -1 if there is no
+	 * exact widening conversion.
+	 */
+	private static int getWideningOpcode(Class destinationType, Class sourceType) {
+		if (destinationType == sourceType) {
+			return 0;
+		}
+		boolean intLike = sourceType == byte.class || sourceType == short.class
+				|| sourceType == int.class;
+		if (destinationType == short.class) {
+			return sourceType == byte.class ? 0 : -1;
+		}
+		if (destinationType == int.class) {
+			return sourceType == byte.class || sourceType == short.class ? 0 : -1;
+		}
+		if (destinationType == long.class) {
+			return intLike ? I2L : -1;
+		}
+		if (destinationType == float.class) {
+			return sourceType == byte.class || sourceType == short.class ? I2F : -1;
+		}
+		if (destinationType == double.class) {
+			return intLike ? I2D : sourceType == float.class ? F2D : -1;
+		}
+		return -1;
+	}
+
+	/**
+	 * Generate a DirectPropertyCopier that, for each index <code>i</code>,
+	 * copies the value of <code>accessors[i]</code> on the source to
+	 * <code>mutators[i]</code> on the destination.
+	 * @param destinationClass
+	 * @param sourceClass
+	 * @param accessors
+	 * @param mutators
+	 * @return DirectPropertyCopier
+	 * @throws TransformationException if the copier could not be generated
+	 */
+	public static DirectPropertyCopier generate(Class destinationClass, Class sourceClass,
+			Method[] accessors, Method[] mutators) throws TransformationException {
+		if (!isAccessible(destinationClass) || !isAccessible(sourceClass)) {
+			throw new TransformationException("Cannot generate a copier from "
+					+ ObjectUtils.getObjectDescription(sourceClass) + " to "
+					+ ObjectUtils.getObjectDescription(destinationClass)
+					+ " because both classes must be public");
+		}
+		Class[] visibleClasses = new Class[accessors.length * 2 + 3];
+		visibleClasses[0] = destinationClass;
+		visibleClasses[1] = sourceClass;
+		visibleClasses[2] = DirectPropertyCopier.class;
+		for (int i = 0; i < accessors.length; i++) {
+			Class sourceType = accessors[i].getReturnType();
+			Class destinationType = mutators[i].getParameterTypes()[0];
+			if (!isAccessible(accessors[i]) || !isAccessible(mutators[i])
+					|| !isDirectlyAssignable(destinationType, sourceType)) {
+				throw new TransformationException("Cannot generate a copy from "
+						+ accessors[i] + " to " + mutators[i]);
+			}
+			visibleClasses[i * 2 + 3] = sourceType;
+			visibleClasses[i * 2 + 4] = destinationType;
+		}
+		String className = nextClassName();
+		try {
+			byte[] bytecode = createBytecode(className, destinationClass, sourceClass, accessors,
+					mutators);
+			Class generated = ClassFileWriter.defineClass(className, bytecode,
+					DirectPropertyCopier.class.getClassLoader(), visibleClasses);
+			return (DirectPropertyCopier) generated.getConstructor().newInstance();
+		}
+		catch (TransformationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new TransformationException("Unable to generate a copier from "
+					+ ObjectUtils.getObjectDescription(sourceClass) + " to "
+					+ ObjectUtils.getObjectDescription(destinationClass), e);
+		}
+		catch (LinkageError e) {
+			throw new TransformationException("Unable to generate a copier from "
+					+ ObjectUtils.getObjectDescription(sourceClass) + " to "
+					+ ObjectUtils.getObjectDescription(destinationClass), e);
+		}
+	}
+
+	private static synchronized String nextClassName() {
+		return CLASS_NAME_PREFIX + classCount++;
+	}
+
+	private static byte[] createBytecode(String className, Class destinationClass,
+			Class sourceClass, Method[] accessors, Method[] mutators) throws IOException {
+		ClassFileWriter classFile = new ClassFileWriter(className, DirectPropertyCopier.class,
+				null);
+		String superName = getInternalName(DirectPropertyCopier.class);
+
+		// constructor
+		ByteArrayOutputStream init = new ByteArrayOutputStream();
+		init.write(ALOAD_0);
+		writeInstruction(init, INVOKESPECIAL, classFile.methodRef(superName, "<init>", "()V"));
+		init.write(RETURN);
+
+		// copy(Object, Object)
+		ByteArrayOutputStream copy = new ByteArrayOutputStream();
+		String destinationName = getInternalName(destinationClass);
+		String sourceName = getInternalName(sourceClass);
+		copy.write(ALOAD_1);
+		writeInstruction(copy, CHECKCAST, classFile.classRef(destinationName));
+		copy.write(ASTORE_3);
+		copy.write(ALOAD_2);
+		writeInstruction(copy, CHECKCAST, classFile.classRef(sourceName));
+		copy.write(ASTORE);
+		copy.write(4);
+		for (int i = 0; i < accessors.length; i++) {
+			Class sourceType = accessors[i].getReturnType();
+			Class destinationType = mutators[i].getParameterTypes()[0];
+			Class mutatorReturnType = mutators[i].getReturnType();
+			copy.write(ALOAD_3);
+			copy.write(ALOAD);
+			copy.write(4);
+			writeInstruction(copy, INVOKEVIRTUAL, classFile.methodRef(sourceName, accessors[i]
+					.getName(), "()" + getDescriptor(sourceType)));
+			int widening = getWideningOpcode(destinationType, sourceType);
+			if (widening > 0) {
+				copy.write(widening);
+			}
+			writeInstruction(copy, INVOKEVIRTUAL, classFile.methodRef(destinationName,
+					mutators[i].getName(), "(" + getDescriptor(destinationType) + ")"
+							+ getDescriptor(mutatorReturnType)));
+			if (mutatorReturnType == long.class || mutatorReturnType == double.class) {
+				copy.write(POP2);
+			}
+			else if (mutatorReturnType != void.class) {
+				copy.write(POP);
+			}
+		}
+		copy.write(RETURN);
+
+		classFile.addMethod("<init>", "()V", 1, 1, init.toByteArray());
+		// locals: this, destination, source, typed destination, typed source
+		classFile.addMethod("copy", "(Ljava/lang/Object;Ljava/lang/Object;)V", 4, 5, copy
+				.toByteArray());
+		return classFile.toByteArray();
+	}
+
+	private static void writeInstruction(ByteArrayOutputStream code, int opcode, int index) {
+		ClassFileWriter.writeInstruction(code, opcode, index);
+	}
+
+	private static String getInternalName(Class type) {
+		return ClassFileWriter.getInternalName(type);
+	}
+
+	private static String getDescriptor(Class type) {
+		return ClassFileWriter.getDescriptor(type);
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import java.text.Format;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread cache of {@link Format}s.  <code>Format</code>s are expensive to
+ * create and are not thread-safe, so converters keep the instances they use
+ * here, keyed by whatever determines the format (usually a
+ * {@link java.util.Locale}).  Each thread sees only the instances it put in
+ * the cache itself, so cached formats may be used without synchronization.
+ *
+ * @since Morph 2.0
+ */
+public class FormatCache {
+
+	private static class MapThreadLocal extends ThreadLocal {
+		protected Object initialValue() {
+			return new HashMap();
+		}
+	}
+
+	private final ThreadLocal formats = new MapThreadLocal();
+
+	/**
+	 * Get the format the current thread cached for <code>key</code>.
+	 * @param key
+	 * @return Format or <code>null</code>
+	 */
+	public Format get(Object key) {
+		return (Format) getFormats().get(key);
+	}
+
+	/**
+	 * Cache <code>format</code> for <code>key</code> on the current thread.
+	 * @param key
+	 * @param format
+	 */
+	public void put(Object key, Format format) {
+		getFormats().put(key, format);
+	}
+
+	/**
+	 * Get the format the current thread cached for <code>key</code>, caching
+	 * a clone of <code>template</code> if there is none yet.  Useful for
+	 * sharing a configured, but unsafe, format between threads.
+	 * @param key
+	 * @param template
+	 * @return Format
+	 */
+	public Format get(Object key, Format template) {
+		Map map = getFormats();
+		Format result = (Format) map.get(key);
+		if (result == null) {
+			result = (Format) template.clone();
+			map.put(key, result);
+		}
+		return result;
+	}
+
+	private Map getFormats() {
+		return (Map) formats.get();
+	}
+
+}
@@ -0,0 +1,326 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+import net.sf.morph2.Defaults;
+import net.sf.morph2.reflect.BeanReflector;
+import net.sf.morph2.reflect.InstantiatingReflector;
+import net.sf.morph2.reflect.reflectors.ResultSetReflector;
+import net.sf.morph2.reflect.support.ResultSetInfo;
+import net.sf.morph2.reflect.support.ResultSetIterator;
+import net.sf.morph2.transform.Converter;
+import net.sf.morph2.transform.TransformationException;
+import net.sf.morph2.util.Assert;
+
+/**
+ * <p>
+ * Lazily converts the rows of a ResultSet into beans of a given class.  Rows
+ * are read and converted only as the iterator is consumed, at most
+ * <code>batchSize</code> rows ahead of the caller, and the iterator lets go
+ * of each bean as soon as it has been returned.  Unlike converting the whole
+ * ResultSet into a List, the memory used is therefore proportional to the
+ * batch size, not to the number of rows.
+ * </p>
+ *
+ * <p>
+ * A row that cannot be read or converted is reported by the call to
+ * <code>next</code> that would have returned it, after the rows before it
+ * have been returned.  Iteration may continue with the following row.
+ * </p>
+ *
+ * <p>
+ * The columns of the ResultSet are matched by label to the writeable
+ * properties of the destination class once, when the first row is converted,
+ * ignoring case; where several columns share a label, the first is used.
+ * The resulting plan is reused for every following row; each column value is
+ * converted to the type of its property with the configured Converter.
+ * Columns with no matching property are skipped.
+ * </p>
+ *
+ * <p>
+ * Like the ResultSet it reads, this iterator is not thread-safe.
+ * </p>
+ *
+ * @since Morph 2.0
+ */
+public class ResultSetBeanIterator implements Iterator {
+
+	private final ResultSet resultSet;
+	private final Class destinationClass;
+	private final Iterator rows;
+	private Converter converter;
+	private BeanReflector beanReflector;
+	private InstantiatingReflector instantiatingReflector;
+	private ResultSetReflector resultSetReflector;
+	private Locale locale;
+	private int batchSize;
+
+	// the plan
+	private int[] columnIndexes;
+	private String[] propertyNames;
+	private Class[] propertyTypes;
+
+	private Object[] batch;
+	private int batchPosition;
+	private int batchLength;
+	/** failure reading or converting the row after the batch */
+	private RuntimeException failure;
+
+	/**
+	 * Create a new ResultSetBeanIterator.
+	 * @param resultSet the ResultSet, positioned before the first row to read
+	 * @param destinationClass the class of the beans to create
+	 */
+	public ResultSetBeanIterator(ResultSet resultSet, Class destinationClass) {
+		Assert.notNull(resultSet, "resultSet");
+		Assert.notNull(destinationClass, "destinationClass");
+		this.resultSet = resultSet;
+		this.destinationClass = destinationClass;
+		this.rows = new ResultSetIterator(resultSet);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean hasNext() {
+		if (batchPosition == batchLength && failure == null) {
+			readBatch();
+		}
+		return batchPosition < batchLength || failure != null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("There are no more rows in the ResultSet");
+		}
+		if (batchPosition == batchLength) {
+			RuntimeException e = failure;
+			failure = null;
+			throw e;
+		}
+		Object result = batch[batchPosition];
+		// release the bean so the consumer alone decides how long it lives
+		batch[batchPosition++] = null;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private void readBatch() {
+		if (batch == null) {
+			batch = new Object[getBatchSize()];
+		}
+		batchPosition = 0;
+		batchLength = 0;
+		try {
+			while (batchLength < batch.length && rows.hasNext()) {
+				rows.next();
+				batch[batchLength] = convertRow();
+				batchLength++;
+			}
+		}
+		catch (RuntimeException e) {
+			// report the failure once the rows before it have been returned
+			failure = e;
+		}
+	}
+
+	/**
+	 * Convert the current row of the ResultSet.
+	 * @return the new bean
+	 */
+	protected Object convertRow() {
+		try {
+			Object destination = getInstantiatingReflector().newInstance(destinationClass, null);
+			if (propertyNames == null) {
+				compilePlan(destination);
+			}
+			for (int i = 0; i < columnIndexes.length; i++) {
+				Object value = getResultSetReflector().getColumnValue(resultSet, columnIndexes[i]);
+				getBeanReflector().set(destination, propertyNames[i],
+						getConverter().convert(propertyTypes[i], value, getLocale()));
+			}
+			return destination;
+		}
+		catch (TransformationException e) {
+			throw e;
+		}
+		catch (Exception e) {
+			throw new TransformationException(destinationClass, resultSet, e);
+		}
+	}
+
+	private void compilePlan(Object destination) throws Exception {
+		ResultSetInfo info = getResultSetReflector().getResultSetInfo(resultSet);
+		String[] destinationProperties = getBeanReflector().getPropertyNames(destination);
+		List indexes = new ArrayList();
+		List names = new ArrayList();
+		for (int i = 0; i < destinationProperties.length; i++) {
+			// columns are located by label, as ResultSetReflector locates them
+			int index = info.getColumnIndex(destinationProperties[i]);
+			if (index > 0
+					&& getBeanReflector().isWriteable(destination, destinationProperties[i])) {
+				indexes.add(Integer.valueOf(index));
+				names.add(destinationProperties[i]);
+			}
+		}
+		columnIndexes = new int[indexes.size()];
+		propertyTypes = new Class[indexes.size()];
+		for (int i = 0; i < columnIndexes.length; i++) {
+			columnIndexes[i] = ((Integer) indexes.get(i)).intValue();
+			propertyTypes[i] = getBeanReflector().getType(destination, (String) names.get(i));
+		}
+		propertyNames = (String[]) names.toArray(new String[names.size()]);
+	}
+
+	/**
+	 * Get the number of rows converted ahead of the caller.  Unless set
+	 * explicitly, this is the fetch size of the ResultSet, or 1 if the
+	 * driver does not report a fetch size.
+	 * @return int
+	 */
+	public int getBatchSize() {
+		if (batchSize <= 0) {
+			int fetchSize = 0;
+			try {
+				fetchSize = resultSet.getFetchSize();
+			}
+			catch (SQLException e) {
+				// fall back to converting one row at a time
+			}
+			setBatchSize(fetchSize > 0 ? fetchSize : 1);
+		}
+		return batchSize;
+	}
+
+	/**
+	 * Set the number of rows converted ahead of the caller.  Must be called
+	 * before iteration begins.
+	 * @param batchSize
+	 */
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Get the converter used to convert column values to the types of the
+	 * destination properties.
+	 * @return Converter
+	 */
+	public Converter getConverter() {
+		if (converter == null) {
+			setConverter(Defaults.createConverter());
+		}
+		return converter;
+	}
+
+	/**
+	 * Set the converter used to convert column values to the types of the
+	 * destination properties.
+	 * @param converter
+	 */
+	public void setConverter(Converter converter) {
+		this.converter = converter;
+	}
+
+	/**
+	 * Get the reflector used to set the properties of the destination beans.
+	 * @return BeanReflector
+	 */
+	public BeanReflector getBeanReflector() {
+		if (beanReflector == null) {
+			setBeanReflector(Defaults.createBeanReflector());
+		}
+		return beanReflector;
+	}
+
+	/**
+	 * Set the reflector used to set the properties of the destination beans.
+	 * @param beanReflector
+	 */
+	public void setBeanReflector(BeanReflector beanReflector) {
+		this.beanReflector = beanReflector;
+	}
+
+	/**
+	 * Get the reflector used to create the destination beans.
+	 * @return InstantiatingReflector
+	 */
+	public InstantiatingReflector getInstantiatingReflector() {
+		if (instantiatingReflector == null) {
+			setInstantiatingReflector(Defaults.createInstantiatingReflector());
+		}
+		return instantiatingReflector;
+	}
+
+	/**
+	 * Set the reflector used to create the destination beans.
+	 * @param instantiatingReflector
+	 */
+	public void setInstantiatingReflector(InstantiatingReflector instantiatingReflector) {
+		this.instantiatingReflector = instantiatingReflector;
+	}
+
+	/**
+	 * Get the reflector used to read column values.
+	 * @return ResultSetReflector
+	 */
+	public ResultSetReflector getResultSetReflector() {
+		if (resultSetReflector == null) {
+			setResultSetReflector(new ResultSetReflector());
+		}
+		return resultSetReflector;
+	}
+
+	/**
+	 * Set the reflector used to read column values.
+	 * @param resultSetReflector
+	 */
+	public void setResultSetReflector(ResultSetReflector resultSetReflector) {
+		this.resultSetReflector = resultSetReflector;
+	}
+
+	/**
+	 * Get the locale in which column values are converted.
+	 * @return Locale
+	 */
+	public Locale getLocale() {
+		return locale;
+	}
+
+	/**
+	 * Set the locale in which column values are converted.
+	 * @param locale
+	 */
+	public void setLocale(Locale locale) {
+		this.locale = locale;
+	}
+
+}
@@ -0,0 +1,195 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import java.io.IOException;
+
+/**
+ * {@link Appendable} that passes at most <code>maxLength</code> characters on
+ * to another Appendable, followed by an ellipsis if more were appended.
+ * Writers of large texts can check {@link #isTruncated(Appendable)} to stop
+ * producing output nobody will see.
+ *
+ * @since Morph 2.0
+ */
+public class TruncatingAppendable implements Appendable {
+	/** Default ellipsis */
+	public static final String DEFAULT_ELLIPSIS = "...";
+
+	private final Appendable appendable;
+	private final String ellipsis;
+	private int remaining;
+	private boolean truncated;
+
+	/**
+	 * Create a new TruncatingAppendable.
+	 * @param appendable
+	 * @param maxLength
+	 */
+	public TruncatingAppendable(Appendable appendable, int maxLength) {
+		this(appendable, maxLength, DEFAULT_ELLIPSIS);
+	}
+
+	/**
+	 * Create a new TruncatingAppendable.
+	 * @param appendable
+	 * @param maxLength
+	 * @param ellipsis appended when text is truncated
+	 */
+	public TruncatingAppendable(Appendable appendable, int maxLength, String ellipsis) {
+		this.appendable = appendable;
+		this.remaining = maxLength;
+		this.ellipsis = ellipsis;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Appendable append(CharSequence csq) throws IOException {
+		if (csq == null) {
+			csq = "null";
+		}
+		return append(csq, 0, csq.length());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Appendable append(CharSequence csq, int start, int end) throws IOException {
+		if (truncated) {
+			return this;
+		}
+		if (csq == null) {
+			csq = "null";
+		}
+		if (end - start <= remaining) {
+			appendable.append(csq, start, end);
+			remaining -= end - start;
+		}
+		else {
+			appendable.append(csq, start, start + remaining);
+			truncate();
+		}
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Appendable append(char c) throws IOException {
+		if (truncated) {
+			return this;
+		}
+		if (remaining > 0) {
+			appendable.append(c);
+			remaining--;
+		}
+		else {
+			truncate();
+		}
+		return this;
+	}
+
+	/**
+	 * Create a TruncatingAppendable collecting text in <code>buffer</code>
+	 * to be appended to this one later.  It keeps one character more than
+	 * this one will pass on, so appending <code>buffer</code> truncates
+	 * exactly as appending the text directly would have.
+	 * @param buffer
+	 * @return TruncatingAppendable
+	 */
+	public TruncatingAppendable createBuffer(StringBuilder buffer) {
+		return new TruncatingAppendable(buffer, remaining + 1, null);
+	}
+
+	private void truncate() throws IOException {
+		remaining = 0;
+		truncated = true;
+		if (ellipsis != null) {
+			appendable.append(ellipsis);
+		}
+	}
+
+	/**
+	 * Learn whether text has been discarded.
+	 * @return boolean
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	/**
+	 * Learn whether <code>appendable</code> is a TruncatingAppendable that
+	 * has discarded text.
+	 * @param appendable
+	 * @return boolean
+	 */
+	public static boolean isTruncated(Appendable appendable) {
+		return appendable instanceof TruncatingAppendable
+				&& ((TruncatingAppendable) appendable).isTruncated();
+	}
+
+	/**
+	 * Learn the length of the text appended to <code>appendable</code>, if
+	 * it can be discarded using {@link #setLength(Appendable, int)}.
+	 * @param appendable
+	 * @return the length, or -1 if <code>appendable</code> is neither a
+	 *         StringBuilder nor a StringBuffer nor a TruncatingAppendable
+	 *         passing text on to one of these
+	 */
+	public static int getLength(Appendable appendable) {
+		if (appendable instanceof StringBuilder) {
+			return ((StringBuilder) appendable).length();
+		}
+		if (appendable instanceof StringBuffer) {
+			return ((StringBuffer) appendable).length();
+		}
+		if (appendable instanceof TruncatingAppendable) {
+			return getLength(((TruncatingAppendable) appendable).appendable);
+		}
+		return -1;
+	}
+
+	/**
+	 * Discard the text appended to <code>appendable</code> since it was
+	 * <code>length</code> characters long, as returned by
+	 * {@link #getLength(Appendable)}.
+	 * @param appendable
+	 * @param length
+	 */
+	public static void setLength(Appendable appendable, int length) {
+		if (appendable instanceof StringBuilder) {
+			((StringBuilder) appendable).setLength(length);
+		}
+		else if (appendable instanceof StringBuffer) {
+			((StringBuffer) appendable).setLength(length);
+		}
+		else if (appendable instanceof TruncatingAppendable) {
+			((TruncatingAppendable) appendable).discard(length);
+		}
+	}
+
+	private void discard(int length) {
+		int passed = getLength(appendable);
+		if (length >= passed) {
+			return;
+		}
+		if (truncated && ellipsis != null) {
+			passed -= ellipsis.length();
+		}
+		setLength(appendable, length);
+		remaining += passed - length;
+		truncated = false;
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import java.util.Arrays;
+
+/**
+ * Records the nodes of an object graph visited during a single top-level
+ * transformation, mapping each (source, destination type) pair to the
+ * destination object created for it.  Sources are compared by identity,
+ * so neither <code>equals</code> nor <code>hashCode</code> is ever
+ * invoked on them.
+ *
+ * <p>A table is meant to be kept per thread and reused across
+ * transformations.  {@link #clear()} releases the references held by the
+ * table, so that a thread that keeps its table, such as a pooled server
+ * thread, does not keep the last transformed graphs reachable; a table that
+ * has grown beyond a modest size is discarded instead.</p>
+ *
+ * <p>A table may be created with a parent table, whose nodes it finds as
+ * though they were its own but never changes.  This lets a transformation
+ * split across threads give each thread its own table while the nodes
+ * visited before the split remain visible to all of them.</p>
+ *
+ * <p>Instances are not thread-safe, but any number of threads may read a
+ * parent table that is not being changed.</p>
+ *
+ * @since Morph 2.0
+ */
+public class VisitedNodeTable {
+	/** Returned by {@link #get(Object, Class)} for an unvisited node */
+	public static final Object NOT_FOUND = new Object();
+
+	private static final int INITIAL_CAPACITY = 64;
+	private static final int MAX_RETAINED_CAPACITY = 1024;
+
+	private final VisitedNodeTable parent;
+	private Object[] sources;
+	private Class[] types;
+	private Object[] results;
+	private int[] generations;
+	private int generation;
+	/** indexes of the occupied slots, in the order they were filled */
+	private int[] occupied;
+	private int size;
+	private int depth;
+
+	/**
+	 * Create a new VisitedNodeTable.
+	 */
+	public VisitedNodeTable() {
+		this(null);
+	}
+
+	/**
+	 * Create a new VisitedNodeTable.
+	 * @param parent table of previously visited nodes, which is searched but
+	 *            never changed; may be <code>null</code>
+	 */
+	public VisitedNodeTable(VisitedNodeTable parent) {
+		this.parent = parent;
+		allocate(INITIAL_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		sources = new Object[capacity];
+		types = new Class[capacity];
+		results = new Object[capacity];
+		generations = new int[capacity];
+		generation = 1;
+		occupied = new int[capacity];
+	}
+
+	private static int hash(Object source, Class type) {
+		int h = System.identityHashCode(source) * 31 + System.identityHashCode(type);
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Get the destination recorded for <code>source</code> and
+	 * <code>type</code> in this table or its parent.
+	 * @param source
+	 * @param type
+	 * @return the recorded destination, or {@link #NOT_FOUND}
+	 */
+	public Object get(Object source, Class type) {
+		int mask = sources.length - 1;
+		for (int i = hash(source, type) & mask; generations[i] == generation; i = (i + 1) & mask) {
+			if (sources[i] == source && types[i] == type) {
+				return results[i];
+			}
+		}
+		return parent == null ? NOT_FOUND : parent.get(source, type);
+	}
+
+	/**
+	 * Record <code>result</code> as the destination for <code>source</code>
+	 * and <code>type</code>.
+	 * @param source
+	 * @param type
+	 * @param result
+	 */
+	public void put(Object source, Class type, Object result) {
+		if ((size + 1) * 4 > sources.length * 3) {
+			resize(sources.length * 2);
+		}
+		int mask = sources.length - 1;
+		int i = hash(source, type) & mask;
+		for (; generations[i] == generation; i = (i + 1) & mask) {
+			if (sources[i] == source && types[i] == type) {
+				results[i] = result;
+				return;
+			}
+		}
+		sources[i] = source;
+		types[i] = type;
+		results[i] = result;
+		generations[i] = generation;
+		occupied[size++] = i;
+	}
+
+	/**
+	 * Record the nodes recorded in <code>table</code>, but not those of its
+	 * parent.
+	 * @param table
+	 * @return <code>false</code> if any of the nodes had already been recorded
+	 *         in this table
+	 */
+	public boolean putAll(VisitedNodeTable table) {
+		boolean disjoint = true;
+		for (int k = 0; k < table.size; k++) {
+			int i = table.occupied[k];
+			int oldSize = size;
+			put(table.sources[i], table.types[i], table.results[i]);
+			disjoint &= size > oldSize;
+		}
+		return disjoint;
+	}
+
+	private void resize(int capacity) {
+		Object[] oldSources = sources;
+		Class[] oldTypes = types;
+		Object[] oldResults = results;
+		int[] oldOccupied = occupied;
+		int oldSize = size;
+		allocate(capacity);
+		size = 0;
+		for (int k = 0; k < oldSize; k++) {
+			int i = oldOccupied[k];
+			put(oldSources[i], oldTypes[i], oldResults[i]);
+		}
+	}
+
+	/**
+	 * Forget all visited nodes, except those of the parent table.  Only the
+	 * slots that were filled are released, so clearing a table costs no more
+	 * than filling it did.
+	 */
+	public void clear() {
+		if (size == 0) {
+			return;
+		}
+		if (sources.length > MAX_RETAINED_CAPACITY) {
+			size = 0;
+			allocate(INITIAL_CAPACITY);
+			return;
+		}
+		for (int k = 0; k < size; k++) {
+			int i = occupied[k];
+			sources[i] = null;
+			types[i] = null;
+			results[i] = null;
+		}
+		size = 0;
+		if (++generation == 0) {
+			Arrays.fill(generations, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * Get the number of visited nodes, not counting those of the parent table.
+	 * @return int
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the depth of the nested transformation stack.
+	 * @return int
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Set the depth of the nested transformation stack.
+	 * @param depth
+	 */
+	public void setDepth(int depth) {
+		this.depth = depth;
+	}
+
+}
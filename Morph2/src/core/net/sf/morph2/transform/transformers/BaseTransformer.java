@@ -13,13 +13,11 @@
  */
 package net.sf.morph2.transform.transformers;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.composite.util.CompositeUtils;
-import net.sf.composite.util.ObjectPair;
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.Defaults;
 import net.sf.morph2.reflect.InstantiatingReflector;
@@ -33,6 +31,7 @@ import net.sf.morph2.transform.DecoratedTransformer;
 import net.sf.morph2.transform.ExplicitTransformer;
 import net.sf.morph2.transform.NestingAwareTransformer;
 import net.sf.morph2.transform.NodeCopier;
+import net.sf.morph2.transform.TentativeConverter;
 import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.TransformationType;
 import net.sf.morph2.transform.Transformer;
@@ -60,13 +59,17 @@ import org.apache.commons.logging.LogFactory;
  * <li>Optionally caches results of
  * {@link ExplicitTransformer#isTransformable(Class, Class)}
  * for better performance. This feature is turned on by default</li>
+ * <li>Implements {@link TentativeConverter#tryConvert(Class, Object, Locale)}
+ * on top of <code>convertImpl</code>; subclasses that can detect failed
+ * conversions cheaply override {@link #tryConvertImpl(Class, Object, Locale)}
+ * </li>
  * </ul>
  * </p>
  *
  * @author Matt Sgarlata
  * @since Nov 26, 2004
  */
-public abstract class BaseTransformer implements DecoratedTransformer {
+public abstract class BaseTransformer implements DecoratedTransformer, TentativeConverter {
 
 	private boolean initialized = false;
 	private boolean cachingIsTransformableCalls = true;
@@ -76,6 +79,9 @@ public abstract class BaseTransformer implements DecoratedTransformer {
 
 	private transient Map transformableCallCache;
 
+	/** Stands in for a <code>null</code> class in the transformable call cache */
+	private static final Object NULL_KEY = new Object();
+
 	/** BaseTransformer log object */
 	protected transient Log log;
 
@@ -125,19 +131,26 @@ public abstract class BaseTransformer implements DecoratedTransformer {
 		// Note: null source and destination classes are allowed!
 
 		// first, try to pull the source and destination from the cache
-		ObjectPair pair = null;
+		Map bySourceType = null;
+		Object sourceKey = sourceType == null ? NULL_KEY : sourceType;
 		if (isCachingIsTransformableCalls()) {
-			pair = new ObjectPair(destinationType, sourceType);
-			if (getTransformableCallCache().containsKey(pair)) {
-				Boolean isTransformable = (Boolean) getTransformableCallCache().get(pair);
+			Object destinationKey = destinationType == null ? NULL_KEY : destinationType;
+			Map cache = getTransformableCallCache();
+			bySourceType = (Map) cache.get(destinationKey);
+			if (bySourceType == null) {
+				bySourceType = new ConcurrentHashMap();
+				cache.put(destinationKey, bySourceType);
+			}
+			Boolean isTransformable = (Boolean) bySourceType.get(sourceKey);
+			if (isTransformable != null) {
 				return isTransformable.booleanValue();
 			}
 		}
 
 		try {
 			boolean isTransformable = isTransformableImpl(destinationType, sourceType);
-			if (isCachingIsTransformableCalls()) {
-				getTransformableCallCache().put(pair, new Boolean(isTransformable));
+			if (bySourceType != null) {
+				bySourceType.put(sourceKey, Boolean.valueOf(isTransformable));
 			}
 			return isTransformable;
 		} catch (TransformationException e) {
@@ -258,7 +271,7 @@ public abstract class BaseTransformer implements DecoratedTransformer {
 							+ ", is invalid because it does specify any destinationClasses");
 				}
 
-				transformableCallCache = Collections.synchronizedMap(new HashMap());
+				transformableCallCache = new ConcurrentHashMap();
 
 				if (nestedTransformer == null) {
 					nestedTransformer = Defaults.createTransformer();
@@ -370,6 +383,70 @@ public abstract class BaseTransformer implements DecoratedTransformer {
 		return newInstance;
 	}
 
+	/**
+	 * Attempt a conversion in the default locale.
+	 * @param destinationClass
+	 * @param source
+	 * @return the result of the conversion or {@link #NOT_CONVERTED}
+	 * @see TentativeConverter#tryConvert(Class, Object, Locale)
+	 * @since Morph 2.0
+	 */
+	public final Object tryConvert(Class destinationClass, Object source) {
+		return tryConvert(destinationClass, source, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public final Object tryConvert(Class destinationClass, Object source, Locale locale) {
+		initialize();
+
+		if (isPerformingLogging() && log.isTraceEnabled()) {
+			log.trace("Trying to convert " + ObjectUtils.getObjectDescription(source)
+					+ " to destination type " + ObjectUtils.getObjectDescription(destinationClass)
+					+ " in locale " + locale);
+		}
+
+		if (locale == null) {
+			locale = getLocale();
+		}
+
+		if (source == null && isAutomaticallyHandlingNulls()) {
+			return destinationClass != null && destinationClass.isPrimitive() ? NOT_CONVERTED
+					: null;
+		}
+
+		try {
+			return tryConvertImpl(destinationClass, source, locale);
+		} catch (TransformationException e) {
+			return NOT_CONVERTED;
+		} catch (Exception e) {
+			if (e instanceof RuntimeException && !isWrappingRuntimeExceptions()) {
+				throw (RuntimeException) e;
+			}
+			return NOT_CONVERTED;
+		}
+	}
+
+	/**
+	 * The implementation of the <code>tryConvert</code> method, which may omit
+	 * the invalid argument checks already performed by this base class.  By
+	 * default, this method calls
+	 * {@link #convertImpl(Class, Object, Locale)}, so that failed conversions
+	 * are detected by the exceptions it throws.  Converters that reject
+	 * invalid input often should override this method to return
+	 * {@link #NOT_CONVERTED} instead.
+	 *
+	 * @param locale
+	 *            the locale in which the conversion should take place
+	 * @return the result of the conversion or {@link #NOT_CONVERTED}
+	 * @since Morph 2.0
+	 */
+	protected Object tryConvertImpl(Class destinationClass, Object source, Locale locale)
+			throws Exception {
+		return convertImpl(destinationClass, source, locale);
+	}
+
 	/**
 	 * {@link NodeCopier#createReusableSource(Class, Object)}
 	 * @param destinationClass
@@ -682,7 +759,9 @@ public abstract class BaseTransformer implements DecoratedTransformer {
 
 	/**
 	 * Get the cache of calls to 
-	 * {@link #isTransformable(Class, Class)}
+	 * {@link #isTransformable(Class, Class)}.  The cache maps each destination
+	 * type to a Map of source type to <code>Boolean</code>; both levels must
+	 * be safe for concurrent use.
 	 * @return Map
 	 */
 	protected Map getTransformableCallCache() {
@@ -764,7 +843,7 @@ public abstract class BaseTransformer implements DecoratedTransformer {
 	 */
 	protected Object clone() throws CloneNotSupportedException {
 		BaseTransformer result = (BaseTransformer) super.clone();
-		result.transformableCallCache = Collections.synchronizedMap(new HashMap());
+		result.transformableCallCache = new ConcurrentHashMap();
 		return result;
 	}
 
@@ -13,12 +13,15 @@
  */
 package net.sf.morph2.transform.transformers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.composite.CompositeException;
 import net.sf.composite.SpecializableComposite;
@@ -44,6 +47,7 @@ import net.sf.morph2.transform.converters.IdentityConverter;
 import net.sf.morph2.transform.converters.NumberConverter;
 import net.sf.morph2.transform.converters.NumberToTimeConverter;
 import net.sf.morph2.transform.converters.ObjectToClassConverter;
+import net.sf.morph2.transform.converters.PrimitiveArrayConverter;
 import net.sf.morph2.transform.converters.TextConverter;
 import net.sf.morph2.transform.converters.TextToEnumConverter;
 import net.sf.morph2.transform.converters.TextToTimeConverter;
@@ -54,9 +58,10 @@ import net.sf.morph2.transform.copiers.ImmutableComponentArrayCopier;
 import net.sf.morph2.transform.copiers.MapCopier;
 import net.sf.morph2.transform.copiers.PropertyNameMatchingCopier;
 import net.sf.morph2.transform.copiers.TextToContainerCopier;
+import net.sf.morph2.transform.support.VisitedNodeTable;
 import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.ContainerUtils;
-import net.sf.morph2.util.MutableInteger;
+import net.sf.morph2.util.DispatchSnapshot;
 import net.sf.morph2.util.TransformerUtils;
 
 /**
@@ -102,12 +107,35 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 
 	//TODO extract BaseDelegatingTransformer with pluggable delegate selection
 
-	private static class MapThreadLocal extends ThreadLocal {
+	private static class VisitedNodeTableThreadLocal extends ThreadLocal {
 		protected Object initialValue() {
-			return new HashMap();
+			return new VisitedNodeTable();
 		}
 	}
 
+	/**
+	 * Snapshot of the components along with the delegates already selected
+	 * from them, keyed by destination class, then by source class.  A new
+	 * Dispatch is published whenever the components change, so a lookup can
+	 * never see a delegate chosen from a different set of components.
+	 */
+	private static final class Dispatch {
+		final Object[] components;
+		final Map copiers = new ConcurrentHashMap();
+		final Map transformers = new ConcurrentHashMap();
+
+		Dispatch(Object[] components) {
+			this.components = components;
+		}
+	}
+
+	/** Stands in for a <code>null</code> class in the dispatch tables */
+	private static final Object NULL_KEY = new Object();
+
+	/** names of the dispatch tables in a {@link DispatchSnapshot} */
+	private static final String TRANSFORMERS_TABLE = "transformers";
+	private static final String COPIERS_TABLE = "copiers";
+
 	/**
 	 * Create the default set of Transformer components.
 	 * @return Transformer[]
@@ -124,18 +152,18 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 					{
 						setDestinationClasses(new Class[] { Map.class });
 					}
-				}, new ImmutableComponentArrayCopier(), new ContainerCopier(),
+				}, new ImmutableComponentArrayCopier(), new PrimitiveArrayConverter(),
+				new ContainerCopier(),
 				new PropertyNameMatchingCopier() };
 	}
 
 	private Specializer specializer;
 	private boolean preferPreciseTransformers;
+	private boolean trackingVisitedNodes = true;
 
-	private transient ThreadLocal visitedSourceToDestinationMapThreadLocal = new MapThreadLocal();
-	private transient ThreadLocal stackDepthThreadLocal = new ThreadLocal();
+	private transient ThreadLocal visitedNodeTableThreadLocal = new VisitedNodeTableThreadLocal();
 
-	private transient Map copierRegistry = Collections.synchronizedMap(new HashMap());
-	private transient Map transformerRegistry = Collections.synchronizedMap(new HashMap());
+	private transient volatile Dispatch dispatch;
 
 	/**
 	 * Construct a new SimpleDelegatingTransformer.
@@ -279,8 +307,11 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 			Class sourceClass = ClassUtils.getClass(source);
 			Transformer transformer = getTransformer(destinationType, sourceClass);
 
-			if (hasVisited(source, destinationType)) {
-				return getCachedResult(source, destinationType);
+			if (isTrackingVisitedNodes()) {
+				Object cachedResult = getVisitedNodeTable().get(source, destinationType);
+				if (cachedResult != VisitedNodeTable.NOT_FOUND) {
+					return cachedResult;
+				}
 			}
 			if (transformer instanceof NodeCopier) {
 				NodeCopier nodeCopier = (NodeCopier) transformer;
@@ -299,40 +330,64 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	}
 
 	/**
-	 * Increment the depth of the nested copy stack.
+	 * {@inheritDoc}
 	 */
-	protected void incrementStackDepth() {
-		MutableInteger depth = ((MutableInteger) stackDepthThreadLocal.get());
-		if (depth == null) {
-			stackDepthThreadLocal.set(new MutableInteger(1));
+	protected Object tryConvertImpl(Class destinationType, Object source, Locale locale)
+			throws Exception {
+		Dispatch dispatch = getDispatch();
+		Transformer transformer = findTransformer(dispatch.transformers, dispatch.components,
+				Transformer.class, destinationType, ClassUtils.getClass(source));
+		if (transformer == null) {
+			return NOT_CONVERTED;
 		}
-		else {
-			depth.value++;
+		if (transformer instanceof NodeCopier) {
+			// copying fails by throwing anyway
+			return convertImpl(destinationType, source, locale);
 		}
+		incrementStackDepth();
+		try {
+			if (isTrackingVisitedNodes()) {
+				Object cachedResult = getVisitedNodeTable().get(source, destinationType);
+				if (cachedResult != VisitedNodeTable.NOT_FOUND) {
+					return cachedResult;
+				}
+			}
+			return TransformerUtils.tryConvert((Converter) transformer, destinationType, source,
+					locale);
+		} finally {
+			decrementStackDepth();
+			clearVisitedSourceToDestinationMapIfNecessary();
+		}
+	}
+
+	/**
+	 * Increment the depth of the nested copy stack.
+	 */
+	protected void incrementStackDepth() {
+		VisitedNodeTable table = getVisitedNodeTable();
+		table.setDepth(table.getDepth() + 1);
 	}
 
 	/**
 	 * Decrement the depth of the nested copy stack.
 	 */
 	protected void decrementStackDepth() {
-		MutableInteger depth = ((MutableInteger) stackDepthThreadLocal.get());
-		if (depth == null) {
+		VisitedNodeTable table = getVisitedNodeTable();
+		if (table.getDepth() < 1) {
 			log.warn("recursion stack descended below zero");
 		}
 		else {
-			depth.value--;
-			if (depth.value < 1) {
-				stackDepthThreadLocal.remove();
-			}
+			table.setDepth(table.getDepth() - 1);
 		}
 	}
 
 	/**
-	 * If we have popped everybody off the stack, remove the cache.
+	 * If we have popped everybody off the stack, clear the visited nodes.
 	 */
 	protected void clearVisitedSourceToDestinationMapIfNecessary() {
-		if (stackDepthThreadLocal.get() == null) {
-			visitedSourceToDestinationMapThreadLocal.remove();
+		VisitedNodeTable table = getVisitedNodeTable();
+		if (table.getDepth() < 1) {
+			table.clear();
 		}
 	}
 
@@ -343,8 +398,9 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 * @param destination
 	 */
 	protected void recordVisit(Object source, Class destinationType, Object destination) {
-		Object key = new ObjectPair(source, destinationType);
-		getVisitedSourceToDestinationMap().put(key, destination);
+		if (isTrackingVisitedNodes()) {
+			getVisitedNodeTable().put(source, destinationType, destination);
+		}
 	}
 
 	/**
@@ -355,8 +411,8 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 * @return boolean
 	 */
 	protected boolean hasVisited(Object source, Class destinationType) {
-		Object key = new ObjectPair(source, destinationType);
-		return getVisitedSourceToDestinationMap().containsKey(key);
+		return isTrackingVisitedNodes()
+				&& getVisitedNodeTable().get(source, destinationType) != VisitedNodeTable.NOT_FOUND;
 	}
 
 	/**
@@ -367,11 +423,10 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 * @return boolean
 	 */
 	protected boolean hasVisitedDestination(Object source, Object destination) {
-		//TODO extend HashSet->IdentitySet to handle e.g.:
+		//TODO track destinations as well to handle e.g.:
 		// visit destination a, visit destination b, visit destination b (double b won't find recursion)
-		Class destinationType = ClassUtils.getClass(destination);
-		return hasVisited(source, destinationType)
-				&& getCachedResult(source, destinationType) == destination;
+		return isTrackingVisitedNodes()
+				&& getVisitedNodeTable().get(source, ClassUtils.getClass(destination)) == destination;
 	}
 
 	/**
@@ -381,13 +436,14 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 * @return
 	 */
 	protected Object getCachedResult(Object source, Class destinationType) {
-		Object key = new ObjectPair(source, destinationType);
-		if (!getVisitedSourceToDestinationMap().containsKey(key)) {
+		Object result = isTrackingVisitedNodes() ? getVisitedNodeTable().get(source,
+				destinationType) : VisitedNodeTable.NOT_FOUND;
+		if (result == VisitedNodeTable.NOT_FOUND) {
 			throw new IllegalArgumentException("Cannot return a cached conversion result for "
 					+ ObjectUtils.getObjectDescription(source) + " to destination type '"
 					+ destinationType + "' because that conversion hasn't been performed before");
 		}
-		return getVisitedSourceToDestinationMap().get(key);
+		return result;
 	}
 
 	/**
@@ -425,18 +481,79 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 *         requested transformation
 	 * @throws TransformationException
 	 *             if no suitable transformer could be found
+	 * @deprecated this instance maintains its own non-blocking dispatch
+	 *             tables; use {@link #getTransformer(Class, Class)} or
+	 *             {@link #getCopier(Class, Class)}
 	 */
+	@Deprecated
 	protected Transformer getTransformer(Map registry, Class transformerType,
 			Class destinationClass, Class sourceClass) {
 		ObjectPair key = new ObjectPair(destinationClass, sourceClass);
 		Transformer transformer = (Transformer) registry.get(key);
 		if (transformer == null) {
-			transformer = getTransformer(transformerType, destinationClass, sourceClass);
+			transformer = findTransformer(getDispatch().components, transformerType,
+					destinationClass, sourceClass);
+			if (transformer == null) {
+				throw createNotFoundException(destinationClass, sourceClass);
+			}
 			registry.put(key, transformer);
 		}
 		return transformer;
 	}
 
+	/**
+	 * Look up the delegate of type <code>transformerType</code> for the given
+	 * classes in <code>table</code>, selecting one from
+	 * <code>components</code> the first time the pair is seen.  Lookups
+	 * neither lock nor allocate.
+	 * @throws TransformationException
+	 *             if no suitable transformer could be found
+	 */
+	private Transformer getTransformer(Map table, Object[] components,
+			Class transformerType, Class destinationClass, Class sourceClass) {
+		Transformer transformer = findTransformer(table, components, transformerType,
+				destinationClass, sourceClass);
+		if (transformer == null) {
+			throw createNotFoundException(destinationClass, sourceClass);
+		}
+		return transformer;
+	}
+
+	private static TransformationException createNotFoundException(Class destinationClass,
+			Class sourceClass) {
+		return new TransformationException(
+				"Could not find a transformer that can transform objects of "
+						+ ObjectUtils.getObjectDescription(sourceClass) + " to objects of "
+						+ ObjectUtils.getObjectDescription(destinationClass));
+	}
+
+	/**
+	 * Like {@link #getTransformer(Map, Object[], Class, Class, Class)}, but
+	 * returns <code>null</code> rather than throwing when no suitable
+	 * transformer exists, so that tentative conversions pay nothing for a
+	 * miss.  Misses are not cached.
+	 */
+	private Transformer findTransformer(Map table, Object[] components,
+			Class transformerType, Class destinationClass, Class sourceClass) {
+		Object destinationKey = destinationClass == null ? NULL_KEY : destinationClass;
+		Object sourceKey = sourceClass == null ? NULL_KEY : sourceClass;
+		Map bySourceClass = (Map) table.get(destinationKey);
+		if (bySourceClass == null) {
+			bySourceClass = new ConcurrentHashMap();
+			// a racing thread may replace this map; that only costs a repeated search
+			table.put(destinationKey, bySourceClass);
+		}
+		Transformer transformer = (Transformer) bySourceClass.get(sourceKey);
+		if (transformer == null) {
+			transformer = findTransformer(components, transformerType, destinationClass,
+					sourceClass);
+			if (transformer != null) {
+				bySourceClass.put(sourceKey, transformer);
+			}
+		}
+		return transformer;
+	}
+
 	/**
 	 * Finds a Copier that is capable of transforming <code>sourceClass</code>
 	 * to <code>destinationClass</code>.
@@ -451,7 +568,9 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 *             if no suitable copier could be found
 	 */
 	protected Copier getCopier(Class destinationClass, Class sourceClass) {
-		return (Copier) getTransformer(copierRegistry, Copier.class, destinationClass, sourceClass);
+		Dispatch dispatch = getDispatch();
+		return (Copier) getTransformer(dispatch.copiers, dispatch.components, Copier.class,
+				destinationClass, sourceClass);
 	}
 
 	/**
@@ -468,7 +587,207 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 *             if no suitable transformer could be found
 	 */
 	protected Transformer getTransformer(Class destinationClass, Class sourceClass) {
-		return getTransformer(transformerRegistry, Transformer.class, destinationClass, sourceClass);
+		Dispatch dispatch = getDispatch();
+		return getTransformer(dispatch.transformers, dispatch.components, Transformer.class,
+				destinationClass, sourceClass);
+	}
+
+	/**
+	 * Learn whether this transformer converts immutable instances of
+	 * <code>sourceClass</code> to <code>destinationClass</code> by returning
+	 * them unchanged.  For a primitive <code>destinationClass</code>, this
+	 * means <code>sourceClass</code> is its wrapper and the conversion is
+	 * delegated to a {@link NumberConverter}, which returns the same value.
+	 * Callers converting many values may then skip the conversion.
+	 *
+	 * @param destinationClass
+	 *            the destinationClass of the conversion
+	 * @param sourceClass
+	 *            the sourceClass of the conversion
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isIdentityConversion(Class destinationClass, Class sourceClass) {
+		if (destinationClass == null || sourceClass == null
+				|| !ClassUtils.isImmutable(sourceClass)) {
+			return false;
+		}
+		boolean primitive = destinationClass.isPrimitive();
+		if (primitive ? ClassUtils.getPrimitiveWrapper(destinationClass) != sourceClass
+				: !destinationClass.isAssignableFrom(sourceClass)) {
+			return false;
+		}
+		Transformer delegate = getDelegate(destinationClass, sourceClass);
+		return primitive ? delegate instanceof NumberConverter
+				: delegate instanceof IdentityConverter;
+	}
+
+	/**
+	 * Get the component that ultimately performs the transformation of
+	 * <code>sourceClass</code> to <code>destinationClass</code>, following
+	 * nested SimpleDelegatingTransformers.  Callers transforming many values
+	 * may use this to learn which semantics apply to them.
+	 *
+	 * @param destinationClass
+	 *            the destinationClass of the transformation
+	 * @param sourceClass
+	 *            the sourceClass of the transformation
+	 * @return Transformer, or <code>null</code> if no component can perform
+	 *         the transformation
+	 * @since Morph 2.0
+	 */
+	public Transformer getDelegate(Class destinationClass, Class sourceClass) {
+		Transformer delegate;
+		try {
+			delegate = getTransformer(destinationClass, sourceClass);
+		}
+		catch (TransformationException e) {
+			return null;
+		}
+		if (delegate instanceof SimpleDelegatingTransformer && delegate != this) {
+			return ((SimpleDelegatingTransformer) delegate).getDelegate(destinationClass,
+					sourceClass);
+		}
+		return delegate;
+	}
+
+	/**
+	 * Get the component that ultimately copies <code>sourceClass</code> to
+	 * <code>destinationClass</code>, following nested
+	 * SimpleDelegatingTransformers.
+	 *
+	 * @param destinationClass
+	 *            the destinationClass of the copy
+	 * @param sourceClass
+	 *            the sourceClass of the copy
+	 * @return Copier, or <code>null</code> if no component can perform the
+	 *         copy
+	 * @since Morph 2.0
+	 */
+	public Copier getCopierDelegate(Class destinationClass, Class sourceClass) {
+		Copier delegate;
+		try {
+			delegate = getCopier(destinationClass, sourceClass);
+		}
+		catch (TransformationException e) {
+			return null;
+		}
+		if (delegate instanceof SimpleDelegatingTransformer && delegate != this) {
+			return ((SimpleDelegatingTransformer) delegate).getCopierDelegate(
+					destinationClass, sourceClass);
+		}
+		return delegate;
+	}
+
+	/**
+	 * Write the delegates this transformer has selected so far, so that they
+	 * can be preloaded by {@link #readDispatchSnapshot(InputStream)} in another
+	 * JVM, e.g. after a representative training run.  The output stream is not
+	 * closed.
+	 * @param outputStream
+	 * @throws IOException
+	 * @since Morph 2.0
+	 */
+	public void writeDispatchSnapshot(OutputStream outputStream) throws IOException {
+		Dispatch dispatch = getDispatch();
+		DispatchSnapshot snapshot = new DispatchSnapshot(getFingerprint(dispatch.components));
+		addToSnapshot(snapshot, TRANSFORMERS_TABLE, dispatch.transformers, dispatch.components);
+		addToSnapshot(snapshot, COPIERS_TABLE, dispatch.copiers, dispatch.components);
+		snapshot.write(outputStream);
+	}
+
+	/**
+	 * Preload the delegates recorded by
+	 * {@link #writeDispatchSnapshot(OutputStream)}.  The snapshot is ignored
+	 * unless it was written by a transformer whose components are of the same
+	 * classes, in the same order, with the same source and destination classes
+	 * as the components of this transformer, and each delegate is only
+	 * preloaded if it can still perform its transformation.  The input stream
+	 * is not closed.
+	 * @param inputStream
+	 * @return whether the snapshot was used
+	 * @throws IOException if the snapshot could not be read
+	 * @since Morph 2.0
+	 */
+	public boolean readDispatchSnapshot(InputStream inputStream) throws IOException {
+		DispatchSnapshot snapshot = DispatchSnapshot.read(inputStream);
+		Dispatch dispatch = getDispatch();
+		if (!snapshot.getFingerprint().equals(getFingerprint(dispatch.components))) {
+			return false;
+		}
+		for (int i = 0; i < snapshot.size(); i++) {
+			int component = snapshot.getComponent(i);
+			if (component < 0 || component >= dispatch.components.length) {
+				continue;
+			}
+			boolean copier = COPIERS_TABLE.equals(snapshot.getTable(i));
+			if (copier && !(dispatch.components[component] instanceof Copier)) {
+				continue;
+			}
+			Class destinationClass = snapshot.getFirstClass(i);
+			Class sourceClass = snapshot.getSecondClass(i);
+			if (!TransformerUtils.isTransformable((Transformer) dispatch.components[component],
+					destinationClass, sourceClass)) {
+				continue;
+			}
+			Map table = copier ? dispatch.copiers : dispatch.transformers;
+			Object destinationKey = getKey(destinationClass);
+			Map bySourceClass = (Map) table.get(destinationKey);
+			if (bySourceClass == null) {
+				bySourceClass = new ConcurrentHashMap();
+				table.put(destinationKey, bySourceClass);
+			}
+			Object sourceKey = getKey(sourceClass);
+			if (!bySourceClass.containsKey(sourceKey)) {
+				bySourceClass.put(sourceKey, dispatch.components[component]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Describe the configuration on which the selection of delegates depends.
+	 */
+	private String getFingerprint(Object[] components) {
+		StringBuffer result = new StringBuffer(getClass().getName());
+		result.append(isPreferPreciseTransformers() ? "(precise)" : "()");
+		for (int i = 0; i < components.length; i++) {
+			Transformer transformer = (Transformer) components[i];
+			result.append(' ').append(transformer.getClass().getName());
+			DispatchSnapshot.appendClassNames(result, transformer.getSourceClasses());
+			DispatchSnapshot.appendClassNames(result, transformer.getDestinationClasses());
+		}
+		return result.toString();
+	}
+
+	private static void addToSnapshot(DispatchSnapshot snapshot, String tableName, Map table,
+			Object[] components) {
+		for (Iterator d = table.entrySet().iterator(); d.hasNext();) {
+			Map.Entry byDestination = (Map.Entry) d.next();
+			for (Iterator s = ((Map) byDestination.getValue()).entrySet().iterator(); s
+					.hasNext();) {
+				Map.Entry bySource = (Map.Entry) s.next();
+				snapshot.add(tableName, getClass(byDestination.getKey()), getClass(bySource
+						.getKey()), indexOf(components, bySource.getValue()));
+			}
+		}
+	}
+
+	private static Object getKey(Class c) {
+		return c == null ? NULL_KEY : c;
+	}
+
+	private static Class getClass(Object key) {
+		return key == NULL_KEY ? null : (Class) key;
+	}
+
+	private static int indexOf(Object[] components, Object component) {
+		for (int i = 0; i < components.length; i++) {
+			if (components[i] == component) {
+				return i;
+			}
+		}
+		return -1;
 	}
 
 	/**
@@ -476,6 +795,8 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 * capable of transforming <code>sourceClass</code> to
 	 * <code>destinationClass</code>.
 	 *
+	 * @param components
+	 *            the components to search
 	 * @param transformerType
 	 *            the type of the returned transformer
 	 * @param destinationClass
@@ -483,12 +804,10 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 * @param sourceClass
 	 *            the sourceClass of the transformation
 	 * @return the transformer of the requested type capable of performing the
-	 *         requested transformation
-	 * @throws TransformationException
-	 *             if no suitable transformer could be found
+	 *         requested transformation, or <code>null</code> if there is none
 	 */
-	private Transformer getTransformer(Class transformerType, Class destinationClass,
-			Class sourceClass) throws TransformationException {
+	private Transformer findTransformer(Object[] components, Class transformerType,
+			Class destinationClass, Class sourceClass) {
 		Transformer candidate = null;
 		for (int i = 0; i < components.length; i++) {
 			// if the transformer is the correct type
@@ -517,27 +836,22 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 				return candidate;
 			}
 		}
-		throw new TransformationException(
-				"Could not find a transformer that can transform objects of "
-						+ ObjectUtils.getObjectDescription(sourceClass) + " to objects of "
-						+ ObjectUtils.getObjectDescription(destinationClass));
+		return null;
 	}
 
 	/**
 	 * Get our components as a typesafe Transformer array.
 	 * @return Transformer[]
 	 */
-	public synchronized Transformer[] getTransformers() {
+	public Transformer[] getTransformers() {
 		return (Transformer[]) getComponents();
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
-	public synchronized Object[] getComponents() {
-		if (components == null) {
-			setComponents(createDefaultComponents());
-		}
+	public Object[] getComponents() {
+		getDispatch();
 		return super.getComponents();
 	}
 
@@ -549,14 +863,34 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 			return;
 		}
 		this.components = components;
-		transformerRegistry.clear();
-		copierRegistry.clear();
+		dispatch = components == null ? null : new Dispatch(components);
 
 		if (components != null) {
 			updateNestedTransformerComponents(getNestedTransformer(), null);
 		}
 	}
 
+	/**
+	 * Get the current Dispatch, creating the default components if none have
+	 * been set.
+	 * @return Dispatch
+	 */
+	private Dispatch getDispatch() {
+		Dispatch result = dispatch;
+		if (result == null) {
+			synchronized (this) {
+				if (components == null) {
+					setComponents(createDefaultComponents());
+				}
+				else if (dispatch == null) {
+					dispatch = new Dispatch(components);
+				}
+				result = dispatch;
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * Let the delegate do the logging
 	 */
@@ -578,24 +912,63 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 	 */
 	public Object clone() throws CloneNotSupportedException {
 		SimpleDelegatingTransformer result = (SimpleDelegatingTransformer) super.clone();
-		result.copierRegistry = Collections.synchronizedMap(new HashMap());
-		result.transformerRegistry = Collections.synchronizedMap(new HashMap());
-		result.visitedSourceToDestinationMapThreadLocal = new MapThreadLocal();
-		result.stackDepthThreadLocal = new ThreadLocal();
+		result.dispatch = components == null ? null : new Dispatch(components);
+		result.visitedNodeTableThreadLocal = new VisitedNodeTableThreadLocal();
 		return result;
 	}
 
 	/**
-	 * Gets a Map of all the nodes in the object graph that have been
-	 * transformed so far by this transformer. The keys in the Map are the
-	 * visited source nodes, and the values are the converted representation of
-	 * the node.
+	 * Gets the table of all the nodes in the object graph that have been
+	 * transformed so far by this transformer on the current thread, mapping
+	 * each visited source node and destination type, by identity, to the
+	 * converted representation of the node.
 	 *
-	 * @return a Map of all the nodes in the object graph that have been
-	 *         transformed so far by this transformer
+	 * @return VisitedNodeTable
+	 * @since Morph 2.0
 	 */
+	public VisitedNodeTable getVisitedNodeTable() {
+		return (VisitedNodeTable) visitedNodeTableThreadLocal.get();
+	}
+
+	/**
+	 * This method will be removed in a subsequent release of Morph.  Left
+	 * in-place so that subclasses calling it still compile and link.
+	 *
+	 * @return never returns normally
+	 * @deprecated visited nodes are no longer kept in a Map; use
+	 *             {@link #getVisitedNodeTable()} instead.  Calls to this method
+	 *             will fail with an {@link UnsupportedOperationException}
+	 */
+	@Deprecated
 	protected Map getVisitedSourceToDestinationMap() {
-		return (Map) visitedSourceToDestinationMapThreadLocal.get();
+		throw new UnsupportedOperationException(
+				"Deprecated method - use SimpleDelegatingTransformer.getVisitedNodeTable() instead");
+	}
+
+	/**
+	 * Run <code>task</code> on the current thread, recording the nodes visited
+	 * by this transformer in <code>visitedNodeTable</code> instead of the
+	 * table of the current thread.  The table is not cleared between the
+	 * transformations made by <code>task</code>, so they are treated as parts
+	 * of one transformation.  This lets a transformation be split across
+	 * threads: each part runs with its own table, whose parent is the table of
+	 * the thread that split the transformation.
+	 * @param task
+	 * @param visitedNodeTable
+	 * @since Morph 2.0
+	 */
+	public void runWithVisitedNodeTable(Runnable task, VisitedNodeTable visitedNodeTable) {
+		VisitedNodeTable previous = getVisitedNodeTable();
+		int depth = visitedNodeTable.getDepth();
+		visitedNodeTable.setDepth(depth + 1);
+		visitedNodeTableThreadLocal.set(visitedNodeTable);
+		try {
+			task.run();
+		}
+		finally {
+			visitedNodeTable.setDepth(depth);
+			visitedNodeTableThreadLocal.set(previous);
+		}
 	}
 
 	/**
@@ -643,4 +1016,27 @@ public class SimpleDelegatingTransformer extends BaseCompositeTransformer implem
 		this.preferPreciseTransformers = preferPreciseTransformers;
 	}
 
+	/**
+	 * Learn whether this SDT remembers the nodes it has visited, so that
+	 * shared references and cycles in the source graph are reproduced in the
+	 * destination graph.  Default <code>true</code>.
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public boolean isTrackingVisitedNodes() {
+		return trackingVisitedNodes;
+	}
+
+	/**
+	 * Set whether this SDT remembers the nodes it has visited.  Turning this
+	 * off saves the bookkeeping for graphs known to be trees; a cyclic graph
+	 * transformed this way will overflow the stack, and a node reachable by
+	 * more than one path will be transformed once per path.
+	 * @param trackingVisitedNodes
+	 * @since Morph 2.0
+	 */
+	public void setTrackingVisitedNodes(boolean trackingVisitedNodes) {
+		this.trackingVisitedNodes = trackingVisitedNodes;
+	}
+
 }
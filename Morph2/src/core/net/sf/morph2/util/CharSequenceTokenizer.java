@@ -0,0 +1,264 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.util;
+
+import java.util.BitSet;
+import java.util.Enumeration;
+import java.util.NoSuchElementException;
+
+/**
+ * Tokenizes a CharSequence in a single pass.  Ignored characters are skipped
+ * as though they had been removed from the text beforehand, and delimiter
+ * characters separate tokens as in a {@link java.util.StringTokenizer}.
+ * Tokens are recorded as ranges of the original text, so a token is only
+ * copied when it is requested as a String, and {@link #peekDigits()} reads
+ * numeric tokens without copying them at all.
+ *
+ * @since Morph 2.0
+ */
+public class CharSequenceTokenizer implements Enumeration {
+	/** longest digit string that always fits in a long */
+	private static final int MAX_DIGITS = 18;
+
+	private static final boolean[] NO_CHARACTERS = new boolean[0];
+
+	private final CharSequence text;
+	private final boolean[] ignoredCharacters;
+	private int[] starts = new int[16];
+	private int[] ends = new int[16];
+	/** tokens with ignored characters inside them */
+	private BitSet ignoringTokens;
+	private int count;
+	private int position;
+
+	/**
+	 * Create a new CharSequenceTokenizer.
+	 * @param text
+	 * @param delimiters
+	 */
+	public CharSequenceTokenizer(CharSequence text, String delimiters) {
+		this(text, delimiters, null);
+	}
+
+	/**
+	 * Create a new CharSequenceTokenizer.
+	 * @param text
+	 * @param delimiters
+	 * @param ignoredCharacters
+	 */
+	public CharSequenceTokenizer(CharSequence text, String delimiters, String ignoredCharacters) {
+		this(text, createLookupTable(delimiters), createLookupTable(ignoredCharacters));
+	}
+
+	/**
+	 * Create a new CharSequenceTokenizer from lookup tables created by
+	 * {@link #createLookupTable(String)}.
+	 * @param text
+	 * @param delimiters
+	 * @param ignoredCharacters
+	 */
+	public CharSequenceTokenizer(CharSequence text, boolean[] delimiters,
+			boolean[] ignoredCharacters) {
+		Assert.notNull(text, "text");
+		this.text = text;
+		this.ignoredCharacters = ignoredCharacters == null ? NO_CHARACTERS : ignoredCharacters;
+		scan(delimiters == null ? NO_CHARACTERS : delimiters);
+	}
+
+	/**
+	 * Create a lookup table of the specified characters for use by
+	 * CharSequenceTokenizers.
+	 * @param characters
+	 * @return boolean[] indexed by character
+	 */
+	public static boolean[] createLookupTable(String characters) {
+		if (characters == null) {
+			return NO_CHARACTERS;
+		}
+		int max = -1;
+		for (int i = 0; i < characters.length(); i++) {
+			max = Math.max(max, characters.charAt(i));
+		}
+		boolean[] result = new boolean[max + 1];
+		for (int i = 0; i < characters.length(); i++) {
+			result[characters.charAt(i)] = true;
+		}
+		return result;
+	}
+
+	private static boolean contains(boolean[] table, char c) {
+		return c < table.length && table[c];
+	}
+
+	/**
+	 * Record the range of each token.
+	 * @param delimiters
+	 */
+	private void scan(boolean[] delimiters) {
+		int start = -1;
+		int end = -1;
+		boolean ignoring = false;
+		boolean ignored = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (contains(ignoredCharacters, c)) {
+				ignoring = start >= 0;
+			}
+			else if (contains(delimiters, c)) {
+				if (start >= 0) {
+					add(start, end, ignored);
+					start = -1;
+				}
+				ignoring = false;
+				ignored = false;
+			}
+			else {
+				if (start < 0) {
+					start = i;
+				}
+				else if (ignoring) {
+					ignored = true;
+				}
+				ignoring = false;
+				end = i + 1;
+			}
+		}
+		if (start >= 0) {
+			add(start, end, ignored);
+		}
+	}
+
+	private void add(int start, int end, boolean ignored) {
+		if (count == starts.length) {
+			int[] newStarts = new int[count * 2];
+			int[] newEnds = new int[count * 2];
+			System.arraycopy(starts, 0, newStarts, 0, count);
+			System.arraycopy(ends, 0, newEnds, 0, count);
+			starts = newStarts;
+			ends = newEnds;
+		}
+		if (ignored) {
+			if (ignoringTokens == null) {
+				ignoringTokens = new BitSet();
+			}
+			ignoringTokens.set(count);
+		}
+		starts[count] = start;
+		ends[count++] = end;
+	}
+
+	private boolean isIgnoring(int token) {
+		return ignoringTokens != null && ignoringTokens.get(token);
+	}
+
+	/**
+	 * Learn whether there are more tokens.
+	 * @return boolean
+	 */
+	public boolean hasMoreTokens() {
+		return position < count;
+	}
+
+	/**
+	 * Get the next token.
+	 * @return String
+	 * @throws NoSuchElementException if there are no more tokens
+	 */
+	public String nextToken() {
+		checkMoreTokens();
+		int start = starts[position];
+		int end = ends[position];
+		if (!isIgnoring(position++)) {
+			return text.subSequence(start, end).toString();
+		}
+		StringBuffer buffer = new StringBuffer(end - start);
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (!contains(ignoredCharacters, c)) {
+				buffer.append(c);
+			}
+		}
+		return buffer.toString();
+	}
+
+	/**
+	 * Skip the next token.
+	 * @throws NoSuchElementException if there are no more tokens
+	 */
+	public void skipToken() {
+		checkMoreTokens();
+		position++;
+	}
+
+	/**
+	 * Get the value of the next token, without consuming it, if the token
+	 * consists of no more than 18 ASCII digits.
+	 * @return the value of the next token, or -1 if it is not a short enough
+	 *         string of digits
+	 * @throws NoSuchElementException if there are no more tokens
+	 */
+	public long peekDigits() {
+		checkMoreTokens();
+		int start = starts[position];
+		int end = ends[position];
+		if (end - start > MAX_DIGITS || isIgnoring(position)) {
+			return -1;
+		}
+		long result = 0;
+		for (int i = start; i < end; i++) {
+			char c = text.charAt(i);
+			if (c < '0' || c > '9') {
+				return -1;
+			}
+			result = result * 10 + c - '0';
+		}
+		return result;
+	}
+
+	/**
+	 * Count the remaining tokens.
+	 * @return int
+	 */
+	public int countTokens() {
+		return count - position;
+	}
+
+	private void checkMoreTokens() {
+		if (position >= count) {
+			throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public boolean hasMoreElements() {
+		return hasMoreTokens();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object nextElement() {
+		return nextToken();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public String toString() {
+		return "CharSequenceTokenizer[tokens=" + count + ",position=" + position + "]";
+	}
+
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes class files for the classes Morph generates at runtime.  Only what
+ * the generators need is supported: a public final class with public
+ * methods whose code contains no branches, so that no stack map frames are
+ * required.  Generated classes are defined by
+ * {@link #defineClass(String, byte[], ClassLoader, Class[])}, each in its
+ * own ClassLoader, so they can be collected along with the classes they
+ * refer to.
+ *
+ * @since Morph 2.0
+ */
+public class ClassFileWriter {
+
+	private static final int CLASS_VERSION = 49;
+
+	private static final int ACC_PUBLIC = 0x0001;
+	private static final int ACC_FINAL = 0x0010;
+	private static final int ACC_SUPER = 0x0020;
+
+	private static final int CONSTANT_UTF8 = 1;
+	private static final int CONSTANT_CLASS = 7;
+	private static final int CONSTANT_FIELDREF = 9;
+	private static final int CONSTANT_METHODREF = 10;
+	private static final int CONSTANT_INTERFACE_METHODREF = 11;
+	private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+	/**
+	 * Defines one generated class, resolving the classes it refers to
+	 * exactly as they were supplied.
+	 */
+	private static class GeneratedClassLoader extends ClassLoader {
+		private final Map classes = new HashMap();
+
+		GeneratedClassLoader(ClassLoader parent, Class[] visibleClasses) {
+			super(parent);
+			for (int i = 0; i < visibleClasses.length; i++) {
+				Class c = visibleClasses[i];
+				while (c.isArray()) {
+					c = c.getComponentType();
+				}
+				if (!c.isPrimitive()) {
+					classes.put(c.getName(), c);
+				}
+			}
+		}
+
+		protected synchronized Class loadClass(String name, boolean resolve)
+				throws ClassNotFoundException {
+			Class result = (Class) classes.get(name);
+			return result == null ? super.loadClass(name, resolve) : result;
+		}
+
+		Class define(String name, byte[] bytecode) {
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+
+	private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+	private final DataOutputStream pool = new DataOutputStream(poolBytes);
+	private final Map indexes = new HashMap();
+	private int count = 1;
+
+	private final ByteArrayOutputStream methodBytes = new ByteArrayOutputStream();
+	private final DataOutputStream methods = new DataOutputStream(methodBytes);
+	private int methodCount;
+
+	private final String className;
+	private final Class superClass;
+	private final Class[] interfaces;
+
+	/**
+	 * Create a new ClassFileWriter.
+	 * @param className the binary name of the generated class
+	 * @param superClass
+	 * @param interfaces
+	 */
+	public ClassFileWriter(String className, Class superClass, Class[] interfaces) {
+		this.className = className;
+		this.superClass = superClass;
+		this.interfaces = interfaces == null ? new Class[0] : interfaces;
+	}
+
+	/**
+	 * Get the constant pool index of a UTF8 constant.
+	 * @param value
+	 * @return int
+	 * @throws IOException
+	 */
+	public int utf8(String value) throws IOException {
+		String key = "U" + value;
+		Integer index = (Integer) indexes.get(key);
+		if (index == null) {
+			pool.writeByte(CONSTANT_UTF8);
+			pool.writeUTF(value);
+			index = register(key);
+		}
+		return index.intValue();
+	}
+
+	/**
+	 * Get the constant pool index of a class constant.
+	 * @param internalName
+	 * @return int
+	 * @throws IOException
+	 */
+	public int classRef(String internalName) throws IOException {
+		String key = "C" + internalName;
+		Integer index = (Integer) indexes.get(key);
+		if (index == null) {
+			int name = utf8(internalName);
+			pool.writeByte(CONSTANT_CLASS);
+			pool.writeShort(name);
+			index = register(key);
+		}
+		return index.intValue();
+	}
+
+	/**
+	 * Get the constant pool index of a field reference.
+	 * @param owner internal name of the declaring class
+	 * @param name
+	 * @param descriptor
+	 * @return int
+	 * @throws IOException
+	 */
+	public int fieldRef(String owner, String name, String descriptor) throws IOException {
+		return memberRef(CONSTANT_FIELDREF, owner, name, descriptor);
+	}
+
+	/**
+	 * Get the constant pool index of a class method reference.
+	 * @param owner internal name of the declaring class
+	 * @param name
+	 * @param descriptor
+	 * @return int
+	 * @throws IOException
+	 */
+	public int methodRef(String owner, String name, String descriptor) throws IOException {
+		return memberRef(CONSTANT_METHODREF, owner, name, descriptor);
+	}
+
+	/**
+	 * Get the constant pool index of an interface method reference.
+	 * @param owner internal name of the declaring interface
+	 * @param name
+	 * @param descriptor
+	 * @return int
+	 * @throws IOException
+	 */
+	public int interfaceMethodRef(String owner, String name, String descriptor)
+			throws IOException {
+		return memberRef(CONSTANT_INTERFACE_METHODREF, owner, name, descriptor);
+	}
+
+	private int memberRef(int tag, String owner, String name, String descriptor)
+			throws IOException {
+		String key = String.valueOf(tag) + owner + '.' + name + descriptor;
+		Integer index = (Integer) indexes.get(key);
+		if (index == null) {
+			int ownerIndex = classRef(owner);
+			int nameIndex = utf8(name);
+			int descriptorIndex = utf8(descriptor);
+			pool.writeByte(CONSTANT_NAME_AND_TYPE);
+			pool.writeShort(nameIndex);
+			pool.writeShort(descriptorIndex);
+			int nameAndType = count++;
+			pool.writeByte(tag);
+			pool.writeShort(ownerIndex);
+			pool.writeShort(nameAndType);
+			index = register(key);
+		}
+		return index.intValue();
+	}
+
+	private Integer register(String key) {
+		Integer result = Integer.valueOf(count++);
+		indexes.put(key, result);
+		return result;
+	}
+
+	/**
+	 * Add a public method.
+	 * @param name
+	 * @param descriptor
+	 * @param maxStack
+	 * @param maxLocals
+	 * @param code
+	 * @throws IOException
+	 */
+	public void addMethod(String name, String descriptor, int maxStack, int maxLocals,
+			byte[] code) throws IOException {
+		int nameIndex = utf8(name);
+		int descriptorIndex = utf8(descriptor);
+		int codeAttribute = utf8("Code");
+		methods.writeShort(ACC_PUBLIC);
+		methods.writeShort(nameIndex);
+		methods.writeShort(descriptorIndex);
+		methods.writeShort(1);
+		methods.writeShort(codeAttribute);
+		methods.writeInt(12 + code.length);
+		methods.writeShort(maxStack);
+		methods.writeShort(maxLocals);
+		methods.writeInt(code.length);
+		methods.write(code);
+		methods.writeShort(0); // exception table
+		methods.writeShort(0); // attributes
+		methodCount++;
+	}
+
+	/**
+	 * Get the class file.
+	 * @return byte[]
+	 * @throws IOException
+	 */
+	public byte[] toByteArray() throws IOException {
+		int thisClass = classRef(className.replace('.', '/'));
+		int superClassIndex = classRef(getInternalName(superClass));
+		int[] interfaceIndexes = new int[interfaces.length];
+		for (int i = 0; i < interfaces.length; i++) {
+			interfaceIndexes[i] = classRef(getInternalName(interfaces[i]));
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0xCAFEBABE);
+		out.writeShort(0);
+		out.writeShort(CLASS_VERSION);
+		out.writeShort(count);
+		pool.flush();
+		poolBytes.writeTo(out);
+		out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+		out.writeShort(thisClass);
+		out.writeShort(superClassIndex);
+		out.writeShort(interfaceIndexes.length);
+		for (int i = 0; i < interfaceIndexes.length; i++) {
+			out.writeShort(interfaceIndexes[i]);
+		}
+		out.writeShort(0); // fields
+		out.writeShort(methodCount);
+		methods.flush();
+		methodBytes.writeTo(out);
+		out.writeShort(0); // attributes
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Write an instruction with a two byte operand.
+	 * @param code
+	 * @param opcode
+	 * @param operand
+	 */
+	public static void writeInstruction(ByteArrayOutputStream code, int opcode, int operand) {
+		code.write(opcode);
+		code.write(operand >> 8);
+		code.write(operand);
+	}
+
+	/**
+	 * Define a generated class in a new ClassLoader.
+	 * @param className the binary name of the class
+	 * @param bytecode
+	 * @param parent the parent of the new ClassLoader
+	 * @param visibleClasses classes the generated class refers to, which are
+	 *            resolved as given even if <code>parent</code> cannot see
+	 *            them
+	 * @return Class
+	 */
+	public static Class defineClass(String className, byte[] bytecode, ClassLoader parent,
+			Class[] visibleClasses) {
+		return new GeneratedClassLoader(parent, visibleClasses).define(className, bytecode);
+	}
+
+	/**
+	 * Learn whether generated code may refer to <code>type</code>, i.e.
+	 * whether it and all its enclosing classes are public.
+	 * @param type
+	 * @return boolean
+	 */
+	public static boolean isAccessible(Class type) {
+		for (Class c = type; c != null; c = c.getDeclaringClass()) {
+			if (!Modifier.isPublic(c.getModifiers())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Get the internal name of <code>type</code>, as used in class files.
+	 * @param type
+	 * @return String
+	 */
+	public static String getInternalName(Class type) {
+		return type.getName().replace('.', '/');
+	}
+
+	/**
+	 * Get the descriptor of a method.
+	 * @param parameterTypes
+	 * @param returnType
+	 * @return String
+	 */
+	public static String getMethodDescriptor(Class[] parameterTypes, Class returnType) {
+		StringBuffer result = new StringBuffer("(");
+		for (int i = 0; i < parameterTypes.length; i++) {
+			result.append(getDescriptor(parameterTypes[i]));
+		}
+		return result.append(')').append(getDescriptor(returnType)).toString();
+	}
+
+	/**
+	 * Get the descriptor of <code>type</code>.
+	 * @param type
+	 * @return String
+	 */
+	public static String getDescriptor(Class type) {
+		if (type.isArray()) {
+			return getInternalName(type);
+		}
+		if (type.isPrimitive()) {
+			if (type == void.class) {
+				return "V";
+			}
+			if (type == boolean.class) {
+				return "Z";
+			}
+			if (type == byte.class) {
+				return "B";
+			}
+			if (type == char.class) {
+				return "C";
+			}
+			if (type == short.class) {
+				return "S";
+			}
+			if (type == int.class) {
+				return "I";
+			}
+			if (type == long.class) {
+				return "J";
+			}
+			if (type == float.class) {
+				return "F";
+			}
+			return "D";
+		}
+		return "L" + getInternalName(type) + ";";
+	}
+
+}
@@ -13,13 +13,16 @@
  */
 package net.sf.morph2.util;
 
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.MorphException;
@@ -40,6 +43,9 @@ import net.sf.morph2.transform.TransformationException;
  */
 public abstract class ClassUtils extends net.sf.composite.util.ClassUtils {
 
+	/** map of Class to Map of method name array to Boolean: see isOverridingAny */
+	private static final WeakClassCache overridingMethods = new WeakClassCache();
+
 	/**
 	 * All the base array classes.  Multidimensional arrays are subclasses of
 	 * these fundamental array types.
@@ -345,4 +351,42 @@ public abstract class ClassUtils extends net.sf.composite.util.ClassUtils {
 		return (Class[]) ALL_CLASSES.toArray(new Class[ALL_CLASSES.size()]);
 	}
 
+	/**
+	 * Learn whether <code>type</code>, or one of its superclasses below
+	 * <code>baseClass</code>, declares a method named in
+	 * <code>methodNames</code>.  Classes use this to fall back from an
+	 * optimization that would bypass methods a subclass may override.  The
+	 * results are cached by <code>type</code> and by the identity of
+	 * <code>methodNames</code>, so callers should pass the same constant array
+	 * with the same <code>baseClass</code> each time; the cache does not
+	 * prevent <code>type</code> from being unloaded.
+	 * @param type
+	 * @param baseClass a superclass of <code>type</code>
+	 * @param methodNames
+	 * @return boolean
+	 * @since Morph 2.0
+	 */
+	public static boolean isOverridingAny(Class type, Class baseClass, String[] methodNames) {
+		Map results = (Map) overridingMethods.get(type);
+		if (results == null) {
+			results = new ConcurrentHashMap();
+			overridingMethods.put(type, results);
+		}
+		Boolean result = (Boolean) results.get(methodNames);
+		if (result == null) {
+			result = Boolean.FALSE;
+			Set names = new HashSet(Arrays.asList(methodNames));
+			for (Class c = type; c != baseClass && c != null; c = c.getSuperclass()) {
+				Method[] methods = c.getDeclaredMethods();
+				for (int i = 0; i < methods.length; i++) {
+					if (names.contains(methods[i].getName())) {
+						result = Boolean.TRUE;
+					}
+				}
+			}
+			results.put(methodNames, result);
+		}
+		return result.booleanValue();
+	}
+
 }
@@ -0,0 +1,231 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The delegate selections made by a delegating composite, such as a
+ * {@link net.sf.morph2.transform.transformers.SimpleDelegatingTransformer},
+ * recorded so that another JVM can reuse them instead of selecting its
+ * delegates again.  Each selection maps a table name and a pair of classes
+ * to the index of the chosen component, or to <code>-1</code> if no
+ * component was suitable.  A snapshot carries a fingerprint of the
+ * composite's configuration, which the composite compares to its own before
+ * using the selections.  Selections involving classes that cannot be loaded
+ * are dropped when a snapshot is read.
+ *
+ * @since Morph 2.0
+ */
+public class DispatchSnapshot {
+	private static final int MAGIC = 0x4d445331;
+	private static final String ENCODING = "UTF-8";
+	/** longest fingerprint accepted by read, in bytes */
+	private static final int MAX_FINGERPRINT_LENGTH = 1 << 24;
+
+	private final String fingerprint;
+	private final List tables = new ArrayList();
+	private final List firstClasses = new ArrayList();
+	private final List secondClasses = new ArrayList();
+	private final List components = new ArrayList();
+
+	/**
+	 * Create a new DispatchSnapshot.
+	 * @param fingerprint a description of the configuration of the composite
+	 */
+	public DispatchSnapshot(String fingerprint) {
+		Assert.notNull(fingerprint, "fingerprint");
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Record a selection.
+	 * @param table
+	 * @param firstClass may be <code>null</code>
+	 * @param secondClass may be <code>null</code>
+	 * @param component index of the selected component, or <code>-1</code>
+	 */
+	public void add(String table, Class firstClass, Class secondClass, int component) {
+		Assert.notNull(table, "table");
+		tables.add(table);
+		firstClasses.add(firstClass);
+		secondClasses.add(secondClass);
+		components.add(Integer.valueOf(component));
+	}
+
+	/**
+	 * Get the fingerprint of this DispatchSnapshot.
+	 * @return String
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * Get the number of selections recorded.
+	 * @return int
+	 */
+	public int size() {
+		return tables.size();
+	}
+
+	/**
+	 * Get the table of selection <code>i</code>.
+	 * @param i
+	 * @return String
+	 */
+	public String getTable(int i) {
+		return (String) tables.get(i);
+	}
+
+	/**
+	 * Get the first class of selection <code>i</code>.
+	 * @param i
+	 * @return Class
+	 */
+	public Class getFirstClass(int i) {
+		return (Class) firstClasses.get(i);
+	}
+
+	/**
+	 * Get the second class of selection <code>i</code>.
+	 * @param i
+	 * @return Class
+	 */
+	public Class getSecondClass(int i) {
+		return (Class) secondClasses.get(i);
+	}
+
+	/**
+	 * Get the component index of selection <code>i</code>.
+	 * @param i
+	 * @return int
+	 */
+	public int getComponent(int i) {
+		return ((Integer) components.get(i)).intValue();
+	}
+
+	/**
+	 * Write this DispatchSnapshot.  The output stream is not closed.
+	 * @param outputStream
+	 * @throws IOException
+	 */
+	public void write(OutputStream outputStream) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+		out.writeInt(MAGIC);
+		// the fingerprint may be too long for writeUTF
+		byte[] fingerprintBytes = fingerprint.getBytes(ENCODING);
+		out.writeInt(fingerprintBytes.length);
+		out.write(fingerprintBytes);
+		out.writeInt(size());
+		for (int i = 0; i < size(); i++) {
+			out.writeUTF(getTable(i));
+			out.writeUTF(getName(getFirstClass(i)));
+			out.writeUTF(getName(getSecondClass(i)));
+			out.writeInt(getComponent(i));
+		}
+		out.flush();
+	}
+
+	/**
+	 * Read a DispatchSnapshot written by {@link #write(OutputStream)}.  The
+	 * input stream is not closed.
+	 * @param inputStream
+	 * @return DispatchSnapshot
+	 * @throws IOException if the stream could not be read or does not hold a
+	 *         DispatchSnapshot
+	 */
+	public static DispatchSnapshot read(InputStream inputStream) throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a dispatch snapshot");
+		}
+		int fingerprintLength = in.readInt();
+		if (fingerprintLength < 0 || fingerprintLength > MAX_FINGERPRINT_LENGTH) {
+			throw new IOException("Invalid dispatch snapshot fingerprint length "
+					+ fingerprintLength);
+		}
+		byte[] fingerprintBytes = new byte[fingerprintLength];
+		in.readFully(fingerprintBytes);
+		DispatchSnapshot result = new DispatchSnapshot(new String(fingerprintBytes, ENCODING));
+		int size = in.readInt();
+		if (size < 0) {
+			throw new IOException("Invalid dispatch snapshot size " + size);
+		}
+		for (int i = 0; i < size; i++) {
+			String table = in.readUTF();
+			String firstName = in.readUTF();
+			String secondName = in.readUTF();
+			int component = in.readInt();
+			try {
+				result.add(table, forName(firstName), forName(secondName), component);
+			}
+			catch (ClassNotFoundException e) {
+				// the selection is of no use in this JVM
+			}
+		}
+		return result;
+	}
+
+	private static String getName(Class c) {
+		return c == null ? "" : c.getName();
+	}
+
+	private static Class forName(String name) throws ClassNotFoundException {
+		if (name.length() == 0) {
+			return null;
+		}
+		Class[] primitiveTypes = ClassUtils.getPrimitiveTypes();
+		for (int i = 0; i < primitiveTypes.length; i++) {
+			if (primitiveTypes[i].getName().equals(name)) {
+				return primitiveTypes[i];
+			}
+		}
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) {
+			classLoader = DispatchSnapshot.class.getClassLoader();
+		}
+		return Class.forName(name, false, classLoader);
+	}
+
+	/**
+	 * Append the sorted names of <code>classes</code> to a fingerprint.  The
+	 * names are sorted because some components build their class arrays from
+	 * hashed collections.
+	 * @param fingerprint
+	 * @param classes may be <code>null</code>
+	 */
+	public static void appendClassNames(StringBuffer fingerprint, Class[] classes) {
+		String[] names = new String[classes == null ? 0 : classes.length];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = getName(classes[i]);
+		}
+		Arrays.sort(names);
+		fingerprint.append('[');
+		for (int i = 0; i < names.length; i++) {
+			if (i > 0) {
+				fingerprint.append(',');
+			}
+			fingerprint.append(names[i]);
+		}
+		fingerprint.append(']');
+	}
+}
@@ -207,6 +207,37 @@ public abstract class NumberUtils {
 	 */
 	public static final BigDecimal ZERO = new BigDecimal("0");
 
+	/**
+	 * The primitive number types, as returned by
+	 * {@link #getPrimitiveNumberType(Class)}.
+	 * @since Morph 2.0
+	 */
+	public static final int BYTE_TYPE = 0;
+	public static final int SHORT_TYPE = 1;
+	public static final int INT_TYPE = 2;
+	public static final int LONG_TYPE = 3;
+	public static final int FLOAT_TYPE = 4;
+	public static final int DOUBLE_TYPE = 5;
+	public static final int NO_PRIMITIVE_TYPE = -1;
+
+	/**
+	 * The largest magnitude of a long that a float represents exactly.
+	 * @since Morph 2.0
+	 */
+	public static final long MAX_EXACT_FLOAT = 1L << 24;
+
+	/**
+	 * The largest magnitude of a long that a double represents exactly.
+	 * @since Morph 2.0
+	 */
+	public static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+	private static final Class[] PRIMITIVE_NUMBER_TYPES = { byte.class, short.class,
+			int.class, long.class, float.class, double.class };
+
+	private static final Class[] PRIMITIVE_NUMBER_WRAPPERS = { Byte.class, Short.class,
+			Integer.class, Long.class, Float.class, Double.class };
+
 	static {
 		// the .TYPE entries probably aren't needed, but they don't hurt
 		// anything :)
@@ -428,10 +459,81 @@ public abstract class NumberUtils {
 	 * @param type
 	 * @return Class
 	 */
+	@Deprecated
 	public static Class getWrapperForPrimitiveType(Class type) {
 		return (Class) WRAPPERS_FOR_PRIMITIVE_TYPES.get(type);
 	}
 
+	/**
+	 * Get the primitive number type of <code>type</code>, which may be a
+	 * primitive number class or its wrapper.
+	 * @param type
+	 * @return one of the <code>*_TYPE</code> constants of this class, or
+	 *         {@link #NO_PRIMITIVE_TYPE}
+	 * @since Morph 2.0
+	 */
+	public static int getPrimitiveNumberType(Class type) {
+		for (int i = 0; i < PRIMITIVE_NUMBER_TYPES.length; i++) {
+			if (PRIMITIVE_NUMBER_TYPES[i] == type || PRIMITIVE_NUMBER_WRAPPERS[i] == type) {
+				return i;
+			}
+		}
+		return NO_PRIMITIVE_TYPE;
+	}
+
+	/**
+	 * Store <code>value</code> at <code>index</code> of
+	 * <code>array</code>, an array of the primitive number type
+	 * <code>type</code>, if the element type represents it exactly.
+	 * @param array
+	 * @param type the primitive number type of the elements of
+	 *        <code>array</code>, as returned by
+	 *        {@link #getPrimitiveNumberType(Class)}
+	 * @param index
+	 * @param value
+	 * @return whether the value was stored
+	 * @since Morph 2.0
+	 */
+	public static boolean storeExactly(Object array, int type, int index, long value) {
+		switch (type) {
+		case BYTE_TYPE:
+			if (value != (byte) value) {
+				return false;
+			}
+			((byte[]) array)[index] = (byte) value;
+			return true;
+		case SHORT_TYPE:
+			if (value != (short) value) {
+				return false;
+			}
+			((short[]) array)[index] = (short) value;
+			return true;
+		case INT_TYPE:
+			if (value != (int) value) {
+				return false;
+			}
+			((int[]) array)[index] = (int) value;
+			return true;
+		case LONG_TYPE:
+			((long[]) array)[index] = value;
+			return true;
+		case FLOAT_TYPE:
+			if (value > MAX_EXACT_FLOAT || value < -MAX_EXACT_FLOAT) {
+				return false;
+			}
+			((float[]) array)[index] = value;
+			return true;
+		case DOUBLE_TYPE:
+			if (value > MAX_EXACT_DOUBLE || value < -MAX_EXACT_DOUBLE) {
+				return false;
+			}
+			((double[]) array)[index] = value;
+			return true;
+		default:
+			return false;
+		}
+	}
+
 	/**
 	 * Get a number from a String.
 	 * @param type
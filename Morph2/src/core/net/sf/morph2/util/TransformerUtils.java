@@ -28,6 +28,7 @@ import net.sf.morph2.transform.Copier;
 import net.sf.morph2.transform.ExplicitTransformer;
 import net.sf.morph2.transform.ImpreciseTransformer;
 import net.sf.morph2.transform.NestingAwareTransformer;
+import net.sf.morph2.transform.TentativeConverter;
 import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.TransformationType;
 import net.sf.morph2.transform.Transformer;
@@ -115,6 +116,32 @@ public abstract class TransformerUtils {
 		return destinationClass == null && sourceClass != null;
 	}
 
+	/**
+	 * Attempt to convert <code>source</code> to <code>destinationClass</code>
+	 * using <code>converter</code>, without throwing an exception if the
+	 * conversion fails.
+	 * @param converter
+	 * @param destinationClass
+	 * @param source
+	 * @param locale
+	 * @return the result of the conversion or
+	 *         {@link TentativeConverter#NOT_CONVERTED}
+	 * @see TentativeConverter
+	 * @since Morph 2.0
+	 */
+	public static Object tryConvert(Converter converter, Class destinationClass,
+			Object source, Locale locale) {
+		if (converter instanceof TentativeConverter) {
+			return ((TentativeConverter) converter).tryConvert(destinationClass, source, locale);
+		}
+		try {
+			return converter.convert(destinationClass, source, locale);
+		}
+		catch (TransformationException e) {
+			return TentativeConverter.NOT_CONVERTED;
+		}
+	}
+
 	/**
 	 * Performs a transformation of one object graph into another object graph.
 	 *
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.util;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of information about classes which does not prevent those classes,
+ * or the ClassLoaders that loaded them, from being garbage collected.  Keys are
+ * held weakly and values softly, so a cached value that refers back to its
+ * class does not pin the class in memory.
+ *
+ * <p>Lookups never lock.  Entries are immutable: {@link #put(Class, Object)}
+ * replaces the chain of the one bucket it changes, dropping entries whose
+ * class has been collected, and the table is rebuilt only when it grows.
+ * Updates are serialized, which is acceptable because they only happen the
+ * first time a class is seen.  A lookup racing with an update may miss the
+ * new entry, in which case the value is just computed again.</p>
+ *
+ * <p>Lookups are counted only while counting is turned on, so that the
+ * counters do not slow down concurrent lookups.</p>
+ *
+ * @since Morph 2.0
+ */
+public class WeakClassCache {
+
+	private static final class Entry extends WeakReference {
+		final int hash;
+		final SoftReference value;
+		final Entry next;
+
+		Entry(Class key, int hash, SoftReference value, Entry next) {
+			super(key);
+			this.hash = hash;
+			this.value = value;
+			this.next = next;
+		}
+	}
+
+	private static final int INITIAL_CAPACITY = 32;
+
+	private volatile Entry[] table = new Entry[INITIAL_CAPACITY];
+	/** number of entries in the table, including collected ones */
+	private int size;
+	private volatile boolean counting;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * Get the value cached for the specified class.
+	 * @param key
+	 * @return the cached value, or <code>null</code> if none is available
+	 */
+	public Object get(Class key) {
+		Entry[] tab = table;
+		int hash = System.identityHashCode(key);
+		for (Entry e = tab[hash & (tab.length - 1)]; e != null; e = e.next) {
+			if (e.get() == key) {
+				Object value = e.value.get();
+				if (value != null) {
+					if (counting) {
+						hits.incrementAndGet();
+					}
+					return value;
+				}
+				break;
+			}
+		}
+		if (counting) {
+			misses.incrementAndGet();
+		}
+		return null;
+	}
+
+	/**
+	 * Cache a value for the specified class, replacing any existing value.
+	 * @param key
+	 * @param value
+	 */
+	public synchronized void put(Class key, Object value) {
+		Entry[] tab = table;
+		if (size >= tab.length * 3 / 4) {
+			tab = rehash(tab);
+			table = tab;
+		}
+		int hash = System.identityHashCode(key);
+		int index = hash & (tab.length - 1);
+		Entry head = null;
+		for (Entry e = tab[index]; e != null; e = e.next) {
+			Class k = (Class) e.get();
+			if (isLive(e, k, key)) {
+				head = new Entry(k, e.hash, e.value, head);
+			}
+			else {
+				size--;
+			}
+		}
+		// the final fields of Entry make the new chain safe to read without locking
+		tab[index] = new Entry(key, hash, new SoftReference(value), head);
+		size++;
+	}
+
+	/**
+	 * Copy the live entries of <code>old</code> to a new table, larger if
+	 * they would still fill most of it.
+	 */
+	private Entry[] rehash(Entry[] old) {
+		int live = 0;
+		for (int i = 0; i < old.length; i++) {
+			for (Entry e = old[i]; e != null; e = e.next) {
+				if (isLive(e, e.get(), null)) {
+					live++;
+				}
+			}
+		}
+		int capacity = old.length;
+		while (live >= capacity * 3 / 4) {
+			capacity <<= 1;
+		}
+		Entry[] tab = new Entry[capacity];
+		size = 0;
+		for (int i = 0; i < old.length; i++) {
+			for (Entry e = old[i]; e != null; e = e.next) {
+				Class k = (Class) e.get();
+				if (isLive(e, k, null)) {
+					int index = e.hash & (capacity - 1);
+					tab[index] = new Entry(k, e.hash, e.value, tab[index]);
+					size++;
+				}
+			}
+		}
+		return tab;
+	}
+
+	private static boolean isLive(Entry e, Object key, Class replacedKey) {
+		return key != null && key != replacedKey && e.value.get() != null;
+	}
+
+	/**
+	 * Get the classes that currently have a cached value, with their values.
+	 * The result is a copy, which holds its classes strongly.
+	 * @return Map
+	 */
+	public Map toMap() {
+		Entry[] tab = table;
+		Map result = new HashMap();
+		for (int i = 0; i < tab.length; i++) {
+			for (Entry e = tab[i]; e != null; e = e.next) {
+				Object key = e.get();
+				Object value = e.value.get();
+				if (key != null && value != null && !result.containsKey(key)) {
+					result.put(key, value);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Discard all cached values.
+	 */
+	public synchronized void clear() {
+		table = new Entry[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	/**
+	 * Learn whether lookups are being counted.
+	 * @return boolean
+	 */
+	public boolean isCounting() {
+		return counting;
+	}
+
+	/**
+	 * Set whether lookups are counted.  Default <code>false</code>.
+	 * @param counting
+	 */
+	public void setCounting(boolean counting) {
+		this.counting = counting;
+	}
+
+	/**
+	 * Get the number of counted lookups that found a cached value.
+	 * @return long
+	 */
+	public long getHitCount() {
+		return hits.get();
+	}
+
+	/**
+	 * Get the number of counted lookups that did not find a cached value.
+	 * @return long
+	 */
+	public long getMissCount() {
+		return misses.get();
+	}
+
+}
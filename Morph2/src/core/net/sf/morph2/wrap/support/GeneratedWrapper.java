@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.wrap.support;
+
+import net.sf.morph2.reflect.Reflector;
+import net.sf.morph2.wrap.Wrapper;
+
+/**
+ * Base class of the wrappers generated by {@link WrapperGenerator}.  The
+ * generated subclasses implement each wrapper method by calling the
+ * corresponding method of {@link #reflector} on {@link #wrapped}.
+ *
+ * @since Morph 2.0
+ */
+public abstract class GeneratedWrapper implements Wrapper, Cloneable {
+
+	/** The reflector to which the wrapper methods are delegated */
+	protected Reflector reflector;
+	/** The wrapped object */
+	protected Object wrapped;
+
+	/**
+	 * Create a new GeneratedWrapper.
+	 */
+	protected GeneratedWrapper() {
+	}
+
+	/**
+	 * Create a wrapper of the same class as this prototype.
+	 * @param reflector
+	 * @param wrapped
+	 * @return GeneratedWrapper
+	 */
+	final GeneratedWrapper newInstance(Reflector reflector, Object wrapped) {
+		GeneratedWrapper result;
+		try {
+			result = (GeneratedWrapper) clone();
+		}
+		catch (CloneNotSupportedException e) {
+			// cannot happen, since this class is Cloneable
+			throw new IllegalStateException(e.getMessage());
+		}
+		result.reflector = reflector;
+		result.wrapped = wrapped;
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Object getWrappedObject() {
+		return wrapped;
+	}
+
+}
@@ -0,0 +1,327 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.wrap.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import net.sf.composite.util.CompositeUtils;
+import net.sf.composite.util.ObjectUtils;
+import net.sf.morph2.reflect.BeanReflector;
+import net.sf.morph2.reflect.ContainerReflector;
+import net.sf.morph2.reflect.GrowableContainerReflector;
+import net.sf.morph2.reflect.IndexedContainerReflector;
+import net.sf.morph2.reflect.MutableIndexedContainerReflector;
+import net.sf.morph2.reflect.Reflector;
+import net.sf.morph2.reflect.SizableReflector;
+import net.sf.morph2.util.ClassFileWriter;
+import net.sf.morph2.util.WeakClassCache;
+import net.sf.morph2.wrap.Bean;
+import net.sf.morph2.wrap.Container;
+import net.sf.morph2.wrap.GrowableContainer;
+import net.sf.morph2.wrap.IndexedContainer;
+import net.sf.morph2.wrap.MutableIndexedContainer;
+import net.sf.morph2.wrap.Sizable;
+import net.sf.morph2.wrap.Wrapper;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Creates wrappers whose classes are generated to call a reflector directly,
+ * rather than dynamic proxies that dispatch each call reflectively through a
+ * {@link DefaultWrapperInvocationHandler}.  A wrapper class is generated for
+ * each reflector class and combination of wrapper interfaces, so every call
+ * in a generated class is made on a single reflector class.  A wrapper
+ * implements the wrapper interface corresponding to each reflector interface
+ * to which the reflector can be specialized; unlike those proxies, it does
+ * not implement the interfaces of the wrapped object.
+ *
+ * @since Morph 2.0
+ */
+public abstract class WrapperGenerator {
+
+	private static final int ALOAD_0 = 0x2a;
+	private static final int ILOAD = 0x15;
+	private static final int LLOAD = 0x16;
+	private static final int FLOAD = 0x17;
+	private static final int DLOAD = 0x18;
+	private static final int ALOAD = 0x19;
+	private static final int IRETURN = 0xac;
+	private static final int LRETURN = 0xad;
+	private static final int FRETURN = 0xae;
+	private static final int DRETURN = 0xaf;
+	private static final int ARETURN = 0xb0;
+	private static final int RETURN = 0xb1;
+	private static final int GETFIELD = 0xb4;
+	private static final int INVOKEVIRTUAL = 0xb6;
+	private static final int INVOKESPECIAL = 0xb7;
+	private static final int INVOKEINTERFACE = 0xb9;
+	private static final int CHECKCAST = 0xc0;
+
+	private static final Class[] REFLECTOR_TYPES = { BeanReflector.class,
+			ContainerReflector.class, GrowableContainerReflector.class,
+			IndexedContainerReflector.class, MutableIndexedContainerReflector.class,
+			SizableReflector.class };
+
+	private static final Class[] WRAPPER_TYPES = { Bean.class, Container.class,
+			GrowableContainer.class, IndexedContainer.class, MutableIndexedContainer.class,
+			Sizable.class };
+
+	private static final String CLASS_NAME_PREFIX = GeneratedWrapper.class.getName()
+			+ "$Generated";
+
+	/** Recorded for combinations for which no class could be generated */
+	private static final Object NOT_GENERATED = new Object();
+
+	private static final Log log = LogFactory.getLog(WrapperGenerator.class);
+
+	/**
+	 * Reflector class to an array, indexed by the set of wrapper interfaces,
+	 * of prototype wrappers.
+	 */
+	private static final WeakClassCache prototypes = new WeakClassCache();
+
+	private static int classCount;
+
+	/**
+	 * Create a wrapper for <code>object</code> that delegates to
+	 * <code>reflector</code>.
+	 * @param reflector
+	 * @param object
+	 * @return Wrapper, or <code>null</code> if the wrapper must be created
+	 *         some other way, e.g. because <code>reflector</code> can be
+	 *         specialized to a reflector interface that it does not implement
+	 */
+	public static Wrapper createWrapper(Reflector reflector, Object object) {
+		int wrapperTypes = 0;
+		for (int i = 0; i < REFLECTOR_TYPES.length; i++) {
+			if (CompositeUtils.isSpecializable(reflector, REFLECTOR_TYPES[i])) {
+				if (!REFLECTOR_TYPES[i].isInstance(reflector)) {
+					return null;
+				}
+				wrapperTypes |= 1 << i;
+			}
+		}
+		GeneratedWrapper prototype = getPrototype(reflector.getClass(), wrapperTypes);
+		return prototype == null ? null : prototype.newInstance(reflector, object);
+	}
+
+	private static GeneratedWrapper getPrototype(Class reflectorClass, int wrapperTypes) {
+		Object[] byWrapperTypes = (Object[]) prototypes.get(reflectorClass);
+		if (byWrapperTypes == null) {
+			byWrapperTypes = new Object[1 << WRAPPER_TYPES.length];
+			// a racing thread may replace this array; that only costs a repeated generation
+			prototypes.put(reflectorClass, byWrapperTypes);
+		}
+		Object prototype = byWrapperTypes[wrapperTypes];
+		if (prototype == null) {
+			prototype = generate(reflectorClass, wrapperTypes);
+			byWrapperTypes[wrapperTypes] = prototype;
+		}
+		return prototype == NOT_GENERATED ? null : (GeneratedWrapper) prototype;
+	}
+
+	private static Object generate(Class reflectorClass, int wrapperTypes) {
+		List interfaces = new ArrayList();
+		List visibleClasses = new ArrayList();
+		visibleClasses.add(reflectorClass);
+		for (int i = 0; i < WRAPPER_TYPES.length; i++) {
+			if ((wrapperTypes & 1 << i) != 0) {
+				interfaces.add(WRAPPER_TYPES[i]);
+			}
+		}
+		String className = nextClassName();
+		try {
+			byte[] bytecode = createBytecode(className, reflectorClass, (Class[]) interfaces
+					.toArray(new Class[interfaces.size()]));
+			Class generated = ClassFileWriter.defineClass(className, bytecode,
+					GeneratedWrapper.class.getClassLoader(), new Class[] { reflectorClass });
+			return generated.getConstructor().newInstance();
+		}
+		catch (Exception e) {
+			logFailure(reflectorClass, e);
+		}
+		catch (LinkageError e) {
+			logFailure(reflectorClass, e);
+		}
+		return NOT_GENERATED;
+	}
+
+	private static void logFailure(Class reflectorClass, Throwable t) {
+		if (log.isDebugEnabled()) {
+			log.debug("Unable to generate a wrapper class for reflector "
+					+ ObjectUtils.getObjectDescription(reflectorClass), t);
+		}
+	}
+
+	private static synchronized String nextClassName() {
+		return CLASS_NAME_PREFIX + classCount++;
+	}
+
+	private static byte[] createBytecode(String className, Class reflectorClass,
+			Class[] interfaces) throws IOException, NoSuchMethodException {
+		ClassFileWriter classFile = new ClassFileWriter(className, GeneratedWrapper.class,
+				interfaces);
+		String superName = ClassFileWriter.getInternalName(GeneratedWrapper.class);
+
+		// constructor
+		ByteArrayOutputStream init = new ByteArrayOutputStream();
+		init.write(ALOAD_0);
+		ClassFileWriter.writeInstruction(init, INVOKESPECIAL, classFile.methodRef(superName,
+				"<init>", "()V"));
+		init.write(RETURN);
+		classFile.addMethod("<init>", "()V", 1, 1, init.toByteArray());
+
+		Set implemented = new HashSet();
+		for (int i = 0; i < interfaces.length; i++) {
+			Method[] methods = interfaces[i].getMethods();
+			for (int j = 0; j < methods.length; j++) {
+				Method method = methods[j];
+				String descriptor = ClassFileWriter.getMethodDescriptor(method
+						.getParameterTypes(), method.getReturnType());
+				if (method.getDeclaringClass() != Wrapper.class
+						&& implemented.add(method.getName() + descriptor)) {
+					addDelegatingMethod(classFile, reflectorClass, method, descriptor);
+				}
+			}
+		}
+		return classFile.toByteArray();
+	}
+
+	/**
+	 * Implement <code>method</code> by calling the method of the
+	 * corresponding reflector interface that takes the wrapped object as an
+	 * additional first parameter.
+	 */
+	private static void addDelegatingMethod(ClassFileWriter classFile, Class reflectorClass,
+			Method method, String descriptor) throws IOException, NoSuchMethodException {
+		Class wrapperType = method.getDeclaringClass();
+		Class reflectorType = null;
+		for (int i = 0; i < WRAPPER_TYPES.length; i++) {
+			if (WRAPPER_TYPES[i] == wrapperType) {
+				reflectorType = REFLECTOR_TYPES[i];
+			}
+		}
+		if (reflectorType == null) {
+			throw new NoSuchMethodException("No reflector interface implements " + method);
+		}
+		Class[] parameterTypes = method.getParameterTypes();
+		// the reflector gets the class of the wrapped object instead of the object
+		boolean passClass = wrapperType == Container.class
+				&& method.getName().equals("getContainedType");
+		// the container argument is superseded by the wrapped object
+		int firstForwarded = wrapperType == IndexedContainer.class
+				&& method.getName().equals("get") ? 1 : 0;
+		Class[] reflectorParameterTypes = new Class[parameterTypes.length - firstForwarded + 1];
+		reflectorParameterTypes[0] = passClass ? Class.class : Object.class;
+		System.arraycopy(parameterTypes, firstForwarded, reflectorParameterTypes, 1,
+				parameterTypes.length - firstForwarded);
+		Method target = reflectorType.getMethod(method.getName(), reflectorParameterTypes);
+		if (target.getReturnType() != method.getReturnType()) {
+			throw new NoSuchMethodException(target + " does not return the type of " + method);
+		}
+		String targetDescriptor = ClassFileWriter.getMethodDescriptor(reflectorParameterTypes,
+				target.getReturnType());
+		String superName = ClassFileWriter.getInternalName(GeneratedWrapper.class);
+		// call the reflector class itself where possible
+		boolean direct = ClassFileWriter.isAccessible(reflectorClass);
+		String targetName = ClassFileWriter.getInternalName(direct ? reflectorClass
+				: reflectorType);
+
+		ByteArrayOutputStream code = new ByteArrayOutputStream();
+		code.write(ALOAD_0);
+		ClassFileWriter.writeInstruction(code, GETFIELD, classFile.fieldRef(superName,
+				"reflector", ClassFileWriter.getDescriptor(Reflector.class)));
+		ClassFileWriter.writeInstruction(code, CHECKCAST, classFile.classRef(targetName));
+		code.write(ALOAD_0);
+		ClassFileWriter.writeInstruction(code, GETFIELD, classFile.fieldRef(superName,
+				"wrapped", ClassFileWriter.getDescriptor(Object.class)));
+		if (passClass) {
+			ClassFileWriter.writeInstruction(code, INVOKEVIRTUAL, classFile.methodRef(
+					"java/lang/Object", "getClass", "()Ljava/lang/Class;"));
+		}
+		int slot = 1;
+		int forwardedSlots = 0;
+		for (int i = 0; i < parameterTypes.length; i++) {
+			int size = getSize(parameterTypes[i]);
+			if (i >= firstForwarded) {
+				code.write(getLoadOpcode(parameterTypes[i]));
+				code.write(slot);
+				forwardedSlots += size;
+			}
+			slot += size;
+		}
+		if (direct) {
+			ClassFileWriter.writeInstruction(code, INVOKEVIRTUAL, classFile.methodRef(
+					targetName, target.getName(), targetDescriptor));
+		}
+		else {
+			ClassFileWriter.writeInstruction(code, INVOKEINTERFACE, classFile
+					.interfaceMethodRef(targetName, target.getName(), targetDescriptor));
+			// the reflector, the wrapped object and the forwarded arguments
+			code.write(2 + forwardedSlots);
+			code.write(0);
+		}
+		code.write(getReturnOpcode(method.getReturnType()));
+
+		int maxStack = Math.max(2 + forwardedSlots, getSize(method.getReturnType()));
+		classFile.addMethod(method.getName(), descriptor, maxStack, slot, code.toByteArray());
+	}
+
+	private static int getSize(Class type) {
+		return type == void.class ? 0 : type == long.class || type == double.class ? 2 : 1;
+	}
+
+	private static int getLoadOpcode(Class type) {
+		if (!type.isPrimitive()) {
+			return ALOAD;
+		}
+		if (type == long.class) {
+			return LLOAD;
+		}
+		if (type == float.class) {
+			return FLOAD;
+		}
+		if (type == double.class) {
+			return DLOAD;
+		}
+		return ILOAD;
+	}
+
+	private static int getReturnOpcode(Class type) {
+		if (type == void.class) {
+			return RETURN;
+		}
+		if (!type.isPrimitive()) {
+			return ARETURN;
+		}
+		if (type == long.class) {
+			return LRETURN;
+		}
+		if (type == float.class) {
+			return FRETURN;
+		}
+		if (type == double.class) {
+			return DRETURN;
+		}
+		return IRETURN;
+	}
+
+}
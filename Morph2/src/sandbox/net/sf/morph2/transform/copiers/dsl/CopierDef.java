@@ -13,6 +13,10 @@
  */
 package net.sf.morph2.transform.copiers.dsl;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -32,9 +36,13 @@ import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.ProxyUtils;
 
 /**
- * Helper class to hold a copier definition.
+ * Helper class to hold a copier definition.  Definitions are serializable so
+ * that a {@link DSLDefinedCopier} can be precompiled; the parent must be
+ * restored with {@link #setParent(DSLDefinedCopier)} after deserialization.
  */
-class CopierDef {
+class CopierDef implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	private class PropertyMaps {
 		Map rightward;
 		Map leftward;
@@ -43,11 +51,18 @@ class CopierDef {
 
 		PropertyMaps() {
 			try {
-				rightward = (Map) parent.getPropertyMapClass().newInstance();
-				leftward = (Map) parent.getPropertyMapClass().newInstance();
+				init((Map) parent.getPropertyMapClass().getConstructor().newInstance(), (Map) parent
+						.getPropertyMapClass().getConstructor().newInstance());
 			} catch (Exception e) {
 				throw new MorphException(e);
 			}
+		}
+		PropertyMaps(Map rightwardMap, Map leftwardMap) {
+			init(rightwardMap, leftwardMap);
+		}
+		private void init(Map rightwardMap, Map leftwardMap) {
+			rightward = rightwardMap;
+			leftward = leftwardMap;
 			exposeLeftward = new AbstractMap() {
 				public Set entrySet() {
 					return Collections.EMPTY_SET;
@@ -79,7 +94,7 @@ class CopierDef {
 		}
 	}
 
-	private DSLDefinedCopier parent;
+	private transient DSLDefinedCopier parent;
 	private Class leftClass;
 	private Direction direction;
 	private Class rightClass;
@@ -87,7 +102,7 @@ class CopierDef {
 	private boolean matchProperties;
 	private Set includeProperties;
 	private Set ignoreProperties;
-	private PropertyMaps propertyMapps;
+	private transient PropertyMaps propertyMapps;
 
 	/**
 	 * Construct a new CopierDef.
@@ -108,6 +123,27 @@ class CopierDef {
 		this.propertyMapps = new PropertyMaps();
 	}
 
+	/**
+	 * Set the parent of a deserialized CopierDef.
+	 * @param parent
+	 */
+	synchronized void setParent(DSLDefinedCopier parent) {
+		Assert.notNull(parent, "parent");
+		this.parent = parent;
+	}
+
+	private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeObject(propertyMapps.rightward);
+		out.writeObject(propertyMapps.leftward);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException,
+			ClassNotFoundException {
+		in.defaultReadObject();
+		propertyMapps = new PropertyMaps((Map) in.readObject(), (Map) in.readObject());
+	}
+
 	/**
 	 * Set the matchProperties of this CopierDef.
 	 * @param matchProperties the matchProperties to set
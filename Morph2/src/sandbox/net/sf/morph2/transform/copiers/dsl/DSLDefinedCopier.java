@@ -15,9 +15,13 @@ package net.sf.morph2.transform.copiers.dsl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 
 import antlr.ANTLRException;
 import antlr.TokenBuffer;
@@ -44,13 +48,18 @@ import net.sf.morph2.util.Assert;
  * The example text <code>[<=|:|=>]</code> indicated the three directional indicators:
  * right-to-left, bidirectional, and left-to-right, respectively.
  * </p>
- * Requires ANTLR 2 at runtime.
+ * Requires ANTLR 2 at runtime unless the definitions have been precompiled:
+ * {@link #writePrecompiled(OutputStream)} saves the parsed definitions, which
+ * a DSLDefinedCopier created with {@link #setPrecompiledInputStream(InputStream)}
+ * reads back without parsing.
  *
  * @author Matt Benson
  */
 public class DSLDefinedCopier extends SimpleDelegatingTransformer implements NodeCopier {
 	private Class propertyMapClass;
 	private InputStream inputStream;
+	private InputStream precompiledInputStream;
+	private List copierDefs;
 
 	/**
 	 * Construct a new DSLDefinedCopier.
@@ -70,26 +79,76 @@ public class DSLDefinedCopier extends SimpleDelegatingTransformer implements Nod
 	 * {@inheritDoc}
 	 */
 	protected Transformer[] createDefaultComponents() {
+		ArrayList copiers = new ArrayList();
+		for (Iterator iter = getCopierDefs().iterator(); iter.hasNext();) {
+			copiers.addAll(((CopierDef) iter.next()).getCopiers());
+		}
+		return (Copier[]) copiers.toArray(new Copier[copiers.size()]);
+	}
+
+	/**
+	 * Get the copier definitions, reading them from the precompiled input
+	 * stream if set, else parsing them from the input stream.
+	 * @return List of CopierDef
+	 */
+	private synchronized List getCopierDefs() {
+		if (copierDefs == null) {
+			copierDefs = precompiledInputStream == null ? parse() : readPrecompiled();
+		}
+		return copierDefs;
+	}
+
+	private List parse() {
 		Assert.notNull(inputStream, "inputStream");
-		ArrayList copierDefs = new ArrayList();
+		ArrayList result = new ArrayList();
 		try {
 			MorphParser parser = new MorphParser(new TokenBuffer(new MorphLexer(
 					inputStream)));
-			copierDefs.addAll(parser.parse(this));
+			result.addAll(parser.parse(this));
 		} catch (ANTLRException e) {
 			throw new MorphException(e);
 		} finally {
-			try {
-				inputStream.close();
-			} catch (IOException e) {
-				//ignore
+			close(inputStream);
+		}
+		return result;
+	}
+
+	private List readPrecompiled() {
+		try {
+			List result = (List) new ObjectInputStream(precompiledInputStream).readObject();
+			for (Iterator iter = result.iterator(); iter.hasNext();) {
+				((CopierDef) iter.next()).setParent(this);
 			}
+			return result;
+		} catch (IOException e) {
+			throw new MorphException(e);
+		} catch (ClassNotFoundException e) {
+			throw new MorphException(e);
+		} finally {
+			close(precompiledInputStream);
 		}
-		ArrayList copiers = new ArrayList();
-		for (Iterator iter = copierDefs.iterator(); iter.hasNext();) {
-			copiers.addAll(((CopierDef) iter.next()).getCopiers());
+	}
+
+	private static void close(InputStream inputStream) {
+		try {
+			inputStream.close();
+		} catch (IOException e) {
+			//ignore
 		}
-		return (Copier[]) copiers.toArray(new Copier[copiers.size()]);
+	}
+
+	/**
+	 * Write the copier definitions of this DSLDefinedCopier in precompiled
+	 * form.  The output stream is not closed.
+	 * @param outputStream
+	 * @throws IOException
+	 * @since Morph 2.0
+	 */
+	public void writePrecompiled(OutputStream outputStream) throws IOException {
+		Assert.notNull(outputStream, "outputStream");
+		ObjectOutputStream out = new ObjectOutputStream(outputStream);
+		out.writeObject(new ArrayList(getCopierDefs()));
+		out.flush();
 	}
 
 	/**
@@ -100,6 +159,17 @@ public class DSLDefinedCopier extends SimpleDelegatingTransformer implements Nod
 		this.inputStream = inputStream;
 	}
 
+	/**
+	 * Set an input stream of definitions saved with
+	 * {@link #writePrecompiled(OutputStream)}.  Takes precedence over the
+	 * inputStream.
+	 * @param precompiledInputStream
+	 * @since Morph 2.0
+	 */
+	public void setPrecompiledInputStream(InputStream precompiledInputStream) {
+		this.precompiledInputStream = precompiledInputStream;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
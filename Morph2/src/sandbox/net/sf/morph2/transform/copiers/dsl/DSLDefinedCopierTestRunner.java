@@ -30,6 +30,7 @@ public class DSLDefinedCopierTestRunner extends TestRunner {
 		suite.addTestSuite(ShortLeftwardDSLDefinedCopierTest.class);
 		suite.addTestSuite(ShortRightwardDSLDefinedCopierTest.class);
 		suite.addTestSuite(MultiMappedTestCase.class);
+		suite.addTestSuite(PrecompiledDSLDefinedCopierTest.class);
 		return suite;
 	}
 }
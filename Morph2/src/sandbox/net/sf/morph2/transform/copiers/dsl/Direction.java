@@ -13,10 +13,15 @@
  */
 package net.sf.morph2.transform.copiers.dsl;
 
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+
 /**
  * Represents a mapping direction.
  */
-class Direction {
+class Direction implements Serializable {
+	private static final long serialVersionUID = 1L;
+
 	private String name;
 
 	private Direction(String name) {
@@ -30,4 +35,13 @@ class Direction {
 	public static final Direction BIDI = new Direction("bidi");
 	public static final Direction LEFT = new Direction("left");
 	public static final Direction RIGHT = new Direction("right");
+
+	/**
+	 * Resolve a deserialized Direction to its constant.
+	 * @return Object
+	 * @throws ObjectStreamException
+	 */
+	private Object readResolve() throws ObjectStreamException {
+		return BIDI.name.equals(name) ? BIDI : LEFT.name.equals(name) ? LEFT : RIGHT;
+	}
 }
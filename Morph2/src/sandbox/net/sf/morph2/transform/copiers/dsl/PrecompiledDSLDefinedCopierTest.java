@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.copiers.dsl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import net.sf.morph2.MorphException;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+
+/**
+ * Runs the deep mapping tests against a DSLDefinedCopier read from its
+ * precompiled form.
+ */
+public class PrecompiledDSLDefinedCopierTest extends DeepDSLDefinedCopierTest {
+
+	protected Transformer createTransformer() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			new DSLDefinedCopier(getClass().getResourceAsStream(getSource()))
+					.writePrecompiled(out);
+		} catch (Exception e) {
+			throw new MorphException(e);
+		}
+		DSLDefinedCopier dslDefinedCopier = new DSLDefinedCopier();
+		dslDefinedCopier.setPrecompiledInputStream(new ByteArrayInputStream(out.toByteArray()));
+		return new SimpleDelegatingTransformer(new Transformer[] { dslDefinedCopier }, true);
+	}
+}
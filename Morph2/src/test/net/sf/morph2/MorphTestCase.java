@@ -13,6 +13,9 @@
  */
 package net.sf.morph2;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -25,11 +28,21 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
 
 import javax.servlet.ServletRequest;
 
 import junit.framework.TestCase;
+import net.sf.morph2.reflect.BeanReflector;
 import net.sf.morph2.reflect.ReflectionException;
+import net.sf.morph2.reflect.reflectors.SimpleDelegatingReflector;
+import net.sf.morph2.transform.TentativeConverter;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.converters.ObjectToPrettyTextConverter;
+import net.sf.morph2.transform.copiers.ContainerCopier;
+import net.sf.morph2.transform.copiers.TextToContainerCopier;
+import net.sf.morph2.transform.transformers.BaseTransformer;
+import net.sf.morph2.util.DispatchSnapshot;
 import net.sf.morph2.util.TestObjects;
 import net.sf.morph2.util.TestUtils;
 
@@ -262,4 +275,112 @@ public class MorphTestCase extends TestCase {
 		catch (ReflectionException e) { }
 	}
 	
+	public void testWarmUp() throws Exception {
+		Map beanReflectors = (Map) MorphEngine.getReflector().getResolvedReflectors().get(
+				BeanReflector.class);
+		assertFalse(beanReflectors != null && beanReflectors.containsKey(WarmUpBean.class));
+		assertEquals(0, getDispatchTables(WarmUpBean.class, HashMap.class).size());
+
+		Morph.warmUp(WarmUpBean.class, HashMap.class);
+		beanReflectors = (Map) MorphEngine.getReflector().getResolvedReflectors().get(
+				BeanReflector.class);
+		assertTrue(beanReflectors.containsKey(WarmUpBean.class));
+		// both the conversion and the copy dispatch were resolved
+		assertEquals(2, getDispatchTables(WarmUpBean.class, HashMap.class).size());
+		WarmUpBean bean = new WarmUpBean();
+		Map map = new HashMap();
+		map.put("value", "3");
+		Morph.copy(bean, map);
+		assertEquals("3", bean.getValue());
+		try {
+			Morph.warmUp((Class[]) null);
+			fail("null types should be rejected");
+		}
+		catch (IllegalArgumentException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Get the names of the dispatch tables of the facade's transformer that
+	 * hold a selection for <code>sourceClass</code> to
+	 * <code>destinationClass</code>.
+	 */
+	private static Set getDispatchTables(Class destinationClass, Class sourceClass)
+			throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		MorphEngine.getTransformer().writeDispatchSnapshot(out);
+		DispatchSnapshot snapshot = DispatchSnapshot.read(new ByteArrayInputStream(out
+				.toByteArray()));
+		Set result = new HashSet();
+		for (int i = 0; i < snapshot.size(); i++) {
+			if (snapshot.getFirstClass(i) == destinationClass
+					&& snapshot.getSecondClass(i) == sourceClass) {
+				result.add(snapshot.getTable(i));
+			}
+		}
+		return result;
+	}
+
+	public static class WarmUpBean {
+		private String value;
+
+		public String getValue() {
+			return value;
+		}
+		public void setValue(String value) {
+			this.value = value;
+		}
+	}
+
+	public void testSharedComponents() {
+		assertSame(MorphEngine.getReflector(), MorphEngine.getLanguage().getReflector());
+		assertSame(MorphEngine.getTransformer(), MorphEngine.getLanguage().getConverter());
+		assertSame(MorphEngine.getReflector(), MorphEngine.getTransformer().getReflector());
+		ObjectToPrettyTextConverter prettyTextConverter =
+				(ObjectToPrettyTextConverter) MorphEngine.getPrettyTextConverter();
+		assertSame(MorphEngine.getReflector(), prettyTextConverter.getReflector());
+		assertSame(MorphEngine.getReflector(), ((BaseTransformer) prettyTextConverter
+				.getContainerToPrettyTextConverter()).getReflector());
+		Transformer[] components = MorphEngine.getTransformer().getTransformers();
+		for (int i = 0; i < components.length; i++) {
+			if (components[i] instanceof TextToContainerCopier) {
+				ContainerCopier containerCopier = (ContainerCopier)
+						((TextToContainerCopier) components[i]).getContainerCopier();
+				assertSame(MorphEngine.getReflector(), containerCopier.getReflector());
+				assertSame(MorphEngine.getTransformer(), containerCopier.getNestedTransformer());
+			}
+		}
+	}
+
+	public void testDispatchSnapshot() throws Exception {
+		Morph.warmUp(String.class, Long.class, TreeMap.class);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Morph.writeDispatchSnapshot(out);
+		assertTrue(Morph.readDispatchSnapshot(new ByteArrayInputStream(out.toByteArray())));
+
+		out = new ByteArrayOutputStream();
+		MorphEngine.getReflector().writeResolutionSnapshot(out);
+		SimpleDelegatingReflector reflector = new SimpleDelegatingReflector();
+		assertTrue(reflector.readResolutionSnapshot(new ByteArrayInputStream(out.toByteArray())));
+		Map beanReflectors = (Map) reflector.getResolvedReflectors().get(BeanReflector.class);
+		assertTrue(beanReflectors.containsKey(TreeMap.class));
+		assertTrue(reflector.isReflectable(TreeMap.class, BeanReflector.class));
+		try {
+			Morph.readDispatchSnapshot(new ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+			fail("truncated snapshot should be rejected");
+		}
+		catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testTryConvert() {
+		assertEquals(Integer.valueOf(3), Morph.tryConvert(Integer.class, "3"));
+		assertEquals(Boolean.TRUE, Morph.tryConvert(Boolean.class, "yes"));
+		assertSame(TentativeConverter.NOT_CONVERTED, Morph.tryConvert(Integer.class, "three"));
+		assertSame(TentativeConverter.NOT_CONVERTED, Morph.tryConvert(boolean.class, "maybe"));
+		assertSame(TentativeConverter.NOT_CONVERTED, Morph.tryConvert(int.class, null));
+	}
+
 }
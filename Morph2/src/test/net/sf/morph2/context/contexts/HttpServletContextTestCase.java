@@ -108,6 +108,53 @@ public class HttpServletContextTestCase extends BaseContextTestCase {
 		// this should not cause an error
 		Morph.get(context, "five");
 	}
+
+	public void testCachingLookups() {
+		Integer one = Integer.valueOf(1), two = Integer.valueOf(2), three = Integer.valueOf(3);
+		HttpServletContext httpServletContext = (HttpServletContext) context;
+		httpServletContext.setCachingLookups(true);
+
+		session.setAttribute("testing", one);
+		assertEquals(one, context.get("testing"));
+		assertTrue(ContainerUtils.contains(context.getPropertyNames(), "testing"));
+
+		// modifications made behind the context's back are not seen...
+		request.setAttribute("testing", two);
+		assertEquals(one, context.get("testing"));
+		// ...until the cache is cleared
+		httpServletContext.clearCachedLookups();
+		assertEquals(two, context.get("testing"));
+
+		// modifications through the context are seen immediately
+		context.set("other", three);
+		assertEquals(three, request.getAttribute("other"));
+		assertEquals(three, context.get("other"));
+		assertTrue(ContainerUtils.contains(context.getPropertyNames(), "other"));
+		context.set("other", null);
+		assertNull(context.get("other"));
+	}
+
+	public void testCachingLookupsInvalidatedByParent() {
+		MapContext parent = new MapContext();
+		MapContext child = new MapContext();
+		child.setParentContext(parent);
+		child.setCachingLookups(true);
+
+		parent.set("testing", "1");
+		assertEquals("1", child.get("testing"));
+		parent.set("testing", "2");
+		assertEquals("2", child.get("testing"));
+		assertFalse(ContainerUtils.contains(child.getPropertyNames(), "other"));
+		parent.set("other", "3");
+		assertTrue(ContainerUtils.contains(child.getPropertyNames(), "other"));
+		assertEquals("3", child.get("other"));
+
+		MapContext grandparent = new MapContext();
+		grandparent.set("older", "4");
+		assertNull(child.get("older"));
+		parent.setParentContext(grandparent);
+		assertEquals("4", child.get("older"));
+	}
 	
 // unfortunately this test isn't actually testing anything
 //	public static class ClassWithBadProperty {
@@ -16,6 +16,7 @@ package net.sf.morph2.lang.languages;
 import java.math.BigDecimal;
 
 import net.sf.morph2.lang.Language;
+import net.sf.morph2.lang.LanguageException;
 import net.sf.morph2.util.TestClass;
 import net.sf.morph2.util.TestUtils;
 
@@ -64,5 +65,57 @@ public class SimpleLanguageTestCase extends BaseLanguageTestCase {
 		doTestComplexGetsWith(TestClass.getFullObject());
 		doTestComplexGetsWith(TestClass.getFullMap());
 	}
-	
+
+	public void testRepeatedEvaluationAcrossTypes() {
+		Object fullObject = TestClass.getFullObject();
+		Object fullMap = TestClass.getFullMap();
+		for (int i = 0; i < 3; i++) {
+			doTestComplexGetsWith(fullObject);
+			doTestComplexGetsWith(fullMap);
+		}
+	}
+
+	public void testNestedSets() {
+		TestClass target = TestClass.getFullObject();
+		language.set(target, "myMap.one", Integer.valueOf(11));
+		TestUtils.assertEquals(language.get(target, "myMap.one"), Integer.valueOf(11));
+		language.set(target, "string", "changed");
+		TestUtils.assertEquals(language.get(target, "string"), "changed");
+		target.setString(null);
+		assertNull(language.get(target, "string"));
+	}
+
+	public static class CountingBean {
+		private int calls;
+
+		public Object getValue() {
+			calls++;
+			return null;
+		}
+
+		public Object getFailure() {
+			throw new IllegalStateException("failure");
+		}
+	}
+
+	public void testAccessorCalledOnce() {
+		CountingBean bean = new CountingBean();
+		for (int i = 0; i < 3; i++) {
+			assertNull(language.get(bean, "value"));
+		}
+		assertEquals(3, bean.calls);
+	}
+
+	public void testAccessorExceptionPropagated() {
+		for (int i = 0; i < 2; i++) {
+			try {
+				language.get(new CountingBean(), "failure");
+				fail("the getter's exception should be propagated");
+			}
+			catch (LanguageException e) {
+				assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+		}
+	}
+
 }
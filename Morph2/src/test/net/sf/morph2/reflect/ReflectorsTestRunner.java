@@ -29,6 +29,7 @@ import net.sf.morph2.reflect.reflectors.IteratorReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.ListReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.ObjectReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.PageContextAttributeReflectorTestCase;
+import net.sf.morph2.reflect.reflectors.ResultSetReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.ServletContextAttributeReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.ServletContextInitParameterReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.ServletRequestAttributeReflectorTestCase;
@@ -39,6 +40,7 @@ import net.sf.morph2.reflect.reflectors.SimpleInstantiatingReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.SortedSetReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.StringTokenizerReflectorTestCase;
 import net.sf.morph2.reflect.reflectors.VelocityContextReflectorTestCase;
+import net.sf.morph2.reflect.support.MethodHolderTestCase;
 
 /**
  * @author Matt Sgarlata
@@ -64,6 +66,7 @@ public class ReflectorsTestRunner extends TestRunner {
 		suite.addTestSuite(ListReflectorTestCase.class);
 		suite.addTestSuite(ObjectReflectorTestCase.class);
 		suite.addTestSuite(PageContextAttributeReflectorTestCase.class);
+		suite.addTestSuite(ResultSetReflectorTestCase.class);
 		suite.addTestSuite(ServletContextAttributeReflectorTestCase.class);
 		suite.addTestSuite(ServletContextInitParameterReflectorTestCase.class);
 		suite.addTestSuite(ServletRequestAttributeReflectorTestCase.class);
@@ -72,6 +75,7 @@ public class ReflectorsTestRunner extends TestRunner {
 		suite.addTestSuite(SetReflectorTestCase.class);
 		suite.addTestSuite(SortedSetReflectorTestCase.class);
 		suite.addTestSuite(VelocityContextReflectorTestCase.class);
+		suite.addTestSuite(MethodHolderTestCase.class);
 		
 		return suite;
 	}
@@ -13,6 +13,7 @@
  */
 package net.sf.morph2.reflect.reflectors;
 
+import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -33,6 +34,9 @@ import net.sf.morph2.reflect.SizableReflector;
 import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.TestUtils;
+import net.sf.morph2.wrap.Container;
+import net.sf.morph2.wrap.IndexedContainer;
+import net.sf.morph2.wrap.Wrapper;
 
 /**
  * @author Matt Sgarlata
@@ -233,6 +237,26 @@ public abstract class BaseReflectorTestCase extends TestCase {
 		}
 	}
 	
+	public void testGetWrapper() {
+		for (int i=0; i<reflectableObjects.size(); i++) {
+			Object object = reflectableObjects.get(i);
+			Wrapper wrapper = reflector.getWrapper(object);
+			assertFalse(Proxy.isProxyClass(wrapper.getClass()));
+			assertSame(object, wrapper.getWrappedObject());
+			if (canRunTest(ContainerReflector.class)) {
+				assertEquals(getContainerReflector().getContainedType(object.getClass()),
+					((Container) wrapper).getContainedType());
+			}
+			if (canRunTest(IndexedContainerReflector.class)
+				&& getSizableReflector().getSize(object) > 0) {
+				assertEquals(getIndexedContainerReflector().get(object, 0),
+					((IndexedContainer) wrapper).get(null, 0));
+			}
+			// wrappers of the same reflector share one generated class
+			assertSame(wrapper.getClass(), reflector.getWrapper(object).getClass());
+		}
+	}
+
 	public void testGetSize() {
 		if (canRunTest(SizableReflector.class)) {
 			SizableReflector r = getSizableReflector();
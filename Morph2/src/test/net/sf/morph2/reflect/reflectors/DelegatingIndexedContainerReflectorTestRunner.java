@@ -13,12 +13,16 @@
  */
 package net.sf.morph2.reflect.reflectors;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import junit.textui.TestRunner;
+import net.sf.morph2.reflect.IndexedContainerReflector;
 import net.sf.morph2.reflect.Reflector;
+import net.sf.morph2.reflect.SizableReflector;
 
 /**
  * @author Matt Sgarlata
@@ -109,6 +113,20 @@ public class DelegatingIndexedContainerReflectorTestRunner extends TestRunner {
 			return null;
 		}
 
+		public void testResolvedReflectors() {
+			SimpleDelegatingReflector reflector = new SimpleDelegatingReflector();
+			reflector.getSize(new ArrayList());
+			Map resolved = (Map) reflector.getResolvedReflectors().get(SizableReflector.class);
+			assertTrue(resolved.get(ArrayList.class) instanceof ListReflector);
+
+			reflector.setComponents(new Reflector[] { new ObjectReflector() });
+			assertTrue(reflector.getResolvedReflectors().isEmpty());
+			assertFalse(reflector.isReflectable(ArrayList.class, IndexedContainerReflector.class));
+			resolved = (Map) reflector.getResolvedReflectors().get(IndexedContainerReflector.class);
+			assertTrue(resolved.containsKey(ArrayList.class));
+			assertNull(resolved.get(ArrayList.class));
+		}
+
 	}
 
 }
@@ -115,6 +115,25 @@ public class ObjectReflectorTestCase extends BaseReflectorTestCase {
 		assertEquals(getBeanReflector().getType(test, "funkyArray"), Number[].class);
 	}
 	
+	public void testReflectionCacheCounters() {
+		TestClass test = new TestClass();
+		getBeanReflector().getType(test, "string");
+		long hits = ObjectReflector.getReflectionCacheHitCount();
+		long misses = ObjectReflector.getReflectionCacheMissCount();
+		getBeanReflector().getType(test, "myInteger");
+		assertEquals(hits, ObjectReflector.getReflectionCacheHitCount());
+
+		ObjectReflector.setCountingReflectionCacheLookups(true);
+		try {
+			getBeanReflector().getType(test, "myInteger");
+		}
+		finally {
+			ObjectReflector.setCountingReflectionCacheLookups(false);
+		}
+		assertTrue(ObjectReflector.getReflectionCacheHitCount() > hits);
+		assertEquals(misses, ObjectReflector.getReflectionCacheMissCount());
+	}
+
 	protected List createReflectableObjects() {
 		List beans = new ArrayList();
 		beans.add(new ArrayList());
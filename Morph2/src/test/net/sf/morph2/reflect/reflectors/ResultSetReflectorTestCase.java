@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.reflect.reflectors;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import net.sf.morph2.util.TestResultSets;
+
+public class ResultSetReflectorTestCase extends TestCase {
+
+	private ResultSetReflector reflector;
+	private ResultSet resultSet;
+
+	protected void setUp() throws Exception {
+		reflector = new ResultSetReflector();
+		resultSet = TestResultSets.createResultSet(new String[] { "ID", "Name", "Price" },
+				new Object[][] {
+						{ Integer.valueOf(1), "one", Double.valueOf(1.5) },
+						{ Integer.valueOf(2), "two", Double.valueOf(2.5) } });
+	}
+
+	public void testPropertyNames() {
+		assertTrue(Arrays.equals(new String[] { "id", "name", "price" },
+				reflector.getPropertyNames(resultSet)));
+	}
+
+	public void testPropertyNamesAreLabels() throws Exception {
+		ResultSet renamed = TestResultSets.createResultSet(new String[] { "ROW_ID", "TITLE" },
+				new String[] { "ID", "Name" }, new Object[][] { { Integer.valueOf(7), "seven" } });
+		String[] propertyNames = reflector.getPropertyNames(renamed);
+		assertTrue(Arrays.equals(new String[] { "id", "name" }, propertyNames));
+		renamed.next();
+		for (int i = 0; i < propertyNames.length; i++) {
+			assertNotNull(reflector.get(renamed, propertyNames[i]));
+		}
+	}
+
+	public void testGetLastColumn() throws Exception {
+		resultSet.next();
+		assertEquals(Double.valueOf(1.5), reflector.get(resultSet, "price"));
+		assertEquals(Double.class, reflector.getType(resultSet, "price"));
+	}
+
+	public void testMetaDataReadOnce() throws Exception {
+		while (resultSet.next()) {
+			reflector.get(resultSet, "id");
+			reflector.get(resultSet, "name");
+			reflector.get(resultSet, "price");
+			assertTrue(reflector.isWriteable(resultSet, "name"));
+		}
+		assertEquals(1, TestResultSets.getMetaDataCalls(resultSet));
+	}
+
+	public void testSet() throws Exception {
+		resultSet.next();
+		reflector.set(resultSet, "name", "uno");
+		assertEquals("uno", reflector.get(resultSet, "name"));
+	}
+
+	public void testUnknownColumn() throws Exception {
+		resultSet.next();
+		try {
+			reflector.get(resultSet, "missing");
+			fail("Retrieving a nonexistent column should fail");
+		}
+		catch (Exception e) {
+			// this is the expected behavior
+		}
+	}
+
+}
@@ -21,6 +21,7 @@ import java.util.Vector;
 import net.sf.morph2.Morph;
 import net.sf.morph2.reflect.ReflectionException;
 import net.sf.morph2.reflect.Reflector;
+import net.sf.morph2.util.CharSequenceTokenizer;
 import net.sf.morph2.util.MorphStringTokenizer;
 
 /**
@@ -43,6 +44,7 @@ public class StringTokenizerReflectorTestCase extends BaseReflectorTestCase {
 		List list = new ArrayList();
 		list.add(new StringTokenizer("test"));
 		list.add(new MorphStringTokenizer("test"));
+		list.add(new CharSequenceTokenizer("test", " "));
 		return list;
 	}
 
@@ -61,6 +63,8 @@ public class StringTokenizerReflectorTestCase extends BaseReflectorTestCase {
 		assertEquals(0, Morph.getSize(new StringTokenizer("")));
 		assertEquals(1, Morph.getSize(new StringTokenizer("1")));
 		assertEquals(2, Morph.getSize(new StringTokenizer("two words")));
+		assertEquals(0, Morph.getSize(new CharSequenceTokenizer("", " ")));
+		assertEquals(2, Morph.getSize(new CharSequenceTokenizer("(two) words", " ", "()")));
 	}
 
 }
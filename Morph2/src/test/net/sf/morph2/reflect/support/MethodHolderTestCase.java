@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.reflect.support;
+
+import java.lang.reflect.InvocationTargetException;
+
+import junit.framework.TestCase;
+
+public class MethodHolderTestCase extends TestCase {
+
+	private static class PrivateBean {
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public String getBroken() {
+			throw new IllegalStateException("broken");
+		}
+	}
+
+	public void testInvokeNonPublicClass() throws Exception {
+		MethodHolder holder = new MethodHolder();
+		holder.setAccessor(PrivateBean.class.getMethod("getName"));
+		holder.setMutator(PrivateBean.class.getMethod("setName", String.class));
+		PrivateBean bean = new PrivateBean();
+		holder.invokeMutator(bean, "morph");
+		assertEquals("morph", bean.name);
+		assertEquals("morph", holder.invokeAccessor(bean));
+	}
+
+	public void testExceptionUnwrapping() throws Exception {
+		MethodHolder holder = new MethodHolder();
+		holder.setAccessor(PrivateBean.class.getMethod("getBroken"));
+		try {
+			holder.invokeAccessor(new PrivateBean());
+			fail("The accessor should have failed");
+		}
+		catch (InvocationTargetException e) {
+			assertTrue(e.getTargetException() instanceof IllegalStateException);
+			assertEquals("broken", e.getTargetException().getMessage());
+		}
+	}
+}
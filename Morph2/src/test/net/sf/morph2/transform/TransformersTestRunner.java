@@ -23,6 +23,7 @@ import net.sf.morph2.transform.converters.IdentityConverterTestCase;
 import net.sf.morph2.transform.converters.NumberConverterTestCase;
 import net.sf.morph2.transform.converters.NumberToTimeConverterTestCase;
 import net.sf.morph2.transform.converters.ObjectToClassConverterTestCase;
+import net.sf.morph2.transform.converters.PrimitiveArrayConverterTestCase;
 import net.sf.morph2.transform.converters.PrimitiveWrapperConverterTestCase;
 import net.sf.morph2.transform.converters.TextConverterTestCase;
 import net.sf.morph2.transform.converters.TextToNumberConverterTestCase;
@@ -32,12 +33,14 @@ import net.sf.morph2.transform.converters.TimeToNumberConverterTestCase;
 import net.sf.morph2.transform.copiers.ArrayCopierTestCase;
 import net.sf.morph2.transform.copiers.AssemblerCopierComponentsTestCase;
 import net.sf.morph2.transform.copiers.AssemblerCopierTestCase;
+import net.sf.morph2.transform.copiers.CompiledPlanPropertyNameMatchingCopierTestCase;
 import net.sf.morph2.transform.copiers.ConditionalCopierTestCase;
 import net.sf.morph2.transform.copiers.ContainerCopierTestCase;
 import net.sf.morph2.transform.copiers.CumulativeCopierTestCase;
 import net.sf.morph2.transform.copiers.DelegatingCopierTestCase;
 import net.sf.morph2.transform.copiers.DisassemblerCopierComponentsTestCase;
 import net.sf.morph2.transform.copiers.DisassemblerCopierTestCase;
+import net.sf.morph2.transform.copiers.GeneratedCopierPropertyNameMatchingCopierTestCase;
 import net.sf.morph2.transform.copiers.MapCopierTestCase;
 import net.sf.morph2.transform.copiers.NOPCopierTestCase;
 import net.sf.morph2.transform.copiers.NestedDelegatingCopierTestCase;
@@ -45,6 +48,8 @@ import net.sf.morph2.transform.copiers.PartialPropertyNameMatchingCopierTestCase
 import net.sf.morph2.transform.copiers.PropertyNameMatchingCopierTestCase;
 import net.sf.morph2.transform.copiers.SetExpressionCopierTestCase;
 import net.sf.morph2.transform.copiers.TextToContainerCopierTestCase;
+import net.sf.morph2.transform.support.ResultSetBeanIteratorTestCase;
+import net.sf.morph2.transform.support.VisitedNodeTableTestCase;
 import net.sf.morph2.transform.transformers.ChainedTransformerTestCase;
 import net.sf.morph2.transform.transformers.ExplicitChainedTransformerTestCase;
 import net.sf.morph2.transform.transformers.SimpleDelegatingTransformerTestCase;
@@ -66,6 +71,8 @@ public class TransformersTestRunner extends TestRunner {
 		suite.addTestSuite(ArrayCopierTestCase.class);
 		suite.addTestSuite(PropertyNameMatchingCopierTestCase.class);
 		suite.addTestSuite(PartialPropertyNameMatchingCopierTestCase.class);
+		suite.addTestSuite(CompiledPlanPropertyNameMatchingCopierTestCase.class);
+		suite.addTestSuite(GeneratedCopierPropertyNameMatchingCopierTestCase.class);
 		suite.addTestSuite(AssemblerCopierTestCase.class);
 		suite.addTestSuite(AssemblerCopierComponentsTestCase.class);
 		suite.addTestSuite(CumulativeCopierTestCase.class);
@@ -93,6 +100,7 @@ public class TransformersTestRunner extends TestRunner {
 		suite.addTestSuite(TextToNumberConverterTestCase.class);
 		suite.addTestSuite(TimeToNumberConverterTestCase.class);
 		suite.addTestSuite(PrimitiveWrapperConverterTestCase.class);
+		suite.addTestSuite(PrimitiveArrayConverterTestCase.class);
 		suite.addTestSuite(EvaluateExpressionConverterTestCase.class);
 		suite.addTestSuite(ConstantConverterTestCase.class);
 		suite.addTestSuite(CloningConverterTestCase.class);
@@ -106,6 +114,8 @@ public class TransformersTestRunner extends TestRunner {
 
 		suite.addTestSuite(SourceToDifferentDestinationsTestCase.class);
 		suite.addTestSuite(CyclicTransformationTestCase.class);
+		suite.addTestSuite(ResultSetBeanIteratorTestCase.class);
+		suite.addTestSuite(VisitedNodeTableTestCase.class);
 
 		// TRANSFORMERS
 
@@ -17,10 +17,12 @@ import java.util.List;
 
 import net.sf.composite.util.ObjectUtils;
 import net.sf.morph2.transform.ExplicitTransformer;
+import net.sf.morph2.transform.TentativeConverter;
 import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.transformers.BaseTransformerTestCase;
 import net.sf.morph2.util.ClassUtils;
 import net.sf.morph2.util.TestUtils;
+import net.sf.morph2.util.TransformerUtils;
 
 /**
  * @author Matt Sgarlata
@@ -246,6 +248,34 @@ public abstract class BaseConverterTestCase extends BaseTransformerTestCase {
 	
 	
 
+	public void testTryConvert() {
+		if (getValidPairs() != null) {
+			for (int i = 0; i < getValidPairs().length; i++) {
+				Object correctConverted = getValidPairs()[i].getConverted();
+				Object source = getValidPairs()[i].getSource();
+				Object converted = TransformerUtils.tryConvert(getConverter(),
+					ClassUtils.getClass(correctConverted), source, null);
+				assertTrue(ObjectUtils.getObjectDescription(source) + " was converted to "
+					+ ObjectUtils.getObjectDescription(converted)
+					+ " but should have been converted to "
+					+ ObjectUtils.getObjectDescription(correctConverted),
+					TestUtils.equals(correctConverted, converted));
+			}
+		}
+		if (getInvalidSources() != null) {
+			for (int i = 0; i < getInvalidSources().length; i++) {
+				for (int j = 0; j < getDestinationClasses().length; j++) {
+					Class destinationClass = getDestinationClasses()[j];
+					Object source = getInvalidSources()[i];
+					assertSame("tryConvert(" + destinationClass.getName() + ", "
+						+ ObjectUtils.getObjectDescription(source) + ") should fail",
+						TentativeConverter.NOT_CONVERTED, TransformerUtils.tryConvert(
+							getConverter(), destinationClass, source, null));
+				}
+			}
+		}
+	}
+
 	public void testGetSourceClasses() {
 		super.testGetSourceClasses();
 		if (invalidSourceClasses != null) {
@@ -270,6 +300,7 @@ public abstract class BaseConverterTestCase extends BaseTransformerTestCase {
 //		this.testValidPairs2();
 		this.testInvalidPairs();
 		this.testInvalidSources();
+		this.testTryConvert();
 		this.testGetSourceClasses();
 		this.testGetDestinationClasses();
 	}
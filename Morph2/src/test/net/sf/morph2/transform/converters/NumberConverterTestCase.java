@@ -19,7 +19,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.support.NumberRounder;
 
 /**
  * @author Matt Sgarlata
@@ -160,4 +162,59 @@ public class NumberConverterTestCase extends BaseConverterTestCase {
 
 	}	
 
+	public void testPrimitiveArithmeticMatchesBigDecimal() throws Exception {
+		Number[] sources = {
+				Byte.valueOf(Byte.MIN_VALUE), Short.valueOf((short) -129), Integer.valueOf(128),
+				Integer.valueOf(Integer.MIN_VALUE), Long.valueOf(Long.MAX_VALUE),
+				Long.valueOf(9007199254740993L), Long.valueOf(-2147483649L),
+				Float.valueOf(2.5f), Float.valueOf(-2.5f), Float.valueOf(0.1f), Float.valueOf(-0.0f),
+				Float.valueOf(3.5f), Float.valueOf(16777216f), Float.valueOf(1.23456794E9f),
+				Float.valueOf(Float.MAX_VALUE), Float.valueOf(Float.NaN),
+				Double.valueOf(2.5d), Double.valueOf(-2.5d), Double.valueOf(3.5d), Double.valueOf(-1.4d),
+				Double.valueOf(0.49999999999999994d), Double.valueOf(0.1d),
+				Double.valueOf(127.4d), Double.valueOf(127.6d), Double.valueOf(-128.6d),
+				Double.valueOf(2147483647.4d), Double.valueOf(-2147483648.4d),
+				Double.valueOf(4.5e15d), Double.valueOf(9.223372036854775807E18d),
+				Double.valueOf(1e300d), Double.valueOf(Double.NEGATIVE_INFINITY) };
+		Class[] destinations = { byte.class, Short.class, int.class, Long.class,
+				float.class, Double.class };
+		String[] roundingMethods = { NumberRounder.ROUND_CEILING, NumberRounder.ROUND_DOWN,
+				NumberRounder.ROUND_FLOOR, NumberRounder.ROUND_HALF_DOWN,
+				NumberRounder.ROUND_HALF_EVEN, NumberRounder.ROUND_HALF_UP,
+				NumberRounder.ROUND_UP };
+		NumberConverter converter = new NumberConverter();
+		// overriding checkNotOutOfBounds forces conversion by way of BigDecimal
+		NumberConverter reference = new NumberConverter() {
+			protected void checkNotOutOfBounds(Class destinationClass, Number number)
+					throws Exception {
+				super.checkNotOutOfBounds(destinationClass, number);
+			}
+		};
+		for (int r = 0; r < roundingMethods.length; r++) {
+			converter.setRoundingMethod(roundingMethods[r]);
+			reference.setRoundingMethod(roundingMethods[r]);
+			for (int s = 0; s < sources.length; s++) {
+				for (int d = 0; d < destinations.length; d++) {
+					String description = sources[s] + " to " + destinations[d].getName()
+							+ " " + roundingMethods[r];
+					Object expected;
+					try {
+						expected = reference.convert(destinations[d], sources[s]);
+					}
+					catch (TransformationException e) {
+						try {
+							converter.convert(destinations[d], sources[s]);
+							fail("expected TransformationException converting " + description);
+						}
+						catch (TransformationException e2) {
+						}
+						continue;
+					}
+					assertEquals(description, expected, converter.convert(destinations[d],
+							sources[s]));
+				}
+			}
+		}
+	}
+
 }
@@ -0,0 +1,148 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.converters;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import junit.framework.TestCase;
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.copiers.ContainerCopier;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+import net.sf.morph2.util.TestUtils;
+import net.sf.morph2.util.TransformerUtils;
+
+/**
+ * Tests that {@link PrimitiveArrayConverter} produces the same results as an
+ * element by element conversion with {@link ContainerCopier}.
+ *
+ * @since Morph 2.0
+ */
+public class PrimitiveArrayConverterTestCase extends TestCase {
+
+	private static final Class[] DESTINATION_TYPES = { byte[].class, short[].class,
+			int[].class, long[].class, float[].class, double[].class };
+
+	private SimpleDelegatingTransformer transformer;
+	private SimpleDelegatingTransformer elementTransformer;
+
+	protected void setUp() throws Exception {
+		transformer = new SimpleDelegatingTransformer();
+		// the default components with PrimitiveArrayConverter removed
+		Transformer[] components = (Transformer[]) transformer.getComponents();
+		List elementComponents = new ArrayList();
+		for (int i = 0; i < components.length; i++) {
+			if (!(components[i] instanceof PrimitiveArrayConverter)) {
+				elementComponents.add(components[i]);
+			}
+		}
+		elementTransformer = new SimpleDelegatingTransformer((Transformer[]) elementComponents
+				.toArray(new Transformer[elementComponents.size()]));
+	}
+
+	public void testDelegation() {
+		assertTrue(getConverter(double[].class, int[].class) instanceof PrimitiveArrayConverter);
+		assertTrue(getConverter(long[].class, Object[].class) instanceof PrimitiveArrayConverter);
+		assertTrue(getConverter(int[].class, List.class) instanceof PrimitiveArrayConverter);
+		assertFalse(getConverter(int[].class, int[].class) instanceof PrimitiveArrayConverter);
+		assertFalse(getConverter(String[].class, int[].class) instanceof PrimitiveArrayConverter);
+	}
+
+	public void testPrimitiveSources() {
+		Object[] sources = {
+				new byte[] { 0, -1, Byte.MAX_VALUE, Byte.MIN_VALUE },
+				new short[] { 0, -1, Short.MAX_VALUE, Short.MIN_VALUE },
+				new int[] { 0, -1, 16777217, Integer.MAX_VALUE, Integer.MIN_VALUE },
+				new long[] { 0, -1, 9007199254740993L, Long.MAX_VALUE, Long.MIN_VALUE },
+				new float[] { 0f, -0f, 0.1f, 2.5f, -2.5f, 16777216f, 1.23456794E9f, Float.MAX_VALUE },
+				new float[] { Float.NaN },
+				new double[] { 0d, -0d, 0.1d, 2.5d, -2.5d, 1e300, 9.223372036854775807E18 },
+				new double[] { Double.POSITIVE_INFINITY } };
+		for (int i = 0; i < sources.length; i++) {
+			for (int j = 0; j < DESTINATION_TYPES.length; j++) {
+				assertSameConversion(DESTINATION_TYPES[j], sources[i]);
+			}
+		}
+	}
+
+	public void testObjectSources() {
+		Object[] sources = {
+				new Object[] { Integer.valueOf(3), Long.valueOf(-7), Short.valueOf((short) 2),
+						Byte.valueOf((byte) 1), Double.valueOf(2.5), Float.valueOf(0.1f) },
+				new Object[] { Long.valueOf(Long.MAX_VALUE), new BigDecimal("1.5") },
+				new Object[] { "1", "007", "-5", "2.5", "123456789012345678901" },
+				new String[] { "12", "40000", "" },
+				new Object[] { Integer.valueOf(1), null },
+				Arrays.asList(new Object[] { Long.valueOf(1), Long.valueOf(2), Long.valueOf(3) }),
+				Arrays.asList(new Object[] { Double.valueOf(1e10), "1", Integer.valueOf(2) }) };
+		for (int i = 0; i < sources.length; i++) {
+			for (int j = 0; j < DESTINATION_TYPES.length; j++) {
+				assertSameConversion(DESTINATION_TYPES[j], sources[i]);
+			}
+		}
+	}
+
+	public void testRounding() {
+		int[] result = (int[]) transformer.convert(int[].class, new double[] { 2.5d, 2d, -1.4d });
+		assertEquals(3, result[0]);
+		assertEquals(2, result[1]);
+		assertEquals(-1, result[2]);
+	}
+
+	public void testLargeArray() {
+		double[] source = new double[100000];
+		for (int i = 0; i < source.length; i++) {
+			source[i] = i;
+		}
+		long[] result = (long[]) transformer.convert(long[].class, source);
+		assertEquals(source.length, result.length);
+		for (int i = 0; i < result.length; i++) {
+			assertEquals(i, result[i]);
+		}
+	}
+
+	private Transformer getConverter(Class destinationClass, Class sourceClass) {
+		return transformer.getDelegate(destinationClass, sourceClass);
+	}
+
+	private void assertSameConversion(Class destinationClass, Object source) {
+		Object expected;
+		Exception expectedException = null;
+		try {
+			expected = TransformerUtils.transform(elementTransformer, destinationClass, null,
+					source, Locale.US, null);
+		}
+		catch (Exception e) {
+			expected = null;
+			expectedException = e;
+		}
+		Object actual;
+		try {
+			actual = transformer.convert(destinationClass, source, Locale.US);
+		}
+		catch (Exception e) {
+			assertNotNull("unexpected " + e + " converting " + TestUtils.describe(source)
+					+ " to " + destinationClass, expectedException);
+			assertEquals(expectedException.getClass(), e.getClass());
+			return;
+		}
+		assertNull("expected " + expectedException + " converting " + TestUtils.describe(source)
+				+ " to " + destinationClass, expectedException);
+		assertEquals(TestUtils.describe(source) + " to " + destinationClass,
+				TestUtils.describe(expected), TestUtils.describe(actual));
+	}
+}
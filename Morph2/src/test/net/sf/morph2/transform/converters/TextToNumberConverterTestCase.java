@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import net.sf.morph2.transform.TentativeConverter;
+import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.Transformer;
 
 /**
@@ -179,4 +181,23 @@ public class TextToNumberConverterTestCase extends BaseConverterTestCase {
 		assertEquals(new Double(-.01), (Double) getConverter().convert(Double.class, "1%-", Locale.US));		
 	}
 
+	public void testTryConvertInvalidText() throws Exception {
+		TextToNumberConverter converter = new TextToNumberConverter();
+		assertSame(TentativeConverter.NOT_CONVERTED, converter.tryConvert(Integer.class,
+			"99999999999", Locale.US));
+		assertSame(TentativeConverter.NOT_CONVERTED, converter.tryConvert(int.class, "$",
+			Locale.US));
+		assertSame(TentativeConverter.NOT_CONVERTED, converter.tryConvert(Long.class, "()",
+			Locale.US));
+		assertEquals(Integer.valueOf(-12), converter.tryConvert(Integer.class, "(12)", Locale.US));
+		assertNull(converter.tryConvert(Integer.class, "", Locale.US));
+		try {
+			converter.convert(int.class, "$", Locale.US);
+			fail("text without digits should not be converted");
+		}
+		catch (TransformationException e) {
+			// expected
+		}
+	}
+
 }
@@ -20,6 +20,7 @@ import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Map;
 
+import net.sf.morph2.transform.TentativeConverter;
 import net.sf.morph2.transform.Transformer;
 import net.sf.morph2.util.TestObjects;
 
@@ -77,4 +78,47 @@ public class TextToTimeConverterTestCase extends BaseConverterTestCase {
 		return new TextToTimeConverter();
 	}
 
+	public void testConcurrentConversions() throws Exception {
+		final TextToTimeConverter converter = new TextToTimeConverter();
+		final String source = "January 30, 2005 11:51:02 AM EST";
+		final Date expected = (Date) converter.convert(Date.class, source, null);
+		final List failures = new ArrayList();
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						for (int j = 0; j < 500; j++) {
+							Object result = converter.convert(Date.class, source, null);
+							if (!expected.equals(result)) {
+								throw new IllegalStateException("Unexpected result " + result);
+							}
+						}
+					}
+					catch (Throwable t) {
+						synchronized (failures) {
+							failures.add(t);
+						}
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (int i = 0; i < threads.length; i++) {
+			threads[i].join();
+		}
+		assertTrue("Failures: " + failures, failures.isEmpty());
+	}
+
+	public void testTryConvertInvalidText() throws Exception {
+		TextToTimeConverter converter = new TextToTimeConverter();
+		assertSame(TentativeConverter.NOT_CONVERTED, converter.tryConvert(Date.class,
+			"not a date"));
+		assertNull(converter.tryConvert(Date.class, ""));
+		Date date = new Date();
+		String text = converter.getDateFormat().format(date);
+		assertEquals(converter.convert(Calendar.class, text),
+			converter.tryConvert(Calendar.class, text));
+	}
+
 }
@@ -13,14 +13,34 @@
  */
 package net.sf.morph2.transform.converters.totext;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
+import net.sf.morph2.Morph;
 import net.sf.morph2.transform.Transformer;
 import net.sf.morph2.transform.converters.ObjectToPrettyTextConverter;
 
 public class ObjectToPrettyTextConverterTestCase extends BaseToTextConverterTestCase {
 
+	public static class FailingBean {
+		public String getBroken() {
+			throw new IllegalStateException();
+		}
+
+		public String getValue() {
+			return "value";
+		}
+
+		public String toString() {
+			return "failing";
+		}
+	}
+
 	public List createValidPairs() throws Exception {
 		List list = new ArrayList();
 		addContainerConversions(list);
@@ -35,4 +55,63 @@ public class ObjectToPrettyTextConverterTestCase extends BaseToTextConverterTest
 		return new ObjectToPrettyTextConverter();
 	}
 
+	public void testAppend() throws Exception {
+		Map map = new HashMap();
+		map.put("numbers", Arrays.asList(new Object[] { Integer.valueOf(1), Integer.valueOf(2) }));
+		map.put("nested", Arrays.asList(new Object[] { "a", Arrays.asList(new Object[] { "b",
+				Arrays.asList(new Object[] { "c" }) }) }));
+		Object[] sources = { map, new Object[] { map, null, "d" }, "e", null };
+
+		ObjectToPrettyTextConverter converter = new ObjectToPrettyTextConverter();
+		converter.setLevels(3);
+		for (int i = 0; i < sources.length; i++) {
+			StringBuilder builder = new StringBuilder();
+			converter.append(builder, sources[i], Locale.US);
+			String expected = sources[i] == null ? "null" : (String) converter.convert(
+					String.class, sources[i], Locale.US);
+			assertEquals(expected, builder.toString());
+
+			StringWriter writer = new StringWriter();
+			Morph.appendPrettyString(writer, sources[i]);
+			expected = sources[i] == null ? "null" : Morph.convertToPrettyString(sources[i]);
+			assertEquals(expected, writer.toString());
+		}
+	}
+
+	public void testFailedTextDiscarded() throws Exception {
+		Object[] source = { "a", new FailingBean() };
+		ObjectToPrettyTextConverter converter = new ObjectToPrettyTextConverter();
+		converter.setLevels(2);
+		StringBuilder builder = new StringBuilder();
+		converter.append(builder, source, Locale.US);
+		assertEquals("{a,failing}", builder.toString());
+
+		// a Writer receives the text as it is produced
+		StringWriter writer = new StringWriter();
+		converter.append(writer, source, Locale.US);
+		assertTrue(writer.toString().startsWith("{a,"));
+		assertTrue(writer.toString().endsWith("failing}"));
+
+		converter.setMaxLength(7);
+		assertEquals("{a,fail...", converter.convert(String.class, source));
+		writer = new StringWriter();
+		converter.append(writer, source, Locale.US);
+		assertEquals("{a,fail...", writer.toString());
+	}
+
+	public void testMaxLength() throws Exception {
+		List list = new ArrayList();
+		for (int i = 0; i < 1000; i++) {
+			list.add(Integer.valueOf(i));
+		}
+		ObjectToPrettyTextConverter converter = new ObjectToPrettyTextConverter();
+		converter.setMaxLength(10);
+		assertEquals("{0,1,2,3,4...", converter.convert(String.class, list));
+
+		converter.setMaxLength(ObjectToPrettyTextConverter.UNLIMITED_LENGTH);
+		String text = (String) converter.convert(String.class, list);
+		assertTrue(text.startsWith("{0,1,2,3,4,"));
+		assertTrue(text.endsWith(",998,999}"));
+	}
+
 }
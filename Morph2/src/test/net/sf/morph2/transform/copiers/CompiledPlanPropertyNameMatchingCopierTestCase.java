@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.copiers;
+
+import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.util.TestClass;
+import net.sf.morph2.util.TestUtils;
+
+/**
+ * Runs the {@link PropertyNameMatchingCopier} tests with compiled copy plans
+ * enabled.
+ *
+ * @since Morph 2.0
+ */
+public class CompiledPlanPropertyNameMatchingCopierTestCase extends
+		PropertyNameMatchingCopierTestCase {
+
+	public CompiledPlanPropertyNameMatchingCopierTestCase(String name) {
+		super(name);
+	}
+
+	public void testRepeatedCopy() {
+		PropertyNameMatchingCopier copier = (PropertyNameMatchingCopier) createTransformer();
+		for (int i = 0; i < 3; i++) {
+			TestClass destination = new TestClass();
+			copier.copy(destination, TestClass.getPartialObject(), null);
+			TestUtils.assertEquals(TestClass.getPartialObject(), destination);
+		}
+	}
+
+	public void testPlanInvalidatedByConfiguration() {
+		PropertyNameMatchingCopier copier = (PropertyNameMatchingCopier) createTransformer();
+		TestClass destination = new TestClass();
+		copier.copy(destination, TestClass.getPartialObject(), null);
+		assertEquals(Long.valueOf(13), destination.getMyLongValue());
+
+		copier.setPropertiesToIgnore(new String[] { "myLongValue" });
+		destination = new TestClass();
+		copier.copy(destination, TestClass.getPartialObject(), null);
+		assertNull(destination.getMyLongValue());
+		assertEquals(Long.valueOf(14), destination.getAnObject());
+	}
+
+	protected Transformer createTransformer() {
+		PropertyNameMatchingCopier copier = new PropertyNameMatchingCopier();
+		copier.setCompilingPlans(true);
+		return copier;
+	}
+}
@@ -15,7 +15,9 @@ package net.sf.morph2.transform.copiers;
 
 import java.sql.ResultSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -24,10 +26,15 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import javax.servlet.http.HttpSession;
 
+import net.sf.morph2.reflect.reflectors.CollectionReflector;
 import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.transformers.SimpleDelegatingTransformer;
+import net.sf.morph2.util.ContainerUtils;
 import net.sf.morph2.util.TestObjects;
 
 /**
@@ -109,6 +116,127 @@ public class ContainerCopierTestCase extends BaseCopierTestCase {
 		assertEquals(4, destination[1]);
 	}
 
+	public void testBulkCopyMatchesElementCopy() {
+		List source = new ArrayList();
+		source.add(Long.valueOf(1));
+		source.add(Integer.valueOf(2));
+		source.add("3");
+		source.add(Long.valueOf(4));
+		ContainerCopier elementCopier = new ContainerCopier();
+		elementCopier.setBulkCopying(false);
+		Class[] destinationClasses = new Class[] { long[].class, Long[].class,
+				Object[].class, ArrayList.class, LinkedList.class };
+		for (int i = 0; i < destinationClasses.length; i++) {
+			assertEquals(ContainerUtils.getIterator(elementCopier.convert(destinationClasses[i],
+					source, null)), ContainerUtils.getIterator(getConverter().convert(
+					destinationClasses[i], source, null)));
+		}
+	}
+
+	public void testBulkCopyWithNulls() {
+		List source = new ArrayList();
+		source.add(Long.valueOf(1));
+		source.add(null);
+		Object[] result = (Object[]) getConverter().convert(Object[].class, source);
+		assertEquals(Long.valueOf(1), result[0]);
+		assertNull(result[1]);
+
+		Long[] destination = new Long[] { Long.valueOf(5), Long.valueOf(6) };
+		getCopier().copy(destination, source);
+		assertEquals(Long.valueOf(1), destination[0]);
+		assertNull(destination[1]);
+	}
+
+	public void testBulkCopyUsesCustomReflector() {
+		final List added = new ArrayList();
+		ContainerCopier copier = new ContainerCopier();
+		copier.setReflector(new CollectionReflector() {
+			protected boolean addImpl(Object container, Object value) {
+				added.add(value);
+				return super.addImpl(container, value);
+			}
+		});
+		List source = Arrays.asList(new Object[] { Long.valueOf(1), "2" });
+		assertEquals(source, copier.convert(ArrayList.class, source, null));
+		assertEquals(source, added);
+	}
+
+	public void testParallelCopyUsesCustomReflector() {
+		final List added = Collections.synchronizedList(new ArrayList());
+		ContainerCopier copier = new ContainerCopier();
+		copier.setReflector(new CollectionReflector() {
+			protected boolean addImpl(Object container, Object value) {
+				added.add(value);
+				return super.addImpl(container, value);
+			}
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		copier.setExecutor(executor);
+		copier.setParallelChunkSize(10);
+		try {
+			List source = new ArrayList();
+			for (int i = 0; i < 100; i++) {
+				source.add(Integer.toString(i));
+			}
+			assertEquals(source, copier.convert(ArrayList.class, source, null));
+			assertEquals(source, added);
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	public void testParallelCopy() {
+		List source = new ArrayList();
+		for (int i = 0; i < 100; i++) {
+			source.add(i % 7 == 0 ? null : Integer.toString(i));
+		}
+		ContainerCopier parallelCopier = new ContainerCopier();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		parallelCopier.setExecutor(executor);
+		parallelCopier.setParallelChunkSize(10);
+		try {
+			Class[] destinationClasses = new Class[] { Long[].class, Object[].class,
+					ArrayList.class, LinkedList.class };
+			for (int i = 0; i < destinationClasses.length; i++) {
+				assertEquals(ContainerUtils.getIterator(getConverter().convert(
+						destinationClasses[i], source, null)), ContainerUtils.getIterator(
+						parallelCopier.convert(destinationClasses[i], source, null)));
+			}
+
+			// a reference shared between elements is still shared in the destination
+			List shared = new ArrayList(source);
+			List sharingSource = new ArrayList();
+			for (int i = 0; i < 100; i++) {
+				sharingSource.add(i % 2 == 0 ? shared : new ArrayList(source));
+			}
+			SimpleDelegatingTransformer transformer = new SimpleDelegatingTransformer();
+			Transformer[] components = (Transformer[]) transformer.getComponents();
+			for (int i = 0; i < components.length; i++) {
+				if (components[i] instanceof ContainerCopier) {
+					((ContainerCopier) components[i]).setExecutor(executor);
+					((ContainerCopier) components[i]).setParallelChunkSize(10);
+				}
+			}
+			Object[][] result = (Object[][]) transformer.convert(Object[][].class, sharingSource);
+			assertEquals(100, result.length);
+			assertSame(result[0], result[98]);
+			assertNotSame(result[1], result[99]);
+			assertEquals(source, Arrays.asList(result[99]));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+
+	private void assertEquals(Iterator expected, Iterator actual) {
+		while (expected.hasNext()) {
+			assertTrue(actual.hasNext());
+			assertEquals(expected.next(), actual.next());
+		}
+		assertFalse(actual.hasNext());
+	}
+
 	protected Transformer createTransformer() {
 		return new ContainerCopier();
 	}
@@ -0,0 +1,130 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.copiers;
+
+import net.sf.morph2.transform.Transformer;
+
+/**
+ * Runs the {@link PropertyNameMatchingCopier} tests with generated copiers
+ * enabled.
+ *
+ * @since Morph 2.0
+ */
+public class GeneratedCopierPropertyNameMatchingCopierTestCase extends
+		CompiledPlanPropertyNameMatchingCopierTestCase {
+
+	public static class IntBean {
+		private int number;
+		private String text;
+
+		public int getNumber() {
+			return number;
+		}
+
+		public void setNumber(int number) {
+			this.number = number;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(String text) {
+			this.text = text;
+		}
+	}
+
+	public static class LongBean {
+		private long number;
+		private StringBuffer text;
+
+		public long getNumber() {
+			return number;
+		}
+
+		public void setNumber(long number) {
+			this.number = number;
+		}
+
+		public StringBuffer getText() {
+			return text;
+		}
+
+		public void setText(StringBuffer text) {
+			this.text = text;
+		}
+	}
+
+	public static class ByteBean {
+		private byte number;
+
+		public byte getNumber() {
+			return number;
+		}
+
+		public void setNumber(byte number) {
+			this.number = number;
+		}
+	}
+
+	private static class HiddenBean extends IntBean {
+	}
+
+	public GeneratedCopierPropertyNameMatchingCopierTestCase(String name) {
+		super(name);
+	}
+
+	public void testPrimitiveWidening() {
+		PropertyNameMatchingCopier copier = (PropertyNameMatchingCopier) createTransformer();
+		for (int i = 0; i < 2; i++) {
+			IntBean source = new IntBean();
+			source.setNumber(Integer.MAX_VALUE - i);
+			source.setText("text" + i);
+			LongBean destination = new LongBean();
+			copier.copy(destination, source, null);
+			assertEquals(Integer.MAX_VALUE - i, destination.getNumber());
+			assertEquals("text" + i, destination.getText().toString());
+		}
+		assertNotNull(copier.getDirectPropertyCopier(LongBean.class, IntBean.class));
+	}
+
+	public void testWideningWithoutInstruction() {
+		PropertyNameMatchingCopier copier = (PropertyNameMatchingCopier) createTransformer();
+		for (int i = 0; i < 2; i++) {
+			ByteBean source = new ByteBean();
+			source.setNumber((byte) (Byte.MIN_VALUE + i));
+			IntBean destination = new IntBean();
+			copier.copy(destination, source, null);
+			assertEquals(Byte.MIN_VALUE + i, destination.getNumber());
+		}
+		assertNotNull(copier.getDirectPropertyCopier(IntBean.class, ByteBean.class));
+	}
+
+	public void testInaccessibleClass() {
+		PropertyNameMatchingCopier copier = (PropertyNameMatchingCopier) createTransformer();
+		HiddenBean source = new HiddenBean();
+		source.setNumber(42);
+		source.setText("hidden");
+		IntBean destination = new IntBean();
+		copier.copy(destination, source, null);
+		assertEquals(42, destination.getNumber());
+		assertEquals("hidden", destination.getText());
+	}
+
+	protected Transformer createTransformer() {
+		PropertyNameMatchingCopier copier = new PropertyNameMatchingCopier();
+		copier.setGeneratingCopiers(true);
+		return copier;
+	}
+}
@@ -18,9 +18,12 @@ import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
+import java.util.StringTokenizer;
 import java.util.TreeMap;
 
 import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.util.CharSequenceTokenizer;
+import net.sf.morph2.util.TestUtils;
 
 /**
  * @author Matt Sgarlata
@@ -53,6 +56,62 @@ public class TextToContainerCopierTestCase extends BaseCopierTestCase {
 		assertEquals("h", copier.removeIgnoredCharacters("hi", "i"));
 	}
 
+	public void testTokenizer() {
+		TextToContainerCopier copier = getTextToContainerCopier();
+		String[] sources = { "", " ", "1,2", "(1), (2)", "{ 1, 2, 3 }", "(,)", "a(b)c",
+				" (x) ,, y| z)", "1(|)2", "()" };
+		String[][] characters = { { " ,|", "()[]{}" }, { ",", null }, { " ,(", "()" },
+				{ null, "()" } };
+		for (int i = 0; i < sources.length; i++) {
+			for (int j = 0; j < characters.length; j++) {
+				String delimiters = characters[j][0];
+				String ignored = characters[j][1];
+				StringTokenizer expected = new StringTokenizer(copier.removeIgnoredCharacters(
+						sources[i], ignored), delimiters == null ? "" : delimiters);
+				CharSequenceTokenizer actual = new CharSequenceTokenizer(sources[i],
+						delimiters, ignored);
+				assertEquals(expected.countTokens(), actual.countTokens());
+				while (expected.hasMoreTokens()) {
+					assertEquals(expected.nextToken(), actual.nextToken());
+				}
+				assertFalse(actual.hasMoreTokens());
+			}
+		}
+	}
+
+	public void testPrimitiveArrays() {
+		TextToContainerCopier expectedCopier = new TextToContainerCopier() {
+			protected String removeIgnoredCharacters(String source, String ignoredCharacters) {
+				return super.removeIgnoredCharacters(source, ignoredCharacters);
+			}
+		};
+		Class[] destinationClasses = { byte[].class, short[].class, int[].class,
+				long[].class, float[].class, double[].class };
+		String[] sources = { "1, 2, (3)", "127 128 32767 32768", "2147483647, 2147483648",
+				"16777216 16777217 9007199254740993", "007, 1.5, -4", "123456789012345678901",
+				"x" };
+		for (int i = 0; i < sources.length; i++) {
+			for (int j = 0; j < destinationClasses.length; j++) {
+				Object expected;
+				try {
+					expected = expectedCopier.convert(destinationClasses[j], sources[i]);
+				}
+				catch (Exception e) {
+					expected = e.getClass();
+				}
+				Object actual;
+				try {
+					actual = getConverter().convert(destinationClasses[j], sources[i]);
+				}
+				catch (Exception e) {
+					actual = e.getClass();
+				}
+				assertEquals(sources[i] + " to " + destinationClasses[j],
+						TestUtils.describe(expected), TestUtils.describe(actual));
+			}
+		}
+	}
+
 	public List createDestinationClasses() throws Exception {
 	    List list = new ArrayList();
 	    list.add(Iterator.class);
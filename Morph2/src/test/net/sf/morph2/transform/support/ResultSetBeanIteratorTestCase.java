@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.util.NoSuchElementException;
+
+import junit.framework.TestCase;
+import net.sf.morph2.transform.TransformationException;
+import net.sf.morph2.util.TestResultSets;
+
+public class ResultSetBeanIteratorTestCase extends TestCase {
+
+	public static class Row {
+		private int id;
+		private String name;
+		private BigDecimal price;
+
+		public int getId() {
+			return id;
+		}
+		public void setId(int id) {
+			this.id = id;
+		}
+		public String getName() {
+			return name;
+		}
+		public void setName(String name) {
+			this.name = name;
+		}
+		public BigDecimal getPrice() {
+			return price;
+		}
+		public void setPrice(BigDecimal price) {
+			this.price = price;
+		}
+	}
+
+	private ResultSet resultSet;
+
+	protected void setUp() throws Exception {
+		resultSet = TestResultSets.createResultSet(new String[] { "ID", "NAME", "PRICE", "IGNORED" },
+				new Object[][] {
+						{ Long.valueOf(1), "one", Double.valueOf(1.5), "x" },
+						{ Long.valueOf(2), "two", Double.valueOf(2.5), "y" },
+						{ Long.valueOf(3), "three", Double.valueOf(3.5), "z" } });
+	}
+
+	public void testConvertsRows() {
+		ResultSetBeanIterator iterator = new ResultSetBeanIterator(resultSet, Row.class);
+		for (int i = 1; i <= 3; i++) {
+			assertTrue(iterator.hasNext());
+			Row row = (Row) iterator.next();
+			assertEquals(i, row.getId());
+			assertEquals(new BigDecimal(i + 0.5), row.getPrice());
+		}
+		assertFalse(iterator.hasNext());
+		try {
+			iterator.next();
+			fail("Should have run out of rows");
+		}
+		catch (NoSuchElementException e) {
+			// this is the expected behavior
+		}
+		assertEquals(1, TestResultSets.getMetaDataCalls(resultSet));
+	}
+
+	public void testReadsLazily() {
+		ResultSetBeanIterator iterator = new ResultSetBeanIterator(resultSet, Row.class);
+		assertEquals(0, TestResultSets.getRowsRead(resultSet));
+		assertEquals("one", ((Row) iterator.next()).getName());
+		assertEquals(1, TestResultSets.getRowsRead(resultSet));
+	}
+
+	public void testBatchSize() {
+		ResultSetBeanIterator iterator = new ResultSetBeanIterator(resultSet, Row.class);
+		iterator.setBatchSize(2);
+		assertEquals("one", ((Row) iterator.next()).getName());
+		assertEquals(2, TestResultSets.getRowsRead(resultSet));
+		assertEquals("two", ((Row) iterator.next()).getName());
+		assertEquals("three", ((Row) iterator.next()).getName());
+		assertFalse(iterator.hasNext());
+	}
+
+	public void testFailureReportedInTurn() {
+		ResultSet failing = TestResultSets.createResultSet(new String[] { "ID", "NAME" },
+				new Object[][] { { Long.valueOf(1), "one" }, { "two", "two" }, { Long.valueOf(3), "three" } });
+		ResultSetBeanIterator iterator = new ResultSetBeanIterator(failing, Row.class);
+		iterator.setBatchSize(3);
+		assertEquals("one", ((Row) iterator.next()).getName());
+		assertTrue(iterator.hasNext());
+		try {
+			iterator.next();
+			fail("The second row cannot be converted");
+		}
+		catch (TransformationException e) {
+			// this is the expected behavior
+		}
+		assertEquals("three", ((Row) iterator.next()).getName());
+		assertFalse(iterator.hasNext());
+	}
+
+	public void testMatchesColumnLabels() {
+		ResultSet renamed = TestResultSets.createResultSet(new String[] { "ROW_ID", "TITLE" },
+				new String[] { "ID", "NAME" }, new Object[][] { { Long.valueOf(7), "seven" } });
+		Row row = (Row) new ResultSetBeanIterator(renamed, Row.class).next();
+		assertEquals(7, row.getId());
+		assertEquals("seven", row.getName());
+	}
+
+}
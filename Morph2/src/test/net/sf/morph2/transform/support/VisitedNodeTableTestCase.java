@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.transform.support;
+
+import junit.framework.TestCase;
+
+public class VisitedNodeTableTestCase extends TestCase {
+
+	public void testClear() {
+		VisitedNodeTable table = new VisitedNodeTable();
+		Object[] sources = new Object[500];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = new Object();
+			table.put(sources[i], String.class, Integer.valueOf(i));
+		}
+		assertEquals(sources.length, table.size());
+		for (int i = 0; i < sources.length; i++) {
+			assertEquals(Integer.valueOf(i), table.get(sources[i], String.class));
+		}
+		assertSame(VisitedNodeTable.NOT_FOUND, table.get(sources[0], Integer.class));
+
+		table.clear();
+		assertEquals(0, table.size());
+		for (int i = 0; i < sources.length; i++) {
+			assertSame(VisitedNodeTable.NOT_FOUND, table.get(sources[i], String.class));
+		}
+		table.put(sources[1], String.class, "again");
+		assertEquals(1, table.size());
+		assertEquals("again", table.get(sources[1], String.class));
+		assertSame(VisitedNodeTable.NOT_FOUND, table.get(sources[0], String.class));
+	}
+
+	public void testParent() {
+		Object shared = new Object();
+		Object own = new Object();
+		VisitedNodeTable parent = new VisitedNodeTable();
+		parent.put(shared, String.class, "shared");
+		VisitedNodeTable child = new VisitedNodeTable(parent);
+		child.put(own, String.class, "own");
+		assertEquals("shared", child.get(shared, String.class));
+		assertEquals(1, child.size());
+
+		child.clear();
+		assertEquals("shared", child.get(shared, String.class));
+		assertSame(VisitedNodeTable.NOT_FOUND, child.get(own, String.class));
+
+		child.put(own, String.class, "own");
+		assertTrue(parent.putAll(child));
+		assertEquals("own", parent.get(own, String.class));
+		assertFalse(parent.putAll(child));
+	}
+}
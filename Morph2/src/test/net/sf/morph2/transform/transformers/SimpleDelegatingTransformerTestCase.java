@@ -13,15 +13,25 @@
  */
 package net.sf.morph2.transform.transformers;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
 
+import net.sf.morph2.transform.Converter;
+import net.sf.morph2.transform.TransformationException;
 import net.sf.morph2.transform.Transformer;
+import net.sf.morph2.transform.converters.IdentityConverter;
 import net.sf.morph2.transform.converters.BaseConverterTestCase;
+import net.sf.morph2.util.DispatchSnapshot;
 import net.sf.morph2.util.MorphStringTokenizer;
+import net.sf.morph2.util.TransformerUtils;
 
 /**
  * 
@@ -79,7 +89,110 @@ public class SimpleDelegatingTransformerTestCase extends BaseConverterTestCase {
 		
 		return pairs;
 	}
-	
-	
+
+	public void testSetComponentsReplacesDispatch() throws Exception {
+		SimpleDelegatingTransformer transformer = new SimpleDelegatingTransformer();
+		assertEquals(Integer.valueOf(1), transformer.convert(Integer.class, "1"));
+		transformer.setComponents(new Transformer[] { new IdentityConverter() });
+		try {
+			transformer.convert(Integer.class, "1");
+			fail("stale delegate used after components were replaced");
+		}
+		catch (TransformationException e) {
+			// expected
+		}
+		assertEquals("1", transformer.convert(String.class, "1"));
+		assertTrue(transformer.getTransformers()[0] instanceof Converter);
+	}
+
+	public void testDispatchSnapshot() throws Exception {
+		SimpleDelegatingTransformer transformer = new SimpleDelegatingTransformer();
+		transformer.convert(Integer.class, "1");
+		transformer.convert(String[].class, "a,b");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transformer.writeDispatchSnapshot(out);
+		byte[] snapshot = out.toByteArray();
+		int selections = DispatchSnapshot.read(new ByteArrayInputStream(snapshot)).size();
+		assertTrue(selections > 0);
+
+		SimpleDelegatingTransformer preloaded = new SimpleDelegatingTransformer();
+		assertTrue(preloaded.readDispatchSnapshot(new ByteArrayInputStream(snapshot)));
+		out = new ByteArrayOutputStream();
+		preloaded.writeDispatchSnapshot(out);
+		assertEquals(selections, DispatchSnapshot.read(
+				new ByteArrayInputStream(out.toByteArray())).size());
+		assertEquals(Integer.valueOf(1), preloaded.convert(Integer.class, "1"));
+
+		SimpleDelegatingTransformer other = new SimpleDelegatingTransformer();
+		other.setComponents(new Transformer[] { new IdentityConverter() });
+		assertFalse(other.readDispatchSnapshot(new ByteArrayInputStream(snapshot)));
+		out = new ByteArrayOutputStream();
+		other.writeDispatchSnapshot(out);
+		assertEquals(0, DispatchSnapshot.read(new ByteArrayInputStream(out.toByteArray())).size());
+	}
+
+	public void testStaleDispatchSnapshotSelectionIgnored() throws Exception {
+		SimpleDelegatingTransformer transformer = new SimpleDelegatingTransformer();
+		transformer.convert(Integer.class, "1");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		transformer.writeDispatchSnapshot(out);
+		DispatchSnapshot snapshot = DispatchSnapshot.read(new ByteArrayInputStream(out
+				.toByteArray()));
+		Transformer[] components = transformer.getTransformers();
+		int incapable = 0;
+		while (TransformerUtils.isTransformable(components[incapable], Integer.class,
+				String.class)) {
+			incapable++;
+		}
+		DispatchSnapshot stale = new DispatchSnapshot(snapshot.getFingerprint());
+		stale.add(snapshot.getTable(0), Integer.class, String.class, incapable);
+		out = new ByteArrayOutputStream();
+		stale.write(out);
+
+		SimpleDelegatingTransformer preloaded = new SimpleDelegatingTransformer();
+		assertTrue(preloaded.readDispatchSnapshot(new ByteArrayInputStream(out.toByteArray())));
+		assertTrue(TransformerUtils.isTransformable(preloaded.getDelegate(Integer.class,
+				String.class), Integer.class, String.class));
+		assertEquals(Integer.valueOf(1), preloaded.convert(Integer.class, "1"));
+	}
+
+	public void testInvalidDispatchSnapshotLength() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(0x4d445331);
+		out.writeInt(-1);
+		try {
+			DispatchSnapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+			fail("negative fingerprint length accepted");
+		}
+		catch (IOException e) {
+			// expected
+		}
+	}
+
+	public void testEqualSourcesConvertedSeparately() throws Exception {
+		List source = new ArrayList();
+		source.add(new ArrayList(Arrays.asList(new String[] { "a" })));
+		source.add(new ArrayList(Arrays.asList(new String[] { "a" })));
+		Object[][] result = (Object[][]) new SimpleDelegatingTransformer().convert(Object[][].class, source);
+		assertEquals(2, result.length);
+		assertNotSame(result[0], result[1]);
+	}
+
+	public void testSharedNodes() throws Exception {
+		List shared = new ArrayList(Arrays.asList(new String[] { "a" }));
+		List source = new ArrayList();
+		source.add(shared);
+		source.add(shared);
+
+		SimpleDelegatingTransformer transformer = new SimpleDelegatingTransformer();
+		Object[][] result = (Object[][]) transformer.convert(Object[][].class, source);
+		assertSame(result[0], result[1]);
+
+		transformer.setTrackingVisitedNodes(false);
+		result = (Object[][]) transformer.convert(Object[][].class, source);
+		assertNotSame(result[0], result[1]);
+		assertEquals("a", result[1][0]);
+	}
 
 }
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package net.sf.morph2.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Creates in-memory, forward-only ResultSets for testing.  Only the methods
+ * Morph uses are supported.
+ */
+public class TestResultSets {
+
+	private static class ResultSetHandler implements InvocationHandler {
+		private final String[] columns;
+		private final Object[][] rows;
+		private final ResultSetMetaData metaData;
+		private int row = -1;
+		private int metaDataCalls;
+
+		ResultSetHandler(String[] columnNames, String[] columns, Object[][] rows) {
+			this.columns = columns;
+			this.rows = rows;
+			this.metaData = (ResultSetMetaData) Proxy.newProxyInstance(getClass()
+					.getClassLoader(), new Class[] { ResultSetMetaData.class },
+					new MetaDataHandler(columnNames, columns, rows));
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("next")) {
+				return Boolean.valueOf(++row < rows.length);
+			}
+			if (name.equals("getFetchSize")) {
+				return Integer.valueOf(0);
+			}
+			if (name.equals("getMetaData")) {
+				metaDataCalls++;
+				return metaData;
+			}
+			if (name.equals("getObject") || name.equals("getString")) {
+				if (row < 0 || row >= rows.length) {
+					throw new SQLException("Not on a row");
+				}
+				return rows[row][getIndex(args[0]) - 1];
+			}
+			if (name.equals("updateObject")) {
+				rows[row][getIndex(args[0]) - 1] = args[1];
+				return null;
+			}
+			if (name.equals("hashCode")) {
+				return Integer.valueOf(System.identityHashCode(proxy));
+			}
+			if (name.equals("equals")) {
+				return Boolean.valueOf(proxy == args[0]);
+			}
+			if (name.equals("toString")) {
+				return "TestResultSet";
+			}
+			throw new UnsupportedOperationException(name);
+		}
+
+		private int getIndex(Object column) throws SQLException {
+			if (column instanceof Integer) {
+				return ((Integer) column).intValue();
+			}
+			for (int i = 0; i < columns.length; i++) {
+				if (columns[i].equalsIgnoreCase((String) column)) {
+					return i + 1;
+				}
+			}
+			throw new SQLException("No column " + column);
+		}
+	}
+
+	private static class MetaDataHandler implements InvocationHandler {
+		private final String[] columnNames;
+		private final String[] columns;
+		private final Object[][] rows;
+
+		MetaDataHandler(String[] columnNames, String[] columns, Object[][] rows) {
+			this.columnNames = columnNames;
+			this.columns = columns;
+			this.rows = rows;
+		}
+
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			if (name.equals("getColumnCount")) {
+				return Integer.valueOf(columns.length);
+			}
+			int index = ((Integer) args[0]).intValue() - 1;
+			if (name.equals("getColumnName")) {
+				return columnNames[index];
+			}
+			if (name.equals("getColumnLabel")) {
+				return columns[index];
+			}
+			if (name.equals("getColumnClassName")) {
+				for (int i = 0; i < rows.length; i++) {
+					if (rows[i][index] != null) {
+						return rows[i][index].getClass().getName();
+					}
+				}
+				return Object.class.getName();
+			}
+			if (name.equals("isWritable")) {
+				return Boolean.TRUE;
+			}
+			throw new UnsupportedOperationException(name);
+		}
+	}
+
+	/**
+	 * Create a ResultSet with the given column names and rows.
+	 * @param columns
+	 * @param rows
+	 * @return ResultSet
+	 */
+	public static ResultSet createResultSet(String[] columns, Object[][] rows) {
+		return createResultSet(columns, columns, rows);
+	}
+
+	/**
+	 * Create a ResultSet whose columns have the given names and labels, as
+	 * for a query that renames its columns.
+	 * @param columnNames
+	 * @param columnLabels
+	 * @param rows
+	 * @return ResultSet
+	 */
+	public static ResultSet createResultSet(String[] columnNames, String[] columnLabels,
+			Object[][] rows) {
+		return (ResultSet) Proxy.newProxyInstance(TestResultSets.class.getClassLoader(),
+				new Class[] { ResultSet.class }, new ResultSetHandler(columnNames,
+						columnLabels, rows));
+	}
+
+	/**
+	 * Learn how many times getMetaData() was called on a ResultSet created by
+	 * {@link #createResultSet(String[], Object[][])}.
+	 * @param resultSet
+	 * @return int
+	 */
+	public static int getMetaDataCalls(ResultSet resultSet) {
+		return ((ResultSetHandler) Proxy.getInvocationHandler(resultSet)).metaDataCalls;
+	}
+
+	/**
+	 * Learn how many rows have been read from a ResultSet created by
+	 * {@link #createResultSet(String[], Object[][])}.
+	 * @param resultSet
+	 * @return int
+	 */
+	public static int getRowsRead(ResultSet resultSet) {
+		ResultSetHandler handler = (ResultSetHandler) Proxy.getInvocationHandler(resultSet);
+		return Math.min(handler.row + 1, handler.rows.length);
+	}
+
+}
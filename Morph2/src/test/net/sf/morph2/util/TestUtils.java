@@ -189,6 +189,25 @@ public class TestUtils {
 				actual));
 	}
 
+	/**
+	 * Describe the elements of an array, or any other object by its toString.
+	 * @param value
+	 * @return String
+	 */
+	public static String describe(Object value) {
+		if (value == null || !value.getClass().isArray()) {
+			return String.valueOf(value);
+		}
+		StringBuffer buffer = new StringBuffer("[");
+		for (int i = 0; i < Array.getLength(value); i++) {
+			if (i > 0) {
+				buffer.append(", ");
+			}
+			buffer.append(Array.get(value, i));
+		}
+		return buffer.append("]").toString();
+	}
+
 	public static Object getInstance(Class type) throws InstantiationException, IllegalAccessException {
 		return getDifferentInstance(type, null);
 	}